@@ -0,0 +1,61 @@
+package com.fakenews.datastructures;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD dot product on the JDK Vector API (incubator, JDK 16+).
+ * Compiled only by the {@code vector-api} Maven profile; {@link FloatVectors} loads it by name
+ * and falls back to the scalar kernel when it is absent or the module is not enabled.
+ */
+final class VectorApiDotKernel extends DotKernel {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    // one byte lane per float lane, widened with a lane-wise conversion (no 32-bit shape: 4-lane CPUs stay scalar)
+    private static final VectorSpecies<Byte> BYTES = SPECIES.length() >= 8
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(SPECIES.length() * Byte.SIZE))
+            : null;
+
+    @Override
+    String name() { return "vector-api"; }
+
+    @Override
+    float dot(float[] a, int aOff, float[] b, int bOff, int len) {
+        int step = SPECIES.length();
+        FloatVector acc0 = FloatVector.zero(SPECIES);
+        FloatVector acc1 = FloatVector.zero(SPECIES);
+        int i = 0;
+        // two accumulators hide the fma latency
+        for (int bound = SPECIES.loopBound(len) - step; i < bound; i += 2 * step) {
+            acc0 = FloatVector.fromArray(SPECIES, a, aOff + i)
+                    .fma(FloatVector.fromArray(SPECIES, b, bOff + i), acc0);
+            acc1 = FloatVector.fromArray(SPECIES, a, aOff + i + step)
+                    .fma(FloatVector.fromArray(SPECIES, b, bOff + i + step), acc1);
+        }
+        for (int bound = SPECIES.loopBound(len); i < bound; i += step) {
+            acc0 = FloatVector.fromArray(SPECIES, a, aOff + i)
+                    .fma(FloatVector.fromArray(SPECIES, b, bOff + i), acc0);
+        }
+        float s = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) s += a[aOff + i] * b[bOff + i];
+        return s;
+    }
+
+    @Override
+    float dotInt8(float[] query, byte[] codes, int off, int len) {
+        if (BYTES == null) return super.dotInt8(query, codes, off, len);
+        int step = SPECIES.length();
+        FloatVector acc = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(len); i < bound; i += step) {
+            FloatVector c = (FloatVector) ByteVector.fromArray(BYTES, codes, off + i)
+                    .convertShape(VectorOperators.B2F, SPECIES, 0);
+            acc = FloatVector.fromArray(SPECIES, query, i).fma(c, acc);
+        }
+        float s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) s += query[i] * codes[off + i];
+        return s;
+    }
+}
@@ -0,0 +1,121 @@
+package com.fakenews.analysis;
+
+import com.fakenews.datastructures.CredibilityMinHeap;
+import com.fakenews.datastructures.CredibilityRankIndex;
+import com.fakenews.datastructures.CredibilityRanking;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the {@link CredibilityRanking} implementations: {@link CredibilityRankIndex}
+ * (concurrent skip list) and {@link CredibilityMinHeap} (compact synchronized heap).
+ * Measures retained heap per article, bulk insert, top-K latency, and throughput of a
+ * concurrent mix of score updates and top-K reads. Each phase is repeated and the last
+ * round reported, so the JIT has warmed up.
+ * Run: mvn -Pcli exec:java -Dexec.mainClass=com.fakenews.analysis.CredibilityRankingBenchmark
+ * (optional args: articles k threads).
+ */
+public class CredibilityRankingBenchmark {
+
+    private static final int ROUNDS = 3;
+    private static final int TOP_K_QUERIES = 50;
+    private static final long MIXED_MILLIS = 1_000;
+    private static final int READ_PERCENT = 10;
+
+    public static void main(String[] args) throws Exception {
+        int n       = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int k       = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        System.out.print(new CredibilityRankingBenchmark().run(n, k, threads).generateReport());
+    }
+
+    public Report run(int n, int k, int threads) throws InterruptedException {
+        Map<String, double[]> results = new LinkedHashMap<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            results.put("CredibilityRankIndex", measure(new CredibilityRankIndex(), n, k, threads));
+            results.put("CredibilityMinHeap", measure(new CredibilityMinHeap(), n, k, threads));
+        }
+        return new Report(n, k, threads, results);
+    }
+
+    /** {bytes/article, insert ms, top-K µs/query, mixed ops/s} */
+    private double[] measure(CredibilityRanking ranking, int n, int k, int threads) throws InterruptedException {
+        // ids are built on the fly and owned by the ranking only, so their cost is counted
+        long before = usedHeap();
+        Random rnd = new Random(1);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) ranking.insert(UUID.nameUUIDFromBytes(intBytes(i)).toString(), rnd.nextDouble());
+        long insertNanos = System.nanoTime() - t0;
+        double bytesPerArticle = (usedHeap() - before) / (double) n;
+
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) ids[i] = UUID.nameUUIDFromBytes(intBytes(i)).toString();
+
+        int sink = 0;
+        t0 = System.nanoTime();
+        for (int q = 0; q < TOP_K_QUERIES; q++) sink += ranking.topK(k).size();
+        long topKNanos = (System.nanoTime() - t0) / TOP_K_QUERIES;
+        if (sink < 0) System.out.println(sink);
+
+        LongAdder ops = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MIXED_MILLIS);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    if (r.nextInt(100) < READ_PERCENT) ranking.topK(k);
+                    else ranking.updateScore(ids[r.nextInt(ids.length)], r.nextDouble());
+                    ops.increment();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(MIXED_MILLIS + 60_000, TimeUnit.MILLISECONDS);
+
+        return new double[] {bytesPerArticle, insertNanos / 1e6, topKNanos / 1e3, ops.sum() * 1000.0 / MIXED_MILLIS};
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static byte[] intBytes(int i) {
+        return new byte[] {(byte) (i >>> 24), (byte) (i >>> 16), (byte) (i >>> 8), (byte) i};
+    }
+
+    // ---------- DTO ----------
+    public static class Report {
+        private final int articles, k, threads;
+        private final Map<String, double[]> results;
+
+        public Report(int articles, int k, int threads, Map<String, double[]> results) {
+            this.articles = articles; this.k = k; this.threads = threads;
+            this.results = results;
+        }
+
+        public Map<String, double[]> getResults() { return results; }
+
+        public String generateReport() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("\n╔════════════════════════════════════════════════════════════╗\n");
+            sb.append("║          CREDIBILITY RANKING BENCHMARK                     ║\n");
+            sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
+
+            sb.append(String.format(Locale.ROOT, "Articles: %d, top-%d, %d threads (%d%% top-K reads in the mix)%n%n",
+                    articles, k, threads, READ_PERCENT));
+            sb.append(String.format(Locale.ROOT, "%-22s %14s %12s %12s %14s%n",
+                    "", "bytes/article", "insert (ms)", "top-K (µs)", "mixed (ops/s)"));
+            for (Map.Entry<String, double[]> e : results.entrySet()) {
+                double[] r = e.getValue();
+                sb.append(String.format(Locale.ROOT, "%-22s %14.0f %12.1f %12.1f %14.0f%n",
+                        e.getKey(), r[0], r[1], r[2], r[3]));
+            }
+            return sb.toString();
+        }
+    }
+}
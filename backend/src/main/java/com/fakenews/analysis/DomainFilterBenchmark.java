@@ -0,0 +1,135 @@
+package com.fakenews.analysis;
+
+import com.fakenews.datastructures.CompactDomainIndex;
+import com.fakenews.datastructures.DomainScoreIndex;
+import com.fakenews.datastructures.DomainTrie;
+import com.fakenews.datastructures.FilteredDomainIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Lookup cost of a domain reputation feed on a miss-heavy workload (most sources are in no list),
+ * with and without the Bloom filter in front: {@link DomainTrie} and {@link CompactDomainIndex},
+ * each plain and wrapped in a {@link FilteredDomainIndex}.
+ * Run: mvn -Pcli exec:java -Dexec.mainClass=com.fakenews.analysis.DomainFilterBenchmark
+ * (optional args: domains lookups hit-percent fpp).
+ */
+public class DomainFilterBenchmark {
+
+    private static final String[] SUFFIXES = {"com", "net", "org", "info", "co.uk", "com.au", "de", "ru", "news", "io"};
+    private static final String[] SUBDOMAINS = {"", "www.", "news.", "m.", "cdn.static."};
+
+    public static void main(String[] args) throws IOException {
+        int n       = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int hitPct  = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        double fpp  = args.length > 3 ? Double.parseDouble(args[3]) : 0.01;
+        System.out.print(new DomainFilterBenchmark().run(n, lookups, hitPct, fpp, 42).generateReport());
+    }
+
+    public Report run(int n, int lookups, int hitPct, double fpp, long seed) throws IOException {
+        Random rnd = new Random(seed);
+        String[] hosts = new String[lookups];
+        boolean[] listed = new boolean[lookups];
+        for (int i = 0; i < lookups; i++) {
+            listed[i] = rnd.nextInt(100) < hitPct;
+            int id = listed[i] ? rnd.nextInt(n) : n + rnd.nextInt(Integer.MAX_VALUE - n);   // unlisted: never stored
+            hosts[i] = SUBDOMAINS[rnd.nextInt(SUBDOMAINS.length)] + domain(id);
+        }
+
+        DomainTrie trie = new DomainTrie();
+        CompactDomainIndex.Builder builder = new CompactDomainIndex.Builder();
+        rnd = new Random(seed);
+        for (int i = 0; i < n; i++) {
+            double score = rnd.nextDouble();
+            trie.insert(domain(i), score);
+            builder.add(domain(i), score);
+        }
+        Path file = Files.createTempFile("domains", ".idx");
+        builder.save(file);
+        CompactDomainIndex index = CompactDomainIndex.open(file);
+
+        long t0 = System.nanoTime();
+        FilteredDomainIndex filteredIndex = FilteredDomainIndex.of(index, fpp);
+        double filterBuildMs = (System.nanoTime() - t0) / 1e6;
+        FilteredDomainIndex filteredTrie = FilteredDomainIndex.of(trie, fpp);
+
+        long falsePositives = 0, misses = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (listed[i]) continue;
+            misses++;
+            if (filteredIndex.getFilter().mightContainEnclosing(hosts[i], 0, hosts[i].length())) falsePositives++;
+        }
+
+        double[] ns = new double[4];
+        for (int round = 0; round < 3; round++) {   // last round reported, after JIT warm-up
+            ns[0] = lookupNanos(trie, hosts);
+            ns[1] = lookupNanos(filteredTrie, hosts);
+            ns[2] = lookupNanos(index, hosts);
+            ns[3] = lookupNanos(filteredIndex, hosts);
+        }
+        Files.deleteIfExists(file);
+        return new Report(n, lookups, hitPct, fpp, filteredIndex.getFilter().bytes(),
+                filteredIndex.getFilter().hashFunctions(), filterBuildMs,
+                misses == 0 ? 0 : falsePositives / (double) misses, ns);
+    }
+
+    private static double lookupNanos(DomainScoreIndex index, String[] hosts) {
+        double sink = 0;
+        long t0 = System.nanoTime();
+        for (String h : hosts) {
+            double s = index.mostSpecificScore(h);
+            if (!Double.isNaN(s)) sink += s;
+        }
+        long nanos = System.nanoTime() - t0;
+        if (sink < 0) System.out.println(sink);
+        return nanos / (double) hosts.length;
+    }
+
+    /** Deterministic registrable domain for id. */
+    private static String domain(int id) {
+        return "site" + Integer.toString(id, 36) + "." + SUFFIXES[Math.floorMod(id * 31, SUFFIXES.length)];
+    }
+
+    // ---------- DTO ----------
+    public static class Report {
+        private final int domains, lookups, hitPct, hashes;
+        private final double fpp, filterBuildMs, measuredFpp;
+        private final long filterBytes;
+        private final double[] ns;   // trie, filtered trie, index, filtered index
+
+        public Report(int domains, int lookups, int hitPct, double fpp, long filterBytes, int hashes,
+                      double filterBuildMs, double measuredFpp, double[] ns) {
+            this.domains = domains; this.lookups = lookups; this.hitPct = hitPct;
+            this.fpp = fpp; this.filterBytes = filterBytes; this.hashes = hashes;
+            this.filterBuildMs = filterBuildMs; this.measuredFpp = measuredFpp; this.ns = ns;
+        }
+
+        public double getMeasuredFpp() { return measuredFpp; }
+        public double getIndexLookupNs() { return ns[2]; }
+        public double getFilteredIndexLookupNs() { return ns[3]; }
+
+        public String generateReport() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("\n╔════════════════════════════════════════════════════════════╗\n");
+            sb.append("║          DOMAIN FILTER BENCHMARK                           ║\n");
+            sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
+
+            sb.append(String.format(Locale.ROOT, "Domains: %d, lookups: %d (%d%% listed)%n%n", domains, lookups, hitPct));
+            sb.append(String.format(Locale.ROOT, "Bloom filter (target fpp %.3f):%n", fpp));
+            sb.append(String.format(Locale.ROOT, "  • Size:           %8.2f MB (%.1f bits/domain, %d hashes)%n",
+                    filterBytes / 1e6, filterBytes * 8.0 / domains, hashes));
+            sb.append(String.format(Locale.ROOT, "  • Build:          %8.0f ms (from the mapped index)%n", filterBuildMs));
+            sb.append(String.format(Locale.ROOT, "  • Measured fpp:   %8.4f (unlisted hosts passed through)%n%n", measuredFpp));
+            sb.append("Most-specific lookup:\n");
+            sb.append(String.format(Locale.ROOT, "  • DomainTrie:                  %6.0f ns%n", ns[0]));
+            sb.append(String.format(Locale.ROOT, "  • DomainTrie + filter:         %6.0f ns%n", ns[1]));
+            sb.append(String.format(Locale.ROOT, "  • CompactDomainIndex:          %6.0f ns%n", ns[2]));
+            sb.append(String.format(Locale.ROOT, "  • CompactDomainIndex + filter: %6.0f ns%n", ns[3]));
+            return sb.toString();
+        }
+    }
+}
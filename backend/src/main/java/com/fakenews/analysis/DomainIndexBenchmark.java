@@ -0,0 +1,121 @@
+package com.fakenews.analysis;
+
+import com.fakenews.datastructures.CompactDomainIndex;
+import com.fakenews.datastructures.DomainScoreIndex;
+import com.fakenews.datastructures.DomainTrie;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Memory and lookup cost of a large domain reputation feed: the on-heap {@link DomainTrie}
+ * against a {@link CompactDomainIndex} built, saved and memory-mapped from the same domains.
+ * Run: mvn -Pcli exec:java -Dexec.mainClass=com.fakenews.analysis.DomainIndexBenchmark
+ * (optional args: domains lookups).
+ */
+public class DomainIndexBenchmark {
+
+    private static final String[] SUFFIXES = {"com", "net", "org", "info", "co.uk", "com.au", "de", "ru", "news", "io"};
+
+    public static void main(String[] args) throws IOException {
+        int n       = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        System.out.print(new DomainIndexBenchmark().run(n, lookups, 42).generateReport());
+    }
+
+    public Report run(int n, int lookups, long seed) throws IOException {
+        String[] hosts = new String[lookups];
+        Random rnd = new Random(seed);
+        for (int i = 0; i < lookups; i++) {
+            hosts[i] = (rnd.nextBoolean() ? "www." : "cdn.static.") + domain(rnd.nextInt(n * 2));
+        }
+
+        long before = usedHeap();
+        DomainTrie trie = new DomainTrie();
+        rnd = new Random(seed);
+        for (int i = 0; i < n; i++) trie.insert(domain(i), rnd.nextDouble());
+        long trieBytes = usedHeap() - before;
+
+        long t0 = System.nanoTime();
+        CompactDomainIndex.Builder builder = new CompactDomainIndex.Builder();
+        rnd = new Random(seed);
+        for (int i = 0; i < n; i++) builder.add(domain(i), rnd.nextDouble());
+        Path file = Files.createTempFile("domains", ".idx");
+        builder.save(file);
+        double buildMs = (System.nanoTime() - t0) / 1e6;
+
+        t0 = System.nanoTime();
+        CompactDomainIndex index = CompactDomainIndex.open(file);
+        double openMs = (System.nanoTime() - t0) / 1e6;
+
+        double trieNs = 0, indexNs = 0;
+        for (int round = 0; round < 3; round++) {   // last round reported, after JIT warm-up
+            trieNs = lookupNanos(trie, hosts);
+            indexNs = lookupNanos(index, hosts);
+        }
+        Files.deleteIfExists(file);
+        return new Report(n, trie.size(), trieBytes, index.bytes(), buildMs, openMs, trieNs, indexNs);
+    }
+
+    private static double lookupNanos(DomainScoreIndex index, String[] hosts) {
+        double sink = 0;
+        long t0 = System.nanoTime();
+        for (String h : hosts) {
+            double s = index.mostSpecificScore(h);
+            if (!Double.isNaN(s)) sink += s;
+        }
+        long nanos = System.nanoTime() - t0;
+        if (sink < 0) System.out.println(sink);
+        return nanos / (double) hosts.length;
+    }
+
+    /** Deterministic name for domain i. */
+    private static String domain(int i) {
+        return "site" + Integer.toString(i, 36) + "." + SUFFIXES[Math.floorMod(i * 31, SUFFIXES.length)];
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    // ---------- DTO ----------
+    public static class Report {
+        private final int domains, stored;
+        private final long trieBytes, indexBytes;
+        private final double buildMs, openMs, trieLookupNs, indexLookupNs;
+
+        public Report(int domains, int stored, long trieBytes, long indexBytes,
+                      double buildMs, double openMs, double trieLookupNs, double indexLookupNs) {
+            this.domains = domains; this.stored = stored;
+            this.trieBytes = trieBytes; this.indexBytes = indexBytes;
+            this.buildMs = buildMs; this.openMs = openMs;
+            this.trieLookupNs = trieLookupNs; this.indexLookupNs = indexLookupNs;
+        }
+
+        public long getTrieBytes()  { return trieBytes; }
+        public long getIndexBytes() { return indexBytes; }
+
+        public String generateReport() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("\n╔════════════════════════════════════════════════════════════╗\n");
+            sb.append("║          DOMAIN INDEX BENCHMARK                            ║\n");
+            sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
+
+            sb.append(String.format(Locale.ROOT, "Domains: %d (%d distinct)%n%n", domains, stored));
+            sb.append("Memory:\n");
+            sb.append(String.format(Locale.ROOT, "  • DomainTrie (heap):           %8.1f MB (%.0f bytes/domain)%n",
+                    trieBytes / 1e6, trieBytes / (double) stored));
+            sb.append(String.format(Locale.ROOT, "  • CompactDomainIndex (mapped): %8.1f MB (%.0f bytes/domain)%n%n",
+                    indexBytes / 1e6, indexBytes / (double) stored));
+            sb.append(String.format(Locale.ROOT, "Index build + save: %.0f ms, open: %.2f ms%n%n", buildMs, openMs));
+            sb.append("Most-specific lookup (2-3 labels below a stored domain):\n");
+            sb.append(String.format(Locale.ROOT, "  • DomainTrie:         %6.0f ns%n", trieLookupNs));
+            sb.append(String.format(Locale.ROOT, "  • CompactDomainIndex: %6.0f ns%n", indexLookupNs));
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.fakenews.analysis;
+
+import com.fakenews.datastructures.FloatVectors;
+import com.fakenews.nlp.Embedding;
+import com.fakenews.nlp.EmbeddingMatrix;
+
+import java.util.*;
+
+/**
+ * Recall-vs-memory benchmark for int8 embedding storage.
+ * Scores clustered synthetic embeddings (real corpora cluster by topic) with a float32 scan as
+ * ground truth, then measures recall@k of the int8 scan alone and with an exact re-rank of its
+ * top candidates. Run: mvn -Pcli exec:java -Dexec.mainClass=com.fakenews.analysis.EmbeddingQuantizationBenchmark
+ * (optional args: vectors dim queries k).
+ */
+public class EmbeddingQuantizationBenchmark {
+
+    // int8 candidates re-scored exactly, per result wanted
+    private static final int RERANK_FACTOR = 4;
+
+    public static void main(String[] args) {
+        int n       = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int dim     = args.length > 1 ? Integer.parseInt(args[1]) : 768;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int k       = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        System.out.print(new EmbeddingQuantizationBenchmark().run(n, dim, queries, k, 42).generateReport());
+    }
+
+    public Report run(int n, int dim, int queries, int k, long seed) {
+        Random rnd = new Random(seed);
+        int clusters = Math.max(1, n / 500);
+        double[][] centers = new double[clusters][];
+        for (int c = 0; c < clusters; c++) centers[c] = gaussian(rnd, dim, 1.0);
+
+        EmbeddingMatrix exact = new EmbeddingMatrix(dim, n, false);
+        EmbeddingMatrix int8 = new EmbeddingMatrix(dim, n, true);
+        List<Embedding> vectors = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Embedding e = Embedding.of(near(centers[rnd.nextInt(clusters)], rnd, 0.8));
+            vectors.add(e);
+            exact.add(e);
+            int8.add(e);
+        }
+
+        double recallInt8 = 0, recallReranked = 0;
+        long exactNanos = 0, int8Nanos = 0;
+        for (int q = 0; q < queries; q++) {
+            Embedding query = Embedding.of(near(centers[rnd.nextInt(clusters)], rnd, 0.8));
+
+            long t0 = System.nanoTime();
+            int[] truth = topK(exact.similarities(query), k);
+            long t1 = System.nanoTime();
+            int[] approx = topK(int8.similarities(query), k * RERANK_FACTOR);
+            long t2 = System.nanoTime();
+            exactNanos += t1 - t0;
+            int8Nanos += t2 - t1;
+
+            float[] rescored = new float[approx.length];
+            for (int i = 0; i < approx.length; i++) rescored[i] = (float) query.similarity(vectors.get(approx[i]));
+            int[] best = topK(rescored, k);
+            int[] reranked = new int[best.length];
+            for (int i = 0; i < best.length; i++) reranked[i] = approx[best[i]];
+
+            recallInt8 += overlap(truth, Arrays.copyOf(approx, Math.min(k, approx.length))) / (double) k;
+            recallReranked += overlap(truth, reranked) / (double) k;
+        }
+
+        return new Report(n, dim, k, FloatVectors.kernelName(),
+                (long) n * dim * Double.BYTES, exact.bytes(), int8.bytes(),
+                recallInt8 / queries, recallReranked / queries,
+                exactNanos / 1e6 / queries, int8Nanos / 1e6 / queries);
+    }
+
+    // ---------- helpers ----------
+
+    /** Indices of the k largest scores, best first. */
+    private static int[] topK(float[] scores, int k) {
+        k = Math.min(k, scores.length);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(i -> scores[i]));
+        for (int i = 0; i < scores.length; i++) {
+            if (heap.size() < k) heap.add(i);
+            else if (scores[i] > scores[heap.peek()]) { heap.poll(); heap.add(i); }
+        }
+        int[] out = new int[heap.size()];
+        for (int i = out.length - 1; i >= 0; i--) out[i] = heap.poll();
+        return out;
+    }
+
+    private static int overlap(int[] a, int[] b) {
+        Set<Integer> s = new HashSet<>();
+        for (int x : a) s.add(x);
+        int hits = 0;
+        for (int x : b) if (s.contains(x)) hits++;
+        return hits;
+    }
+
+    private static double[] gaussian(Random rnd, int dim, double sigma) {
+        double[] v = new double[dim];
+        for (int i = 0; i < dim; i++) v[i] = rnd.nextGaussian() * sigma;
+        return v;
+    }
+
+    private static double[] near(double[] center, Random rnd, double sigma) {
+        double[] v = gaussian(rnd, center.length, sigma);
+        for (int i = 0; i < v.length; i++) v[i] += center[i];
+        return v;
+    }
+
+    // ---------- DTO ----------
+    public static class Report {
+        private final int vectors, dim, k;
+        private final String kernel;
+        private final long doubleBytes, floatBytes, int8Bytes;
+        private final double recallInt8, recallReranked;
+        private final double exactScanMs, int8ScanMs;
+
+        public Report(int vectors, int dim, int k, String kernel,
+                      long doubleBytes, long floatBytes, long int8Bytes,
+                      double recallInt8, double recallReranked, double exactScanMs, double int8ScanMs) {
+            this.vectors = vectors; this.dim = dim; this.k = k; this.kernel = kernel;
+            this.doubleBytes = doubleBytes; this.floatBytes = floatBytes; this.int8Bytes = int8Bytes;
+            this.recallInt8 = recallInt8; this.recallReranked = recallReranked;
+            this.exactScanMs = exactScanMs; this.int8ScanMs = int8ScanMs;
+        }
+
+        public double getRecallInt8()     { return recallInt8; }
+        public double getRecallReranked() { return recallReranked; }
+        public long getDoubleBytes()      { return doubleBytes; }
+        public long getInt8Bytes()        { return int8Bytes; }
+
+        public String generateReport() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("\n╔════════════════════════════════════════════════════════════╗\n");
+            sb.append("║          EMBEDDING QUANTIZATION BENCHMARK                  ║\n");
+            sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
+
+            sb.append(String.format(Locale.ROOT, "Vectors: %d x %d dims, recall@%d, kernel: %s%n%n", vectors, dim, k, kernel));
+            sb.append("Memory:\n");
+            sb.append(String.format(Locale.ROOT, "  • double[]: %8.1f MB%n", doubleBytes / 1e6));
+            sb.append(String.format(Locale.ROOT, "  • float32:  %8.1f MB%n", floatBytes / 1e6));
+            sb.append(String.format(Locale.ROOT, "  • int8:     %8.1f MB (%.1fx smaller than double[])%n%n",
+                    int8Bytes / 1e6, doubleBytes / (double) Math.max(1, int8Bytes)));
+            sb.append("Recall vs float32 scan:\n");
+            sb.append(String.format(Locale.ROOT, "  • int8 scan:             %.3f%n", recallInt8));
+            sb.append(String.format(Locale.ROOT, "  • int8 + exact re-rank:  %.3f (top %d re-scored)%n%n", recallReranked, k * RERANK_FACTOR));
+            sb.append("Scan time per query:\n");
+            sb.append(String.format(Locale.ROOT, "  • float32: %.2f ms%n", exactScanMs));
+            sb.append(String.format(Locale.ROOT, "  • int8:    %.2f ms%n", int8ScanMs));
+            return sb.toString();
+        }
+    }
+}
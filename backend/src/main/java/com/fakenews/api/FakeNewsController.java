@@ -1,6 +1,7 @@
 package com.fakenews.api;
 
 import com.fakenews.core.DetectionResult;
+import com.fakenews.core.DomainReputation;
 import com.fakenews.core.FakeNewsDetector;
 import com.fakenews.explainability.AttentionExplanation;
 import com.fakenews.explainability.ComprehensiveExplanation;
@@ -10,35 +11,67 @@ import com.fakenews.graph.KnowledgeGraph;
 import com.fakenews.model.Article;
 import com.fakenews.dto.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.fakenews.service.AnalysisResultCache;
+import com.fakenews.service.RemoteInferenceBackend;
 import com.fakenews.service.RobertaService;
 import com.fakenews.service.RobertaAnalysisResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
 
 @RestController
 @RequestMapping("/api/v1")
 public class FakeNewsController {
 
+    /** Set to true to bypass the result cache and re-run the full analysis. */
+    public static final String FORCE_REANALYSIS_HEADER = "X-Force-Reanalysis";
+
+    /** Newline-delimited JSON: one object per line. */
+    public static final String NDJSON = "application/x-ndjson";
+
     private static final Logger log = LoggerFactory.getLogger(FakeNewsController.class);
     private final FakeNewsDetector detector;
     private final RobertaService robertaService;
+    private final AnalysisResultCache resultCache;
+    private final ObjectMapper objectMapper;
 
-    public FakeNewsController(RobertaService robertaService) {
-        this.detector = new FakeNewsDetector();
+    // Articles of one streaming upload being analyzed at once; reading pauses at this limit
+    @Value("${api.stream.max-in-flight:32}")
+    private int streamMaxInFlight = 32;
+
+    public FakeNewsController(FakeNewsDetector detector, RobertaService robertaService,
+                              AnalysisResultCache resultCache, ObjectMapper objectMapper) {
+        this.detector = detector;
         this.robertaService = robertaService;
+        this.resultCache = resultCache;
+        this.objectMapper = objectMapper;
     }
 
     // ===========================
     // ANALYZE SINGLE ARTICLE
     // ===========================
     @PostMapping("/analyze")
-    public ResponseEntity<FakeNewsResult> analyzeArticle(@RequestBody ArticleRequest request) {
+    public ResponseEntity<FakeNewsResult> analyzeArticle(
+            @RequestBody ArticleRequest request,
+            @RequestHeader(value = FORCE_REANALYSIS_HEADER, defaultValue = "false") boolean forceReanalysis) {
         try {
             Article article = new Article(
                     UUID.randomUUID().toString(),
@@ -46,18 +79,36 @@ public class FakeNewsController {
                     request.getContent(),
                     request.getSource());
 
+            // Same story seen before (e.g. syndicated copy): serve the earlier verdict
+            if (!forceReanalysis) {
+                FakeNewsResult cached = resultCache.lookup(
+                        request.getContent(), article.getId(), request.getTitle(), request.getSource());
+                if (cached != null) {
+                    detector.recordDuplicate(article, cached.getDuplicateOf());
+                    return ResponseEntity.ok(cached);
+                }
+            }
+
+            // Breaker open: skip the model call and answer from the local detector alone
             RobertaAnalysisResponse robertaAnalysis = null;
-            try {
-                robertaAnalysis = robertaService.analyze(
-                        request.getTitle(),
-                        request.getContent(),
-                        request.getSource());
-            } catch (Exception e) {
-                log.error("RoBERTa service unavailable, using fallback", e);
+            if (robertaService.isCircuitOpen()) {
+                log.debug("RoBERTa circuit open, using local score");
+            } else {
+                try {
+                    robertaAnalysis = detectorCallsModel()
+                            ? RemoteInferenceBackend.request(robertaService, request.getContent()).join()
+                            : robertaService.analyze(
+                                    request.getTitle(),
+                                    request.getContent(),
+                                    request.getSource());
+                } catch (Exception e) {
+                    log.error("RoBERTa service unavailable, using fallback", e);
+                }
             }
 
             DetectionResult result = detector.analyzeArticle(article);
             FakeNewsResult dto = buildResponse(result, robertaAnalysis);
+            resultCache.store(request.getContent(), dto, robertaAnalysis != null);
 
             return ResponseEntity.ok(dto);
 
@@ -67,6 +118,64 @@ public class FakeNewsController {
         }
     }
 
+    // ===========================
+    // ANALYZE SINGLE ARTICLE (ASYNC)
+    // ===========================
+    /**
+     * Same result as /analyze, but the RoBERTa call and the local pipeline run concurrently
+     * and the servlet thread is released while they do; the response is written when both
+     * have finished. A failed or timed-out model call degrades to the local result.
+     */
+    @PostMapping("/analyze/async")
+    public CompletableFuture<ResponseEntity<FakeNewsResult>> analyzeArticleAsync(
+            @RequestBody ArticleRequest request,
+            @RequestHeader(value = FORCE_REANALYSIS_HEADER, defaultValue = "false") boolean forceReanalysis) {
+        Article article = new Article(
+                UUID.randomUUID().toString(),
+                request.getTitle(),
+                request.getContent(),
+                request.getSource());
+
+        if (!forceReanalysis) {
+            FakeNewsResult cached = resultCache.lookup(
+                    request.getContent(), article.getId(), request.getTitle(), request.getSource());
+            if (cached != null) {
+                detector.recordDuplicate(article, cached.getDuplicateOf());
+                return CompletableFuture.completedFuture(ResponseEntity.ok(cached));
+            }
+        }
+
+        CompletableFuture<RobertaAnalysisResponse> roberta = robertaService.isCircuitOpen()
+                ? CompletableFuture.completedFuture(null)
+                : (detectorCallsModel()
+                        ? RemoteInferenceBackend.request(robertaService, request.getContent())
+                        : robertaService.analyzeAsync(request.getTitle(), request.getContent(), request.getSource()))
+                        .exceptionally(e -> {
+                            log.error("RoBERTa service unavailable, using fallback", e);
+                            return null;
+                        });
+
+        return detector.analyzeArticleAsync(article)
+                .thenCombine(roberta, this::buildResponse)
+                .thenApply(dto -> {
+                    resultCache.store(request.getContent(), dto, roberta.getNow(null) != null);
+                    return ResponseEntity.ok(dto);
+                })
+                .exceptionally(e -> {
+                    log.error("Async analysis failed", e);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).<FakeNewsResult>body(null);
+                });
+    }
+
+    /**
+     * True when the detector itself classifies through the model service (inference.backend=remote).
+     * The controller then makes its call exactly as the backend does, so the response cache (or
+     * the single-flight load, when both run at once) answers one of the two.
+     */
+    private boolean detectorCallsModel() {
+        return detector.getInferenceBackend() instanceof RemoteInferenceBackend;
+    }
+
     // ===========================
     // BATCH ANALYSIS
     // ===========================
@@ -91,28 +200,162 @@ public class FakeNewsController {
         return ResponseEntity.ok(new BatchAnalysisResponse(responses.size(), responses));
     }
 
+    // ===========================
+    // STREAMING BATCH (NDJSON)
+    // ===========================
+    /**
+     * Reads one ArticleRequest per line and writes one FakeNewsResult per line as each
+     * analysis finishes (completion order, not input order). At most streamMaxInFlight
+     * articles are pending; the upload is not read further until one of them has been
+     * written out, so memory stays flat and a slow reader throttles the uploader.
+     * Bad lines produce {"line": n, "error": "..."} and do not end the stream.
+     */
+    @PostMapping(value = "/batch-analyze/stream", consumes = NDJSON, produces = NDJSON)
+    public void batchAnalyzeStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+
+        BlockingQueue<String> ready = new LinkedBlockingQueue<>(); // finished, serialized result lines
+        int inFlight = 0;
+        long lineNo = 0;
+
+        try (BufferedReader in = request.getReader()) {
+            Writer out = response.getWriter();
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+
+                for (String done; (done = ready.poll()) != null; inFlight--) {
+                    writeLine(out, done, ready);
+                }
+                while (inFlight >= Math.max(1, streamMaxInFlight)) {
+                    writeLine(out, ready.take(), ready);
+                    inFlight--;
+                }
+
+                ArticleRequest req;
+                try {
+                    req = objectMapper.readValue(line, ArticleRequest.class);
+                } catch (JsonProcessingException e) {
+                    writeLine(out, errorLine(lineNo, "invalid JSON: " + e.getOriginalMessage()), ready);
+                    continue;
+                }
+
+                Article article = new Article(
+                        UUID.randomUUID().toString(),
+                        req.getTitle(),
+                        req.getContent(),
+                        req.getSource());
+                long articleLine = lineNo;
+                detector.analyzeArticleAsync(article)
+                        .thenApply(result -> toJsonLine(buildResponse(result, null), articleLine))
+                        .exceptionally(err -> errorLine(articleLine,
+                                String.valueOf(err.getCause() != null ? err.getCause() : err)))
+                        .thenAccept(ready::add);
+                inFlight++;
+            }
+
+            for (; inFlight > 0; inFlight--) {
+                writeLine(out, ready.take(), ready);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Streaming batch interrupted after {} lines", lineNo);
+        }
+    }
+
+    /** Writes one NDJSON line, flushing only when nothing else is waiting to go out. */
+    private static void writeLine(Writer out, String line, BlockingQueue<String> ready) throws IOException {
+        out.write(line);
+        out.write('\n');
+        if (ready.isEmpty()) out.flush();
+    }
+
+    private String toJsonLine(FakeNewsResult dto, long lineNo) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            return errorLine(lineNo, "could not serialize result: " + e.getOriginalMessage());
+        }
+    }
+
+    private String errorLine(long lineNo, String message) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("line", lineNo);
+        error.put("error", message);
+        try {
+            return objectMapper.writeValueAsString(error);
+        } catch (JsonProcessingException e) {
+            return "{\"line\":" + lineNo + "}";
+        }
+    }
+
     // ===========================
     // SYSTEM STATS
     // ===========================
     @GetMapping("/stats")
     public ResponseEntity<SystemStats> getSystemStats() {
 
-        int total = detector.getCredibilityHeap().size();
+        int total = detector.getCredibilityRanking().size();
         KnowledgeGraph kg = detector.getKnowledgeGraph();
         double avg = 0.0;
 
         return ResponseEntity.ok(
-                new SystemStats(total, 0, avg));
+                new SystemStats(total, kg.nodeCount(), avg));
+    }
+
+    // ===========================
+    // DOMAIN REPUTATION
+    // ===========================
+    @GetMapping("/domain-reputation")
+    public ResponseEntity<DomainReputationStatus> getDomainReputation() {
+        return ResponseEntity.ok(status(detector.getDomainReputation()));
+    }
+
+    /** Rebuilds the reputation snapshot from its feed; lookups keep using the old one until it is ready. */
+    @PostMapping("/domain-reputation/reload")
+    public ResponseEntity<DomainReputationStatus> reloadDomainReputation() {
+        DomainReputation reputation = detector.getDomainReputation();
+        if (!reputation.isConfigured()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        try {
+            DomainReputation.Snapshot loaded = reputation.reloadAsync().join();
+            log.info("Domain reputation reloaded: v{}, {} domains in {} ms",
+                    loaded.getVersion(), loaded.getDomains(), loaded.getBuildMillis());
+            return ResponseEntity.ok(status(reputation));
+        } catch (CompletionException e) {
+            log.warn("Domain reputation reload failed, keeping v{}", reputation.current().getVersion(), e.getCause());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(status(reputation));
+        }
+    }
+
+    private static DomainReputationStatus status(DomainReputation reputation) {
+        DomainReputation.Snapshot s = reputation.current();
+        return new DomainReputationStatus(s.getVersion(), s.getDomains(), s.getBuiltAtMillis(),
+                s.getBuildMillis(), reputation.failedReloads());
     }
 
     // ===========================
     // LEAST CREDIBLE ARTICLES
     // ===========================
+    /** {@code window} limits the ranking to recently published articles, e.g. 30m, 1h, 1d or PT1H. */
     @GetMapping("/least-credible")
     public ResponseEntity<List<ArticleSummary>> getLeastCredible(
-            @RequestParam(defaultValue = "5") int limit) {
-
-        List<Article> arts = detector.getLeastCredibleArticles(limit);
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) String window) {
+
+        List<Article> arts;
+        if (window == null || window.isBlank()) {
+            arts = detector.getLeastCredibleArticles(limit);
+        } else {
+            Duration span = parseWindow(window);
+            if (span == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            arts = detector.getLeastCredibleArticles(limit, span);
+        }
 
         List<ArticleSummary> out = arts.stream()
                 .map(a -> new ArticleSummary(
@@ -125,6 +368,29 @@ public class FakeNewsController {
         return ResponseEntity.ok(out);
     }
 
+    /** Positive duration as <n>s|m|h|d or ISO-8601; null if unparseable. */
+    static Duration parseWindow(String window) {
+        String w = window.trim().toLowerCase(Locale.ROOT);
+        try {
+            Duration d;
+            if (w.startsWith("p")) {
+                d = Duration.parse(w.toUpperCase(Locale.ROOT));
+            } else {
+                long n = Long.parseLong(w.substring(0, w.length() - 1));
+                switch (w.charAt(w.length() - 1)) {
+                    case 's': d = Duration.ofSeconds(n); break;
+                    case 'm': d = Duration.ofMinutes(n); break;
+                    case 'h': d = Duration.ofHours(n); break;
+                    case 'd': d = Duration.ofDays(n); break;
+                    default: return null;
+                }
+            }
+            return d.isNegative() || d.isZero() ? null : d;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
     // ===========================
     // BUILD RESPONSE DTO
     // ===========================
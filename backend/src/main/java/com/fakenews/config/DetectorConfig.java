@@ -0,0 +1,173 @@
+package com.fakenews.config;
+
+import com.fakenews.core.DetectorSettings;
+import com.fakenews.core.DomainReputation;
+import com.fakenews.core.FakeNewsDetector;
+import com.fakenews.datastructures.CompactDomainIndex;
+import com.fakenews.datastructures.DomainScoreIndex;
+import com.fakenews.datastructures.FilteredDomainIndex;
+import com.fakenews.nlp.DjlInferenceBackend;
+import com.fakenews.nlp.HeuristicInferenceBackend;
+import com.fakenews.nlp.InferenceBackend;
+import com.fakenews.service.RemoteInferenceBackend;
+import com.fakenews.service.RobertaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class DetectorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectorConfig.class);
+
+    private static final List<String> STAGES = List.of(
+            FakeNewsDetector.STAGE_CONTENT,
+            FakeNewsDetector.STAGE_DOMAIN,
+            FakeNewsDetector.STAGE_CLAIMS,
+            FakeNewsDetector.STAGE_CROSS_REF);
+
+    // 0 = one worker per available core
+    @Value("${detector.batch.parallelism:0}")
+    private int batchParallelism;
+
+    // 0 = keep the detector default
+    @Value("${detector.stage.parallelism:0}")
+    private int stageParallelism;
+
+    @Value("${detector.stage.timeout-ms:2000}")
+    private long stageTimeoutMs;
+
+    @Value("${detector.embedding-cache.max-mb:64}")
+    private long embeddingCacheMaxMb;
+
+    @Value("${detector.article-store.hot-max-mb:256}")
+    private long articleStoreHotMaxMb;
+
+    // empty = <java.io.tmpdir>/fakenews-articles
+    @Value("${detector.article-store.dir:}")
+    private String articleStoreDir;
+
+    @Value("${detector.embeddings.quantized:false}")
+    private boolean quantizedEmbeddings;
+
+    @Value("${detector.ranking.compact:false}")
+    private boolean compactRanking;
+
+    @Value("${detector.ranking.window.bucket-minutes:5}")
+    private long rankingBucketMinutes;
+
+    @Value("${detector.ranking.window.retention-hours:24}")
+    private long rankingRetentionHours;
+
+    // CSV/TSV of domain,score; empty = built-in domain scores only
+    @Value("${detector.domain-reputation.feed:}")
+    private String domainReputationFeed;
+
+    // compiled index, rebuilt when the feed is newer; empty = <feed>.idx
+    @Value("${detector.domain-reputation.index:}")
+    private String domainReputationIndex;
+
+    // reload when the feed (or, without one, the index) file changes
+    @Value("${detector.domain-reputation.watch:false}")
+    private boolean watchDomainReputation;
+
+    // Bloom filter false-positive rate in front of the index; 0 = no filter
+    @Value("${detector.domain-reputation.filter-fpp:0.01}")
+    private double domainReputationFilterFpp;
+
+    // heuristic | remote | djl
+    @Value("${inference.backend:heuristic}")
+    private String inferenceBackend;
+
+    @Bean(destroyMethod = "shutdown")
+    public FakeNewsDetector fakeNewsDetector(Environment env, ObjectProvider<RobertaService> robertaService)
+            throws IOException {
+        DetectorSettings settings = new DetectorSettings();
+        if (batchParallelism > 0) {
+            settings.setBatchParallelism(batchParallelism);
+        }
+        if (stageParallelism > 0) {
+            settings.setStageParallelism(stageParallelism);
+        }
+        settings.setStageTimeoutMs(stageTimeoutMs);
+        settings.setEmbeddingCacheMaxBytes(embeddingCacheMaxMb * 1024 * 1024);
+        settings.setArticleStoreHotMaxBytes(articleStoreHotMaxMb * 1024 * 1024);
+        if (!articleStoreDir.isBlank()) {
+            settings.setArticleStoreDir(Path.of(articleStoreDir));
+        }
+
+        settings.setQuantizedEmbeddings(quantizedEmbeddings);
+        settings.setCompactCredibilityRanking(compactRanking);
+        settings.setRankingBucketMillis(TimeUnit.MINUTES.toMillis(rankingBucketMinutes));
+        settings.setRankingRetentionMillis(TimeUnit.HOURS.toMillis(rankingRetentionHours));
+        settings.setInferenceBackend(inferenceBackend(env, robertaService));
+        settings.setDomainReputation(domainReputation());
+
+        // Optional per-stage override, e.g. detector.stage.claims_verification.timeout-ms=500
+        for (String stage : STAGES) {
+            Long override = env.getProperty("detector.stage." + stage + ".timeout-ms", Long.class);
+            if (override != null) {
+                settings.setStageTimeout(stage, override);
+            }
+        }
+        return new FakeNewsDetector(settings);
+    }
+
+    /** Loaded once here (a bad feed fails startup); later reloads keep the last good version. */
+    private DomainReputation domainReputation() throws IOException {
+        if (domainReputationFeed.isBlank() && domainReputationIndex.isBlank()) {
+            return DomainReputation.none();
+        }
+        Path feed = domainReputationFeed.isBlank() ? null : Path.of(domainReputationFeed);
+        Path index = domainReputationIndex.isBlank() ? Path.of(domainReputationFeed + ".idx") : Path.of(domainReputationIndex);
+        DomainReputation reputation = new DomainReputation(() -> {
+            DomainScoreIndex compiled = CompactDomainIndex.loadOrBuild(feed, index);
+            return domainReputationFilterFpp > 0 ? FilteredDomainIndex.of(compiled, domainReputationFilterFpp) : compiled;
+        });
+        DomainReputation.Snapshot loaded = reputation.reload();
+        log.info("Domain reputation v{} from {}: {} domains in {} ms",
+                loaded.getVersion(), index, loaded.getDomains(), loaded.getBuildMillis());
+        if (watchDomainReputation) {
+            reputation.watch(feed != null ? feed : index);
+        }
+        return reputation;
+    }
+
+    /**
+     * The DJL backend is only constructed when selected, so ai.djl (an optional dependency)
+     * is not needed on the classpath otherwise. The remote backend resolves RobertaService
+     * lazily: it sits behind the metrics registry, which itself depends on the detector.
+     */
+    private InferenceBackend inferenceBackend(Environment env, ObjectProvider<RobertaService> robertaService) {
+        switch (inferenceBackend.trim().toLowerCase()) {
+            case "heuristic":
+                return new HeuristicInferenceBackend();
+            case "remote":
+                return new RemoteInferenceBackend(robertaService::getObject);
+            case "djl":
+                String modelPath = env.getProperty("inference.djl.model-path", "");
+                if (modelPath.isBlank()) {
+                    throw new IllegalStateException("inference.backend=djl requires inference.djl.model-path");
+                }
+                String embeddingPath = env.getProperty("inference.djl.embedding-model-path", "");
+                int predictors = env.getProperty("inference.djl.predictors", Integer.class, 0);
+                return new DjlInferenceBackend(
+                        Path.of(modelPath),
+                        embeddingPath.isBlank() ? null : Path.of(embeddingPath),
+                        env.getProperty("inference.djl.engine", ""),
+                        env.getProperty("inference.djl.fake-label", "FAKE"),
+                        predictors > 0 ? predictors : Runtime.getRuntime().availableProcessors());
+            default:
+                throw new IllegalStateException("Unknown inference.backend: " + inferenceBackend);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.fakenews.config;
+
+import com.fakenews.core.DomainReputation;
+import com.fakenews.core.FakeNewsDetector;
+import com.fakenews.nlp.EmbeddingCache;
+import com.fakenews.store.TieredArticleStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/** Publishes detector-internal cache and index statistics through Micrometer (/actuator/metrics). */
+@Component
+public class DetectorMetrics implements MeterBinder {
+
+    private final FakeNewsDetector detector;
+
+    public DetectorMetrics(FakeNewsDetector detector) {
+        this.detector = detector;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        EmbeddingCache embeddings = detector.getEmbeddingCache();
+        FunctionCounter.builder("detector.embedding.cache.hits", embeddings, EmbeddingCache::hitCount)
+                .description("Embedding cache hits")
+                .register(registry);
+        FunctionCounter.builder("detector.embedding.cache.misses", embeddings, EmbeddingCache::missCount)
+                .description("Embedding cache misses (embeddings computed)")
+                .register(registry);
+        FunctionCounter.builder("detector.embedding.cache.evictions", embeddings, EmbeddingCache::evictionCount)
+                .register(registry);
+        Gauge.builder("detector.embedding.cache.size", embeddings, EmbeddingCache::size)
+                .description("Cached embeddings")
+                .register(registry);
+        Gauge.builder("detector.embedding.cache.bytes", embeddings, EmbeddingCache::weightBytes)
+                .baseUnit("bytes")
+                .register(registry);
+
+        TieredArticleStore articles = detector.getArticleStore();
+        Gauge.builder("detector.article.store.hot.size", articles, TieredArticleStore::hotSize)
+                .description("Articles held in heap")
+                .register(registry);
+        Gauge.builder("detector.article.store.hot.bytes", articles, TieredArticleStore::hotBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("detector.article.store.cold.size", articles, TieredArticleStore::coldSize)
+                .description("Articles spilled to disk")
+                .register(registry);
+        Gauge.builder("detector.article.store.cold.bytes", articles, TieredArticleStore::coldBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("detector.article.store.cold.reads", articles, TieredArticleStore::coldReadCount)
+                .description("Article lookups served from disk")
+                .register(registry);
+
+        DomainReputation reputation = detector.getDomainReputation();
+        Gauge.builder("detector.domain.reputation.version", reputation, r -> r.current().getVersion())
+                .description("Active domain reputation snapshot (0 = none loaded)")
+                .register(registry);
+        Gauge.builder("detector.domain.reputation.domains", reputation, r -> r.current().getDomains())
+                .register(registry);
+        Gauge.builder("detector.domain.reputation.build.time", reputation, r -> r.current().getBuildMillis())
+                .description("Time taken to build the active snapshot")
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder("detector.domain.reputation.reload.failures", reputation, DomainReputation::failedReloads)
+                .description("Reloads that failed and kept the previous snapshot")
+                .register(registry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.fakenews.config;
+
+import com.fakenews.resilience.CallGuard;
+import com.fakenews.resilience.ResilienceSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class ResilienceConfig {
+
+    private static final String PREFIX = "roberta.resilience.";
+
+    /** Guard for calls to the RoBERTa service; unset roberta.resilience.* keys keep the ResilienceSettings defaults. */
+    @Bean(destroyMethod = "shutdown")
+    public CallGuard robertaCallGuard(Environment env) {
+        ResilienceSettings s = new ResilienceSettings();
+
+        s.setWindowSize(env.getProperty(PREFIX + "breaker.window-size", Integer.class, s.getWindowSize()));
+        s.setMinimumCalls(env.getProperty(PREFIX + "breaker.minimum-calls", Integer.class, s.getMinimumCalls()));
+        s.setFailureRateThreshold(env.getProperty(PREFIX + "breaker.failure-rate", Double.class, s.getFailureRateThreshold()));
+        s.setSlowCallMs(env.getProperty(PREFIX + "breaker.slow-call-ms", Long.class, s.getSlowCallMs()));
+        s.setSlowCallRateThreshold(env.getProperty(PREFIX + "breaker.slow-call-rate", Double.class, s.getSlowCallRateThreshold()));
+        s.setOpenMs(env.getProperty(PREFIX + "breaker.open-ms", Long.class, s.getOpenMs()));
+        s.setHalfOpenCalls(env.getProperty(PREFIX + "breaker.half-open-calls", Integer.class, s.getHalfOpenCalls()));
+
+        s.setMaxConcurrent(env.getProperty(PREFIX + "bulkhead.max-concurrent", Integer.class, s.getMaxConcurrent()));
+        s.setMaxQueued(env.getProperty(PREFIX + "bulkhead.max-queued", Integer.class, s.getMaxQueued()));
+
+        s.setTimeoutMultiplier(env.getProperty(PREFIX + "timeout.p99-multiplier", Double.class, s.getTimeoutMultiplier()));
+        s.setMinTimeoutMs(env.getProperty(PREFIX + "timeout.min-ms", Long.class, s.getMinTimeoutMs()));
+        s.setMaxTimeoutMs(env.getProperty(PREFIX + "timeout.max-ms", Long.class, s.getMaxTimeoutMs()));
+        s.setMinSamples(env.getProperty(PREFIX + "timeout.min-samples", Integer.class, s.getMinSamples()));
+
+        s.setHedgingEnabled(env.getProperty(PREFIX + "hedge.enabled", Boolean.class, s.isHedgingEnabled()));
+        s.setHedgePercentile(env.getProperty(PREFIX + "hedge.percentile", Double.class, s.getHedgePercentile()));
+
+        return new CallGuard(s);
+    }
+}
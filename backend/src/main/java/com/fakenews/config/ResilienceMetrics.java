@@ -0,0 +1,57 @@
+package com.fakenews.config;
+
+import com.fakenews.resilience.CallGuard;
+import com.fakenews.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/** Publishes the RoBERTa call guard's breaker, bulkhead and timeout state (roberta.resilience.*). */
+@Component
+public class ResilienceMetrics implements MeterBinder {
+
+    private final CallGuard guard;
+
+    public ResilienceMetrics(CallGuard guard) {
+        this.guard = guard;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // one gauge per state, 1 for the current one (alert on state="open" == 1)
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("roberta.resilience.breaker.state", guard, g -> g.state() == state ? 1 : 0)
+                    .tag("state", state.name().toLowerCase())
+                    .register(registry);
+        }
+        CircuitBreaker breaker = guard.getBreaker();
+        Gauge.builder("roberta.resilience.breaker.failure.rate", breaker, CircuitBreaker::failureRate)
+                .register(registry);
+        Gauge.builder("roberta.resilience.breaker.slow.rate", breaker, CircuitBreaker::slowCallRate)
+                .register(registry);
+        FunctionCounter.builder("roberta.resilience.breaker.rejected", breaker, CircuitBreaker::rejectedCount)
+                .description("Calls refused while the breaker was open")
+                .register(registry);
+
+        Gauge.builder("roberta.resilience.bulkhead.available", guard, g -> g.getBulkhead().available())
+                .register(registry);
+        Gauge.builder("roberta.resilience.bulkhead.queued", guard, g -> g.getBulkhead().queued())
+                .register(registry);
+        FunctionCounter.builder("roberta.resilience.bulkhead.rejected", guard, CallGuard::bulkheadRejectionCount)
+                .register(registry);
+
+        Gauge.builder("roberta.resilience.timeout", guard, g -> TimeUnit.NANOSECONDS.toMillis(g.currentTimeoutNanos()))
+                .baseUnit("milliseconds")
+                .description("Current adaptive timeout (p99 x multiplier)")
+                .register(registry);
+        FunctionCounter.builder("roberta.resilience.timeouts", guard, CallGuard::timeoutCount)
+                .register(registry);
+        FunctionCounter.builder("roberta.resilience.hedges", guard, CallGuard::hedgeCount)
+                .description("Second attempts sent after the hedge delay")
+                .register(registry);
+    }
+}
@@ -0,0 +1,133 @@
+package com.fakenews.core;
+
+import com.fakenews.nlp.EmbeddingCache;
+import com.fakenews.nlp.HeuristicInferenceBackend;
+import com.fakenews.nlp.InferenceBackend;
+import com.fakenews.store.TieredArticleStore;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunables for {@link FakeNewsDetector}.
+ * Defaults suit a single API instance; the Spring wiring overrides them from application properties.
+ */
+public class DetectorSettings {
+    // Worker threads used by analyzeMultipleArticles (bounded; one per core by default)
+    private int batchParallelism = Runtime.getRuntime().availableProcessors();
+
+    // Worker threads shared by the concurrent per-article stages
+    private int stageParallelism = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    // Per-stage deadline; a late stage contributes its fallback score instead
+    private long stageTimeoutMs = 2000;
+    private final Map<String, Long> stageTimeouts = new HashMap<>();
+
+    // Byte budget for cached text embeddings
+    private long embeddingCacheMaxBytes = EmbeddingCache.DEFAULT_MAX_BYTES;
+
+    // Heap budget for analyzed articles; older ones spill to a file under articleStoreDir
+    private long articleStoreHotMaxBytes = TieredArticleStore.DEFAULT_HOT_MAX_BYTES;
+    private Path articleStoreDir = TieredArticleStore.defaultDirectory();
+
+    // Peer and evidence embeddings kept as int8 (approximate search, exact re-rank of the best)
+    private boolean quantizedEmbeddings = false;
+
+    // Least-credible ranking: compact primitive heap (millions of articles) instead of the skip list
+    private boolean compactCredibilityRanking = false;
+
+    // Windowed least-credible rankings: bucket width, and how far back windows can reach
+    private long rankingBucketMillis = TimeUnit.MINUTES.toMillis(5);
+    private long rankingRetentionMillis = TimeUnit.HOURS.toMillis(24);
+
+    // Domain reputation feed snapshots; consulted before the built-in domain scores. Owned (and closed) by the detector
+    private DomainReputation domainReputation;
+
+    // Classification/embedding model; owned (and closed) by the detector
+    private InferenceBackend inferenceBackend;
+
+    public int getBatchParallelism() { return batchParallelism; }
+
+    public void setBatchParallelism(int batchParallelism) {
+        this.batchParallelism = Math.max(1, batchParallelism);
+    }
+
+    public int getStageParallelism() { return stageParallelism; }
+
+    public void setStageParallelism(int stageParallelism) {
+        this.stageParallelism = Math.max(1, stageParallelism);
+    }
+
+    public long getStageTimeoutMs() { return stageTimeoutMs; }
+
+    public void setStageTimeoutMs(long stageTimeoutMs) {
+        this.stageTimeoutMs = Math.max(1, stageTimeoutMs);
+    }
+
+    /** Overrides keyed by stage name (content_analysis, domain_credibility, claims_verification, cross_reference). */
+    public Map<String, Long> getStageTimeouts() { return stageTimeouts; }
+
+    public void setStageTimeout(String stage, long timeoutMs) {
+        stageTimeouts.put(stage, Math.max(1, timeoutMs));
+    }
+
+    public long getEmbeddingCacheMaxBytes() { return embeddingCacheMaxBytes; }
+
+    public void setEmbeddingCacheMaxBytes(long embeddingCacheMaxBytes) {
+        this.embeddingCacheMaxBytes = Math.max(0, embeddingCacheMaxBytes);
+    }
+
+    public long getArticleStoreHotMaxBytes() { return articleStoreHotMaxBytes; }
+
+    public void setArticleStoreHotMaxBytes(long articleStoreHotMaxBytes) {
+        this.articleStoreHotMaxBytes = Math.max(0, articleStoreHotMaxBytes);
+    }
+
+    public Path getArticleStoreDir() { return articleStoreDir; }
+
+    public void setArticleStoreDir(Path articleStoreDir) {
+        this.articleStoreDir = articleStoreDir != null ? articleStoreDir : TieredArticleStore.defaultDirectory();
+    }
+
+    public boolean isQuantizedEmbeddings() { return quantizedEmbeddings; }
+
+    public void setQuantizedEmbeddings(boolean quantizedEmbeddings) {
+        this.quantizedEmbeddings = quantizedEmbeddings;
+    }
+
+    public boolean isCompactCredibilityRanking() { return compactCredibilityRanking; }
+
+    public void setCompactCredibilityRanking(boolean compactCredibilityRanking) {
+        this.compactCredibilityRanking = compactCredibilityRanking;
+    }
+
+    public long getRankingBucketMillis() { return rankingBucketMillis; }
+
+    public void setRankingBucketMillis(long rankingBucketMillis) {
+        this.rankingBucketMillis = Math.max(1, rankingBucketMillis);
+    }
+
+    public long getRankingRetentionMillis() { return rankingRetentionMillis; }
+
+    public void setRankingRetentionMillis(long rankingRetentionMillis) {
+        this.rankingRetentionMillis = Math.max(1, rankingRetentionMillis);
+    }
+
+    public DomainReputation getDomainReputation() {
+        return domainReputation != null ? domainReputation : DomainReputation.none();
+    }
+
+    public void setDomainReputation(DomainReputation domainReputation) {
+        this.domainReputation = domainReputation;
+    }
+
+    public InferenceBackend getInferenceBackend() {
+        return inferenceBackend != null ? inferenceBackend : new HeuristicInferenceBackend();
+    }
+
+    public void setInferenceBackend(InferenceBackend inferenceBackend) {
+        this.inferenceBackend = inferenceBackend;
+    }
+}
@@ -0,0 +1,191 @@
+package com.fakenews.core;
+
+import com.fakenews.datastructures.DomainScoreIndex;
+import com.fakenews.datastructures.DomainTrie;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Versioned domain reputation scores (e.g. a {@link com.fakenews.datastructures.CompactDomainIndex}
+ * loaded from a feed), replaced as a whole.
+ * Notes:
+ * - Each load builds a new immutable snapshot off to the side and publishes it with one
+ *   reference swap: a lookup reads exactly one version, without locks.
+ * - Reloads run on a single background thread; requests made while one is queued share it.
+ *   A failed reload keeps the current snapshot and is counted.
+ * - {@link #watch(Path)} reloads when the given file is written or replaced (debounced).
+ * - Before the first load the snapshot is empty (version 0): every lookup misses.
+ */
+public class DomainReputation implements AutoCloseable {
+
+    /** One published version of the scores. */
+    public static final class Snapshot {
+        private final long version;
+        private final DomainScoreIndex index;
+        private final long builtAtMillis;
+        private final long buildMillis;
+
+        Snapshot(long version, DomainScoreIndex index, long builtAtMillis, long buildMillis) {
+            this.version = version;
+            this.index = index;
+            this.builtAtMillis = builtAtMillis;
+            this.buildMillis = buildMillis;
+        }
+
+        public long getVersion()       { return version; }
+        public DomainScoreIndex getIndex() { return index; }
+        public int getDomains()        { return index.size(); }
+        public long getBuiltAtMillis() { return builtAtMillis; }
+        public long getBuildMillis()   { return buildMillis; }
+    }
+
+    private static final long WATCH_DEBOUNCE_MS = 500;
+
+    private final Callable<? extends DomainScoreIndex> loader;   // null = nothing to reload from
+    private final AtomicReference<Snapshot> current;
+    private final AtomicReference<CompletableFuture<Snapshot>> queued = new AtomicReference<>();
+    private final ExecutorService reloader;
+    private final LongAdder failures = new LongAdder();
+    private volatile Thread watcher;
+    private volatile WatchService watchService;
+
+    public DomainReputation(Callable<? extends DomainScoreIndex> loader) {
+        this.loader = loader;
+        this.current = new AtomicReference<>(new Snapshot(0, new DomainTrie(), System.currentTimeMillis(), 0));
+        this.reloader = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "domain-reputation-reload");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** No feed: lookups always miss and reloads are rejected. */
+    public static DomainReputation none() {
+        return new DomainReputation(null);
+    }
+
+    /** Scores that never change (the loader just returns {@code index}); loaded immediately. */
+    public static DomainReputation of(DomainScoreIndex index) {
+        DomainReputation r = new DomainReputation(() -> index);
+        r.reload();
+        return r;
+    }
+
+    // ---- reads ----
+
+    public Snapshot current() { return current.get(); }
+
+    /** See {@link DomainScoreIndex#mostSpecificScore(CharSequence, int, int)}; NaN on a miss. */
+    public double mostSpecificScore(CharSequence text, int from, int to) {
+        return current.get().index.mostSpecificScore(text, from, to);
+    }
+
+    /** See {@link DomainScoreIndex#mostSpecificUrlScore(CharSequence, int, int, int)}; NaN on a miss. */
+    public double mostSpecificUrlScore(CharSequence text, int hostFrom, int hostTo, int end) {
+        return current.get().index.mostSpecificUrlScore(text, hostFrom, hostTo, end);
+    }
+
+    public boolean isConfigured() { return loader != null; }
+
+    public long failedReloads() { return failures.sum(); }
+
+    // ---- reloads ----
+
+    /** Builds and publishes a new version on the calling thread. */
+    public synchronized Snapshot reload() {
+        if (loader == null) throw new IllegalStateException("No domain reputation feed configured");
+        long start = System.nanoTime();
+        DomainScoreIndex index;
+        try {
+            index = loader.call();
+        } catch (Exception e) {
+            failures.increment();
+            throw new IllegalStateException("Domain reputation reload failed: " + e.getMessage(), e);
+        }
+        Snapshot next = new Snapshot(current.get().version + 1, index,
+                System.currentTimeMillis(), (System.nanoTime() - start) / 1_000_000);
+        current.set(next);
+        return next;
+    }
+
+    /** Reload on the background thread; joins the queued reload if one has not started yet. */
+    public CompletableFuture<Snapshot> reloadAsync() {
+        CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+        CompletableFuture<Snapshot> pending = queued.compareAndExchange(null, mine);
+        if (pending != null) return pending;
+        try {
+            reloader.execute(() -> {
+                queued.compareAndSet(mine, null);   // changes from here on need another reload
+                try {
+                    mine.complete(reload());
+                } catch (RuntimeException e) {
+                    mine.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {             // shut down
+            queued.compareAndSet(mine, null);
+            mine.completeExceptionally(e);
+        }
+        return mine;
+    }
+
+    /** Reloads whenever {@code file} is created, modified or moved into place. */
+    public synchronized void watch(Path file) throws IOException {
+        if (watcher != null) throw new IllegalStateException("Already watching");
+        Path absolute = file.toAbsolutePath();
+        Path dir = absolute.getParent();
+        Path name = absolute.getFileName();
+        WatchService ws = dir.getFileSystem().newWatchService();
+        dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread t = new Thread(() -> watchLoop(ws, name), "domain-reputation-watch");
+        t.setDaemon(true);
+        watchService = ws;
+        watcher = t;
+        t.start();
+    }
+
+    private void watchLoop(WatchService ws, Path name) {
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                boolean touched = false;
+                for (WatchEvent<?> e : key.pollEvents()) {
+                    // OVERFLOW has no context: events were lost, so assume ours was one of them
+                    touched |= e.context() == null || name.equals(e.context());
+                }
+                key.reset();
+                if (!touched) continue;
+
+                // a write usually arrives as several events: settle, drop the rest, reload once
+                Thread.sleep(WATCH_DEBOUNCE_MS);
+                for (WatchKey k; (k = ws.poll()) != null; ) {
+                    k.pollEvents();
+                    k.reset();
+                }
+                reloadAsync();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closing
+        }
+    }
+
+    @Override
+    public void close() {
+        reloader.shutdownNow();
+        WatchService ws = watchService;
+        if (ws != null) {
+            try {
+                ws.close();
+            } catch (IOException ignored) {
+                // best effort
+            }
+        }
+    }
+}
@@ -5,90 +5,268 @@ import com.fakenews.graph.*;
 import com.fakenews.datastructures.*;
 import com.fakenews.nlp.*;
 import com.fakenews.explainability.*;
+import com.fakenews.store.TieredArticleStore;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class FakeNewsDetector {
+    // Pipeline stages (also the feature-score keys they produce)
+    public static final String STAGE_CONTENT   = "content_analysis";
+    public static final String STAGE_DOMAIN    = "domain_credibility";
+    public static final String STAGE_CLAIMS    = "claims_verification";
+    public static final String STAGE_CROSS_REF = "cross_reference";
+    private static final double FALLBACK_SCORE = 0.5;
+
+    // Cross-referencing: nearest same-domain peers considered, and the similarity that makes one "close"
+    private static final int PEER_CANDIDATES = 50;
+    private static final double PEER_SIMILARITY = 0.7;
+    // int8 similarity error stays well inside this; candidates above (threshold - margin) are re-scored exactly
+    private static final double QUANTIZATION_MARGIN = 0.05;
+    // Recent source hosts whose registrable domain is kept (looked up several times per article)
+    private static final int DOMAIN_CACHE_SLOTS = 1024;
+    // Heap held per analyzed article outside the store, charged to its hot budget (roughly):
+    // a graph node or edge with its map entries, a claim with its evidence list, and an HNSW node
+    // with its link lists (the vector itself is counted with the article unless quantized)
+    private static final long GRAPH_NODE_BYTES = 160;
+    private static final long GRAPH_EDGE_BYTES = 48;
+    private static final long CLAIM_BYTES = 128;
+    private static final long PEER_NODE_BYTES = 128 + 2L * HnswIndex.DEFAULT_M * Integer.BYTES;
+
     private final KnowledgeGraph knowledgeGraph;
-    private final DomainTrie domainTrie;
-    private final CredibilityMinHeap credibilityHeap;
+    private final DomainTrie domainTrie;                        // built-in scores
+    private final DomainReputation domainReputation;            // reputation feed snapshots (may be empty)
+    private final PublicSuffixList publicSuffixes;
+    private final DirectMappedCache<String, String> domainCache; // host -> registrable domain
+    private final CredibilityRanking credibilityRanking;
+    private final WindowedCredibilityRanking recentRanking;     // by publish date, for "worst of the last hour"
     private final EvidenceRetriever evidenceRetriever;
     private final RoBERTaModel nlpModel;
     private final ClaimExtractor claimExtractor;
     private final ExplainabilityEngine explainabilityEngine;
 
-    // Caches / indices (thread-friendly for API usage)
-    private final Map<String, Article> articleCache;
-    private final Map<String, Set<String>> sourceToArticleIds;
+    // Analyzed articles (bounded heap tier, older ones on disk) + peer index; an article's graph
+    // nodes and peer entry are charged to the heap tier and dropped when it spills
+    private final TieredArticleStore articleStore;
+    private final Map<String, HnswIndex> peerIndex;              // domain -> ANN index of article embeddings
+    private final boolean quantizedEmbeddings;
+    private final MappedFloatVectors exactEmbeddings;           // float32 originals of int8 vectors (null if exact)
+    private volatile int embeddingDimension;
+
+    // Bounded worker pool for batch analysis (fans articles out across cores)
+    private final ExecutorService batchExecutor;
+    private final int batchParallelism;
+
+    // Pool for the independent per-article stages (kept apart from the batch pool so
+    // batch workers waiting on their stages can never starve them)
+    private final ExecutorService stageExecutor;
+    private final ScheduledThreadPoolExecutor stageTimer;      // stage timeouts, armed when a stage starts
+    private final long defaultStageTimeoutMs;
+    private final Map<String, Long> stageTimeouts;
 
     public FakeNewsDetector() {
+        this(new DetectorSettings());
+    }
+
+    public FakeNewsDetector(DetectorSettings settings) {
         this.knowledgeGraph = new KnowledgeGraph();
         this.domainTrie = new DomainTrie();
-        this.credibilityHeap = new CredibilityMinHeap();
-        this.nlpModel = new RoBERTaModel();
-        this.evidenceRetriever = new EvidenceRetriever(nlpModel);
+        this.domainReputation = settings.getDomainReputation();
+        this.publicSuffixes = PublicSuffixList.bundled();
+        this.domainCache = new DirectMappedCache<>(DOMAIN_CACHE_SLOTS);
+        this.credibilityRanking = settings.isCompactCredibilityRanking()
+                ? new CredibilityMinHeap()
+                : new CredibilityRankIndex();
+        this.recentRanking = new WindowedCredibilityRanking(
+                settings.getRankingBucketMillis(), settings.getRankingRetentionMillis());
+        this.nlpModel = new RoBERTaModel(settings.getInferenceBackend(),
+                new EmbeddingCache(settings.getEmbeddingCacheMaxBytes()));
+        this.quantizedEmbeddings = settings.isQuantizedEmbeddings();
+        this.exactEmbeddings = quantizedEmbeddings ? new MappedFloatVectors(settings.getArticleStoreDir()) : null;
+        this.evidenceRetriever = new EvidenceRetriever(nlpModel, exactEmbeddings);
         this.claimExtractor = new ClaimExtractor();
         this.explainabilityEngine = new ExplainabilityEngine(nlpModel);
 
-        this.articleCache = new ConcurrentHashMap<>();
-        this.sourceToArticleIds = new ConcurrentHashMap<>();
+        this.peerIndex = new ConcurrentHashMap<>();
+        this.articleStore = new TieredArticleStore(settings.getArticleStoreHotMaxBytes(), settings.getArticleStoreDir(),
+                this::indexedBytes, this::forget);
+
+        this.batchParallelism = settings.getBatchParallelism();
+        this.batchExecutor = Executors.newFixedThreadPool(batchParallelism, daemonThreads("detector-batch-"));
+        this.stageExecutor = Executors.newFixedThreadPool(settings.getStageParallelism(), daemonThreads("detector-stage-"));
+        this.stageTimer = new ScheduledThreadPoolExecutor(1, daemonThreads("detector-stage-timer-"));
+        this.stageTimer.setRemoveOnCancelPolicy(true);
+        this.defaultStageTimeoutMs = settings.getStageTimeoutMs();
+        this.stageTimeouts = new HashMap<>(settings.getStageTimeouts());
 
         initializeDomainCredibility();
     }
 
     // ===== Main pipeline =====
+    /**
+     * Stage graph: content, domain, claims and cross-reference stages are independent and run
+     * concurrently on the stage pool; graph insertion, final scoring and explanation wait only
+     * for the stages they consume. A stage that times out or fails contributes its fallback score.
+     */
     public DetectionResult analyzeArticle(Article article) {
         System.out.println("Analyzing article: " + article.getTitle());
 
-        // 1) Content analysis (NLP)
-        RoBERTaModel.ClassificationResult nlpResult = nlpModel.classify(article.getContent());
-        double contentScore = nlpResult.getFakeScore();
-        article.addFeatureScore("content_analysis", clamp01(contentScore));
+        // 1) Content analysis (NLP): tokenize + classify once, shared with the explanation
+        // (a remote model answers on its own threads: the stage thread is not held while it does)
+        CompletableFuture<AnalysisContext> contentStage = stageAsync(STAGE_CONTENT,
+                () -> nlpModel.analyzeAsync(article.getContent()));
 
         // 2) Domain credibility
-        double domainScore = checkDomainCredibility(article.getSource());
-        article.addFeatureScore("domain_credibility", clamp01(domainScore));
+        CompletableFuture<Double> domainStage = stage(STAGE_DOMAIN,
+                () -> checkDomainCredibility(article.getSource()));
 
         // 3) Extract + verify claims (evidence-aware)
-        List<Claim> claims = claimExtractor.extractClaims(article);
-        double claimsScore = verifyClaims(claims);
-        article.addFeatureScore("claims_verification", clamp01(claimsScore));
+        CompletableFuture<ClaimsOutcome> claimsStage = stage(STAGE_CLAIMS, () -> {
+            List<Claim> extracted = claimExtractor.extractClaims(article);
+            return new ClaimsOutcome(extracted, verifyClaims(extracted));
+        });
+
+        // 4) Cross-reference against peers (same source, similar content)
+        CompletableFuture<Double> crossRefStage = stage(STAGE_CROSS_REF,
+                () -> crossReferenceArticles(article));
 
-        // 4) Add to knowledge graph (+ reverse link from SOURCE to ARTICLE for traversal)
-        addToKnowledgeGraph(article, claims);
+        ClaimsOutcome claims = awaitStage(STAGE_CLAIMS, claimsStage,
+                new ClaimsOutcome(new ArrayList<>(), FALLBACK_SCORE));
 
-        // 5) Cross-reference against peers (same source, similar content)
-        double crossRefScore = crossReferenceArticles(article);
-        article.addFeatureScore("cross_reference", clamp01(crossRefScore));
+        // 5) Add to knowledge graph (+ reverse link from SOURCE to ARTICLE for traversal)
+        addToKnowledgeGraph(article, claims.claims);
+
+        AnalysisContext context = awaitStage(STAGE_CONTENT, contentStage, null);
+        if (context == null) context = AnalysisContext.unclassified(article.getContent());
+
+        article.addFeatureScore(STAGE_CONTENT, clamp01(context.getFakeScore()));
+        article.addFeatureScore(STAGE_DOMAIN, clamp01(awaitStage(STAGE_DOMAIN, domainStage, FALLBACK_SCORE)));
+        article.addFeatureScore(STAGE_CLAIMS, clamp01(claims.score));
+        article.addFeatureScore(STAGE_CROSS_REF, clamp01(awaitStage(STAGE_CROSS_REF, crossRefStage, FALLBACK_SCORE)));
 
         // 6) Compute final fake-ness score
         double finalScore = computeFinalCredibilityScore(article);
         article.setCredibilityScore(clamp01(finalScore));
 
-        // 7) Track in min-heap (for least-credible lookups)
-        credibilityHeap.insert(article.getId(), article.getCredibilityScore());
+        // 7) Track in the ranking (for least-credible lookups); re-analysis replaces the old score
+        credibilityRanking.insert(article.getId(), article.getCredibilityScore());
+        if (article.getPublishDate() != null) {
+            recentRanking.insert(article.getId(), article.getCredibilityScore(), article.getPublishDate().getTime());
+        }
 
         // 8) Explainability bundle
         ComprehensiveExplanation explanation =
-                explainabilityEngine.generateComprehensiveExplanation(article);
+                explainabilityEngine.generateComprehensiveExplanation(article, context);
 
-        // Cache the article (must be after score computed)
-        articleCache.put(article.getId(), article);
+        // Index, then store the article (after its score, and after its embedding, graph nodes and
+        // peer entry, so the store's budget counts them and a spill can find them to drop)
+        Embedding embedding = embeddingOf(article);
+        indexPeer(article, embedding);
+        articleStore.put(article);
+
+        return new DetectionResult(article, claims.claims, explanation);
+    }
 
-        return new DetectionResult(article, claims, explanation);
+    private <T> CompletableFuture<T> stage(String name, Supplier<T> work) {
+        return stageAsync(name, () -> CompletableFuture.completedFuture(work.get()));
+    }
+
+    /** A stage whose work returns a future; the stage completes with it. */
+    private <T> CompletableFuture<T> stageAsync(String name, Supplier<CompletableFuture<T>> work) {
+        StageRun<T> run = new StageRun<>(name, work, stageTimeouts.getOrDefault(name, defaultStageTimeoutMs));
+        try {
+            run.task = stageExecutor.submit(run);
+        } catch (RejectedExecutionException e) {
+            run.result.completeExceptionally(e);
+        }
+        return run.result.exceptionally(e -> {
+            System.out.println("Stage " + name + " failed: " + e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * One stage execution. Its timeout starts when a stage thread picks it up, so time spent queued
+     * behind other articles' stages is not charged to it; on timeout the stage completes with null
+     * and the work is interrupted (or, for asynchronous work, its future cancelled).
+     */
+    private final class StageRun<T> implements Runnable {
+        final String name;
+        final Supplier<CompletableFuture<T>> work;
+        final long timeoutMs;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        volatile Future<?> task;
+        volatile CompletableFuture<T> pending;
+
+        StageRun(String name, Supplier<CompletableFuture<T>> work, long timeoutMs) {
+            this.name = name;
+            this.work = work;
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public void run() {
+            ScheduledFuture<?> timer = stageTimer.schedule(this::expire, timeoutMs, TimeUnit.MILLISECONDS);
+            result.whenComplete((v, e) -> timer.cancel(false));
+            try {
+                CompletableFuture<T> f = work.get();
+                pending = f;
+                f.whenComplete((v, e) -> {
+                    if (e != null) result.completeExceptionally(e);
+                    else result.complete(v);
+                });
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void expire() {
+            if (!result.complete(null)) return;
+            System.out.println("Stage " + name + " timed out after " + timeoutMs + " ms");
+            Future<?> t = task;
+            if (t != null) t.cancel(true);            // interrupts the work if it is still running
+            CompletableFuture<T> p = pending;
+            if (p != null) p.cancel(true);
+        }
+    }
+
+    private <T> T awaitStage(String name, CompletableFuture<T> stage, T fallback) {
+        T value = stage.join();
+        if (value == null) {
+            System.out.println("Stage " + name + " unavailable, using fallback");
+            return fallback;
+        }
+        return value;
     }
 
     // ===== Helpers =====
     private double checkDomainCredibility(String source) {
-        String domain = extractDomain(source);
-        // Try exact, then fallback (e.g., news.reuters.com -> reuters.com)
-        Double score = domainTrie.search(domain);
-        if (score == null) {
-            score = domainTrie.searchWithFallback(domain);
-        }
-        if (score != null) {
+        if (source == null) return 0.5;
+        int start = hostStart(source);
+        int end = hostEnd(source, start);
+        int pathEnd = end;
+        while (pathEnd < source.length() && source.charAt(pathEnd) != '?' && source.charAt(pathEnd) != '#') pathEnd++;
+
+        // One walk: the most specific stored domain (e.g., news.reuters.com, else reuters.com),
+        // overridden by a stored URL prefix of the path (e.g., medium.com/@someone);
+        // the reputation feed wins over the built-in scores
+        double score = domainReputation.mostSpecificUrlScore(source, start, end, pathEnd);
+        if (Double.isNaN(score)) score = domainTrie.mostSpecificUrlScore(source, start, end, pathEnd);
+        if (!Double.isNaN(score)) {
             // Trie stores "fake-ness" for bad sites in [0..1] (lower=credible, higher=fake).
             // We treat this as a fake score already, so return as-is.
             return clamp01(score);
@@ -120,20 +298,18 @@ public class FakeNewsDetector {
     }
 
     private void addToKnowledgeGraph(Article article, List<Claim> claims) {
-        // Article node
-        knowledgeGraph.addNode(article.getId(), "ARTICLE", article);
+        // Article node (title only: the article itself lives in the tiered store)
+        knowledgeGraph.addNode(article.getId(), "ARTICLE", article.getTitle());
 
         // Source node: stable by registrable domain
         String sourceDomain = extractDomain(article.getSource());
         String sourceId = "source_" + sourceDomain;
-        knowledgeGraph.addNode(sourceId, "SOURCE", sourceDomain);
 
-        // Link ARTICLE -> SOURCE and SOURCE -> ARTICLE (reverse helps traversal for related lookup)
-        knowledgeGraph.addEdge(article.getId(), sourceId, "PUBLISHED_BY", 1.0);
+        // Link ARTICLE -> SOURCE and SOURCE -> ARTICLE (reverse helps traversal for related lookup);
+        // the source's edge goes first, so a source being dropped as empty cannot take it along
         knowledgeGraph.addEdge(sourceId, article.getId(), "HAS_ARTICLE", 1.0);
-
-        // Keep an index for fast peer lookup
-        indexArticleBySource(sourceDomain, article.getId());
+        knowledgeGraph.addNode(sourceId, "SOURCE", sourceDomain);
+        knowledgeGraph.addEdge(article.getId(), sourceId, "PUBLISHED_BY", 1.0);
 
         // Claims + evidence nodes
         for (Claim claim : claims) {
@@ -149,32 +325,133 @@ public class FakeNewsDetector {
         }
     }
 
-    private void indexArticleBySource(String domain, String articleId) {
-        sourceToArticleIds.computeIfAbsent(domain, d -> ConcurrentHashMap.newKeySet()).add(articleId);
+    /**
+     * Links a re-submitted copy of an already analyzed article into the graph without rerunning
+     * the pipeline (ARTICLE node, its SOURCE, and DUPLICATE_OF / HAS_DUPLICATE edges with the
+     * original). The copy is stored like any article, so its nodes age out with it.
+     */
+    public void recordDuplicate(Article duplicate, String originalId) {
+        knowledgeGraph.addNode(duplicate.getId(), "ARTICLE", duplicate.getTitle());
+
+        String sourceDomain = extractDomain(duplicate.getSource());
+        String sourceId = "source_" + sourceDomain;
+        knowledgeGraph.addEdge(sourceId, duplicate.getId(), "HAS_ARTICLE", 1.0);
+        knowledgeGraph.addNode(sourceId, "SOURCE", sourceDomain);
+        knowledgeGraph.addEdge(duplicate.getId(), sourceId, "PUBLISHED_BY", 1.0);
+
+        knowledgeGraph.addEdge(duplicate.getId(), originalId, "DUPLICATE_OF", 1.0);
+        knowledgeGraph.addEdge(originalId, duplicate.getId(), "HAS_DUPLICATE", 1.0);
+        articleStore.put(duplicate);
     }
 
+    /**
+     * Averages the scores of same-domain peers whose content is similar (> PEER_SIMILARITY).
+     * Peers come from the domain's ANN index, so cost grows ~log(n) with the outlet's size
+     * (only the PEER_CANDIDATES nearest peers are considered). With int8 peer vectors, candidates
+     * near the threshold are re-scored against their float32 copy (kept off-heap by the index)
+     * before they count.
+     */
     private double crossReferenceArticles(Article article) {
         String domain = extractDomain(article.getSource());
-        Set<String> peers = sourceToArticleIds.getOrDefault(domain, Collections.emptySet());
+        HnswIndex peers = peerIndex.get(domain);
+        if (peers == null) return 0.5;
 
+        Embedding query = embeddingOf(article);
+        double cutoff = quantizedEmbeddings ? PEER_SIMILARITY - QUANTIZATION_MARGIN : PEER_SIMILARITY;
         double sumCred = 0.0;
         int count = 0;
 
-        for (String peerId : peers) {
-            if (peerId.equals(article.getId())) continue;
-            Article peer = articleCache.get(peerId);
+        for (HnswIndex.Neighbor n : peers.search(query.values(), PEER_CANDIDATES)) {
+            if (n.getSimilarity() <= cutoff) break; // sorted by descending similarity
+            if (n.getKey().equals(article.getId())) continue;
+            Article peer = articleStore.get(n.getKey());
             if (peer == null || peer.getCredibilityScore() <= 0) continue;
+            if (quantizedEmbeddings && peers.exactSimilarity(query.values(), n.getKey()) <= PEER_SIMILARITY) continue;
 
-            double sim = nlpModel.computeSimilarity(article.getContent(), peer.getContent());
-            if (sim > 0.7) {
-                sumCred += peer.getCredibilityScore();
-                count++;
-            }
+            sumCred += peer.getCredibilityScore();
+            count++;
         }
         // If close peers are fake, we tilt fake-ness up; otherwise neutral.
         return count > 0 ? clamp01(sumCred / count) : 0.5;
     }
 
+    /**
+     * Makes a scored article visible to later cross-referencing within its domain. Inserts and
+     * removals run under the domain's map entry, so an index is never dropped as empty while an
+     * article goes in.
+     */
+    private void indexPeer(Article article, Embedding embedding) {
+        embeddingDimension = embedding.dimension();
+        peerIndex.compute(extractDomain(article.getSource()), (d, peers) -> {
+            if (peers == null) {
+                peers = quantizedEmbeddings
+                        ? new HnswIndex(HnswIndex.DEFAULT_M, HnswIndex.DEFAULT_EF_CONSTRUCTION,
+                                HnswIndex.DEFAULT_EF_SEARCH, exactEmbeddings)
+                        : new HnswIndex();
+            }
+            peers.insert(article.getId(), embedding.values());
+            return peers;
+        });
+    }
+
+    /**
+     * Heap held for an article outside the store: its ARTICLE node and edges, its claims with their
+     * evidence links, and its peer-index node (removed nodes linger until their index rebuilds,
+     * which happens once they are half of it).
+     */
+    private long indexedBytes(Article article) {
+        long bytes = GRAPH_NODE_BYTES;
+        for (GraphEdge e : knowledgeGraph.getEdges(article.getId())) {
+            bytes += 2 * GRAPH_EDGE_BYTES;   // the edge and its reverse, if any
+            GraphNode n = knowledgeGraph.getNode(e.getTo());
+            if (n != null && "CLAIM".equals(n.getType()) && n.getData() instanceof Claim) {
+                Claim c = (Claim) n.getData();
+                bytes += GRAPH_NODE_BYTES + CLAIM_BYTES + 2L * String.valueOf(c.getText()).length()
+                        + knowledgeGraph.getEdges(c.getId()).size() * GRAPH_EDGE_BYTES;
+            }
+        }
+        HnswIndex peers = peerIndex.get(extractDomain(article.getSource()));
+        if (peers != null && peers.contains(article.getId())) {
+            bytes += PEER_NODE_BYTES + (quantizedEmbeddings ? embeddingDimension : 0);
+        }
+        return bytes;
+    }
+
+    /** Spill listener: an article leaving the heap tier leaves the peer index and the graph too. */
+    private void forget(String id, Article article) {
+        String domain = extractDomain(article.getSource());
+        peerIndex.computeIfPresent(domain, (d, peers) -> {
+            peers.remove(id);
+            return peers.size() == 0 ? null : peers;
+        });
+        for (GraphEdge e : knowledgeGraph.getEdges(id)) {
+            if ("CONTAINS".equals(e.getRelationship())) knowledgeGraph.removeNode(e.getTo());
+        }
+        knowledgeGraph.removeNode(id);
+        knowledgeGraph.removeIfIsolated("source_" + domain);
+    }
+
+    /** Nodes held by the peer indexes, removed ones included (for tests). */
+    int peerNodeCount() {
+        int n = 0;
+        for (HnswIndex peers : peerIndex.values()) n += peers.nodeCount();
+        return n;
+    }
+
+    /**
+     * Embedding stored next to the article; computed (via the embedding cache) on first use.
+     * With quantized embeddings the float32 copy is not kept on the article: the index holds
+     * the int8 form and its float32 copy lives off-heap in {@link #exactEmbeddings}.
+     */
+    private Embedding embeddingOf(Article article) {
+        Embedding e = article.getEmbedding();
+        if (e == null) {
+            e = nlpModel.getEmbedding(String.valueOf(article.getContent()));
+            if (!quantizedEmbeddings) article.setEmbedding(e);
+        }
+        return e;
+    }
+
     private double computeFinalCredibilityScore(Article article) {
         Map<String, Double> s = article.getFeatureScores();
 
@@ -185,19 +462,38 @@ public class FakeNewsDetector {
         double crossRefWeight= 0.15;
 
         double finalScore =
-                s.getOrDefault("content_analysis", 0.5) * contentWeight +
-                        s.getOrDefault("domain_credibility", 0.5) * domainWeight +
-                        s.getOrDefault("claims_verification", 0.5) * claimsWeight +
-                        s.getOrDefault("cross_reference", 0.5) * crossRefWeight;
+                s.getOrDefault(STAGE_CONTENT, 0.5) * contentWeight +
+                        s.getOrDefault(STAGE_DOMAIN, 0.5) * domainWeight +
+                        s.getOrDefault(STAGE_CLAIMS, 0.5) * claimsWeight +
+                        s.getOrDefault(STAGE_CROSS_REF, 0.5) * crossRefWeight;
 
         return clamp01(finalScore);
     }
 
     // ===== Batch & insights =====
+    /** Runs the full pipeline for one article on the batch worker pool. */
+    public CompletableFuture<DetectionResult> analyzeArticleAsync(Article article) {
+        return CompletableFuture.supplyAsync(() -> analyzeArticle(article), batchExecutor);
+    }
+
+    /**
+     * Analyzes all articles on the bounded batch pool. Results keep input order;
+     * coordinated-misinformation detection runs once every article is done.
+     */
     public List<DetectionResult> analyzeMultipleArticles(List<Article> articles) {
-        List<DetectionResult> results = new ArrayList<>();
-        for (Article a : articles) {
-            results.add(analyzeArticle(a));
+        List<DetectionResult> results = new ArrayList<>(articles.size());
+        if (batchParallelism <= 1 || articles.size() <= 1) {
+            for (Article a : articles) {
+                results.add(analyzeArticle(a));
+            }
+        } else {
+            List<CompletableFuture<DetectionResult>> pending = new ArrayList<>(articles.size());
+            for (Article a : articles) {
+                pending.add(analyzeArticleAsync(a));
+            }
+            for (CompletableFuture<DetectionResult> f : pending) {
+                results.add(join(f));
+            }
         }
         detectCoordinatedMisinformation(results);
         return results;
@@ -214,10 +510,18 @@ public class FakeNewsDetector {
     }
     // Return the top-K least credible (i.e., highest fake-score) articles
     public List<Article> getLeastCredibleArticles(int k) {
+        return resolve(credibilityRanking.topK(k));
+    }
+
+    /** Same, restricted to articles published within the last {@code window} (at most the ranking retention). */
+    public List<Article> getLeastCredibleArticles(int k, Duration window) {
+        return resolve(recentRanking.topK(k, window.toMillis()));
+    }
+
+    private List<Article> resolve(List<CredibilityRanking.Entry> ranked) {
         List<Article> out = new ArrayList<>();
-        List<CredibilityMinHeap.HeapNode> nodes = credibilityHeap.getTopKLeastCredible(k);
-        for (CredibilityMinHeap.HeapNode n : nodes) {
-            Article a = articleCache.get(n.getArticleId());
+        for (CredibilityRanking.Entry n : ranked) {
+            Article a = articleStore.get(n.getArticleId());
             if (a != null) out.add(a);
         }
         return out;
@@ -242,26 +546,90 @@ public class FakeNewsDetector {
         return Math.max(0.0, Math.min(1.0, v));
     }
 
+    private static <T> T join(CompletableFuture<T> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Registrable domain of the source URL per the Public Suffix List (news.bbc.co.uk -> bbc.co.uk),
+     * lowercased; the whole host for IPs and bare suffixes, "" without a source. Recent hosts are
+     * cached (looked up in place), so every article from an already seen host allocates nothing.
+     */
     private String extractDomain(String source) {
         if (source == null) return "";
-        String host = source.toLowerCase(Locale.ROOT).trim();
-        int scheme = host.indexOf("://");
-        if (scheme >= 0) host = host.substring(scheme + 3);
-        int slash = host.indexOf('/');
-        if (slash >= 0) host = host.substring(0, slash);
-        int colon = host.indexOf(':');
-        if (colon >= 0) host = host.substring(0, colon);
-
-        // naive registrable domain (no PSL)
-        String[] parts = host.split("\\.");
-        if (parts.length >= 2) {
-            String sld = parts[parts.length - 2];
-            String tld = parts[parts.length - 1];
-            return sld + "." + tld;
+        int from = hostStart(source);
+        int to = hostEnd(source, from);
+        if (to > from && source.charAt(to - 1) == '.') to--;
+        String domain = domainCache.getRegion(source, from, to);
+        if (domain != null) return domain;
+
+        int start = publicSuffixes.registrableStart(source, from, to);
+        domain = source.substring(start < 0 ? from : start, to).toLowerCase(Locale.ROOT);
+        domainCache.put(source.substring(from, to), domain);
+        return domain;
+    }
+
+    /** Start of the host in a source URL: after the scheme, leading whitespace skipped. */
+    private static int hostStart(String source) {
+        int start = source.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        while (start < source.length() && Character.isWhitespace(source.charAt(start))) start++;
+        return start;
+    }
+
+    /** End of the host starting at {@code start} (port, path, query and fragment excluded). */
+    private static int hostEnd(String source, int start) {
+        int end = start;
+        if (end < source.length() && source.charAt(end) == '[') {   // IPv6 literal
+            int close = source.indexOf(']', end);
+            return close < 0 ? source.length() : close + 1;
         }
-        return host;
+        while (end < source.length() && "/:?#".indexOf(source.charAt(end)) < 0) end++;
+        while (end > start && Character.isWhitespace(source.charAt(end - 1))) end--;
+        return end;
     }
 
     public KnowledgeGraph getKnowledgeGraph() { return knowledgeGraph; }
-    public CredibilityMinHeap getCredibilityHeap() { return credibilityHeap; }
+    public CredibilityRanking getCredibilityRanking() { return credibilityRanking; }
+    public WindowedCredibilityRanking getRecentRanking() { return recentRanking; }
+    public EmbeddingCache getEmbeddingCache() { return nlpModel.getEmbeddingCache(); }
+    public InferenceBackend getInferenceBackend() { return nlpModel.getBackend(); }
+    public TieredArticleStore getArticleStore() { return articleStore; }
+    public DomainReputation getDomainReputation() { return domainReputation; }
+
+    /**
+     * Stops the worker pools (in-flight articles finish, new work is rejected), drops the spill and
+     * vector files and releases the inference backend and the domain reputation reloader.
+     */
+    public void shutdown() {
+        batchExecutor.shutdown();
+        stageExecutor.shutdown();
+        stageTimer.shutdown();
+        articleStore.close();
+        if (exactEmbeddings != null) exactEmbeddings.close();
+        nlpModel.close();
+        domainReputation.close();
+    }
+
+    private static class ClaimsOutcome {
+        final List<Claim> claims;
+        final double score;
+        ClaimsOutcome(List<Claim> claims, double score) { this.claims = claims; this.score = score; }
+    }
 }
@@ -0,0 +1,233 @@
+package com.fakenews.datastructures;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe, weight-bounded LRU cache with optional expire-after-write.
+ * Keys are spread over independently locked segments (each an access-ordered LinkedHashMap),
+ * so concurrent readers of different keys rarely contend. The weight budget is global: once the
+ * total is over it, the least-recently-used entry of the whole cache is evicted (the oldest of the
+ * segments' eldest entries by access time), until the total fits again (only the entry just
+ * written is always kept). An eviction costs one short lock per segment.
+ * Expired entries are dropped lazily when read. Tracks hit / miss / eviction counts for metrics.
+ * An optional eviction listener sees every entry pushed out by the budget. It runs on the evicting
+ * thread after the segment lock is released, so slow listeners (e.g. a disk spill) never block
+ * readers; until it returns, get() of that key still answers the evicted value.
+ */
+public class BoundedLruCache<K, V> {
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long maxWeight;
+    private final AtomicLong totalWeight = new AtomicLong();
+    private final Map<K, V> evicting = new ConcurrentHashMap<>();   // handed to onEvict, not yet done
+    private final ToLongFunction<? super V> weigher;
+    private final long ttlNanos; // 0 = entries never expire
+    private final BiConsumer<? super K, ? super V> onEvict;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** Entry-count bound (every entry weighs 1). */
+    public BoundedLruCache(long maxEntries) {
+        this(maxEntries, v -> 1L);
+    }
+
+    /** Weight bound; {@code weigher} returns the cost of one value (e.g. its approximate size in bytes). */
+    public BoundedLruCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        this(maxWeight, weigher, 0);
+    }
+
+    /** Weight bound plus expire-after-write ({@code ttlMillis} <= 0 disables expiry). */
+    public BoundedLruCache(long maxWeight, ToLongFunction<? super V> weigher, long ttlMillis) {
+        this(maxWeight, weigher, ttlMillis, null);
+    }
+
+    /** As above, notifying {@code onEvict} of entries evicted to stay within the weight budget. */
+    @SuppressWarnings("unchecked")
+    public BoundedLruCache(long maxWeight, ToLongFunction<? super V> weigher, long ttlMillis,
+                           BiConsumer<? super K, ? super V> onEvict) {
+        this.weigher = weigher;
+        this.ttlNanos = ttlMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(ttlMillis) : 0;
+        this.onEvict = onEvict;
+        this.maxWeight = Math.max(1, maxWeight);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment<>();
+    }
+
+    public V get(K key) {
+        Segment<K, V> seg = segmentFor(key);
+        V v = null;
+        synchronized (seg) {
+            Node<V> n = seg.map.get(key);
+            if (n != null) {
+                if (isExpired(n)) {
+                    seg.map.remove(key);
+                    seg.weight -= n.weight;
+                    totalWeight.addAndGet(-n.weight);
+                } else {
+                    n.accessedAt = System.nanoTime();
+                    v = n.value;
+                }
+            }
+        }
+        if (v == null && !evicting.isEmpty()) v = evicting.get(key);
+        if (v != null) hits.increment(); else misses.increment();
+        return v;
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null) return;
+        Segment<K, V> seg = segmentFor(key);
+        Node<V> node = new Node<>(value, Math.max(0, weigher.applyAsLong(value)), System.nanoTime());
+        synchronized (seg) {
+            Node<V> old = seg.map.put(key, node);
+            long delta = node.weight - (old != null ? old.weight : 0);
+            seg.weight += delta;
+            totalWeight.addAndGet(delta);
+        }
+        evictIfNeeded(key);
+    }
+
+    /**
+     * Returns the cached value, computing and caching it on a miss.
+     * The loader runs outside the segment lock, so two racing misses may both compute.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V v = get(key);
+        if (v != null) return v;
+        v = loader.apply(key);
+        put(key, v);
+        return v;
+    }
+
+    public V remove(K key) {
+        evicting.remove(key);
+        Segment<K, V> seg = segmentFor(key);
+        synchronized (seg) {
+            Node<V> old = seg.map.remove(key);
+            if (old == null) return null;
+            seg.weight -= old.weight;
+            totalWeight.addAndGet(-old.weight);
+            return old.value;
+        }
+    }
+
+    public void clear() {
+        evicting.clear();
+        for (Segment<K, V> seg : segments) {
+            synchronized (seg) {
+                seg.map.clear();
+                totalWeight.addAndGet(-seg.weight);
+                seg.weight = 0;
+            }
+        }
+    }
+
+    public int size() {
+        int n = 0;
+        for (Segment<K, V> seg : segments) {
+            synchronized (seg) { n += seg.map.size(); }
+        }
+        return n;
+    }
+
+    public long weight() { return totalWeight.get(); }
+
+    public long hitCount()      { return hits.sum(); }
+    public long missCount()     { return misses.sum(); }
+    public long evictionCount() { return evictions.sum(); }
+
+    public double hitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // ---- internals ----
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    private boolean isExpired(Node<V> n) {
+        return ttlNanos > 0 && System.nanoTime() - n.writtenAt > ttlNanos;
+    }
+
+    /**
+     * Evicts the globally least-recently-used entry until the total weight fits. Segment locks are
+     * taken one at a time (never nested): a pass over all segments finds the oldest eldest entry,
+     * then its segment is locked again to remove it, unless it was touched in between. Stops when
+     * nothing but {@code written} is left, which alone may exceed the budget.
+     */
+    private void evictIfNeeded(K written) {
+        while (totalWeight.get() > maxWeight) {
+            Segment<K, V> oldestSeg = null;
+            long oldest = 0;
+            for (Segment<K, V> seg : segments) {
+                synchronized (seg) {
+                    Map.Entry<K, Node<V>> e = eldest(seg, written);
+                    if (e != null && (oldestSeg == null || e.getValue().accessedAt - oldest < 0)) {
+                        oldestSeg = seg;
+                        oldest = e.getValue().accessedAt;
+                    }
+                }
+            }
+            if (oldestSeg == null) return;
+
+            K key;
+            V value;
+            synchronized (oldestSeg) {
+                Map.Entry<K, Node<V>> e = eldest(oldestSeg, written);
+                if (e == null || e.getValue().accessedAt != oldest) continue;   // touched meanwhile: look again
+                key = e.getKey();
+                value = e.getValue().value;
+                oldestSeg.map.remove(key);
+                oldestSeg.weight -= e.getValue().weight;
+                totalWeight.addAndGet(-e.getValue().weight);
+                if (onEvict != null) evicting.put(key, value);
+            }
+            evictions.increment();
+            if (onEvict != null) {
+                try {
+                    onEvict.accept(key, value);
+                } finally {
+                    evicting.remove(key, value);
+                }
+            }
+        }
+    }
+
+    private Map.Entry<K, Node<V>> eldest(Segment<K, V> seg, K written) {
+        for (Map.Entry<K, Node<V>> e : seg.map.entrySet()) {
+            if (!e.getKey().equals(written)) return e;
+        }
+        return null;
+    }
+
+    private static final class Node<V> {
+        final V value;
+        final long weight;
+        final long writtenAt;
+        long accessedAt;   // guarded by the segment lock
+        Node(V value, long weight, long writtenAt) {
+            this.value = value;
+            this.weight = weight;
+            this.writtenAt = writtenAt;
+            this.accessedAt = writtenAt;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        final LinkedHashMap<K, Node<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+        long weight;
+    }
+}
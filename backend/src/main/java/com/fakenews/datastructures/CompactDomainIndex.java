@@ -0,0 +1,520 @@
+package com.fakenews.datastructures;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.IDN;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Immutable domain -> fake score index for reputation feeds with millions of domains.
+ * Notes:
+ * - The reversed-label trie of {@link DomainTrie}, flattened into fixed-width node records in
+ *   breadth-first order: a node's children are contiguous and sorted by label. A label step is a
+ *   binary search over the siblings, or one hash probe when there are many of them (e.g. under
+ *   "com"). Label bytes are pooled and shared.
+ * - The file format is the in-memory format: {@link #open(Path)} maps the file read-only and
+ *   lookups read it in place, so startup does no parsing and the index lives off-heap.
+ * - Lookups allocate nothing; a miss is NaN. Scores are stored as float.
+ * - URL prefixes ("medium.com/@someone/") are stored as in {@link DomainTrie}: "/segment" children
+ *   of the host's node, flagged in the node's label length so lookups only enter the path below
+ *   hosts that have them.
+ * - Built offline by {@link Builder} (e.g. from a CSV/TSV feed); building sorts all entries on heap.
+ */
+public final class CompactDomainIndex implements DomainScoreIndex {
+    private static final int MAGIC = 0x464E4449;   // "FNDI"
+    // 2: HAS_PATHS flag (URL prefixes). Version 1 files never set it, so they read as version 2.
+    private static final int VERSION = 2;
+    private static final int MIN_VERSION = 1;
+    private static final int HEADER_BYTES = 24;    // magic, version, nodes, slots, label bytes, domains (little-endian)
+    private static final int NODE_BYTES = 24;      // label offset, label length, first child, child count, score, slots (-1 = none)
+    private static final int HAS_PATHS = 1 << 31;  // label length flag: some children are "/segment" URL prefixes
+    // children above this count get an open-addressed table of child ids (load <= 1/2)
+    private static final int HASHED_FANOUT = 8;
+
+    private final ByteBuffer nodes;
+    private final ByteBuffer slots;
+    private final ByteBuffer labels;
+    private final int nodeCount;
+    private final int size;
+
+    private CompactDomainIndex(ByteBuffer file) {
+        file.order(ByteOrder.LITTLE_ENDIAN);
+        if (file.limit() < HEADER_BYTES || file.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a domain index");
+        }
+        if (file.getInt(4) < MIN_VERSION || file.getInt(4) > VERSION) {
+            throw new IllegalArgumentException("Unsupported domain index version " + file.getInt(4));
+        }
+        this.nodeCount = file.getInt(8);
+        int slotCount = file.getInt(12);
+        int labelBytes = file.getInt(16);
+        this.size = file.getInt(20);
+        long expected = HEADER_BYTES + ((long) nodeCount * NODE_BYTES) + ((long) slotCount * Integer.BYTES) + labelBytes;
+        if (nodeCount < 1 || slotCount < 0 || labelBytes < 0 || file.limit() != expected) {
+            throw new IllegalArgumentException("Truncated domain index: " + file.limit() + " bytes, expected " + expected);
+        }
+        int slotsAt = HEADER_BYTES + nodeCount * NODE_BYTES;
+        this.nodes = slice(file, HEADER_BYTES, nodeCount * NODE_BYTES);
+        this.slots = slice(file, slotsAt, slotCount * Integer.BYTES);
+        this.labels = slice(file, slotsAt + slotCount * Integer.BYTES, labelBytes);
+    }
+
+    /** Maps a saved index read-only; the mapping stays valid after the channel closes. */
+    public static CompactDomainIndex open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("Domain index too large: " + file);
+            return new CompactDomainIndex(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /**
+     * Opens {@code index}, first (re)building it from {@code feed} when the feed is newer, the index
+     * is missing, or it was written in an older format (or is not an index at all). A null feed
+     * just opens the index.
+     */
+    public static CompactDomainIndex loadOrBuild(Path feed, Path index) throws IOException {
+        boolean stale = !Files.exists(index)
+                || (feed != null && (Files.getLastModifiedTime(feed).compareTo(Files.getLastModifiedTime(index)) > 0
+                        || formatVersion(index) < VERSION));
+        if (stale) {
+            if (feed == null) throw new IOException("No domain index at " + index + " and no feed to build it from");
+            new Builder().addFeed(feed).save(index);
+        }
+        return open(index);
+    }
+
+    /** Format version in the header of {@code file}, or -1 if it is not a domain index. */
+    static int formatVersion(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && ch.read(header) >= 0) { }
+        }
+        return header.hasRemaining() || header.getInt(0) != MAGIC ? -1 : header.getInt(4);
+    }
+
+    // ---- reads ----
+
+    /** Surrounding whitespace and a trailing dot are ignored. */
+    @Override
+    public double mostSpecificScore(CharSequence text, int from, int to) {
+        while (from < to && Character.isWhitespace(text.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) to--;
+        if (to > from && text.charAt(to - 1) == '.') to--;
+        return lookup(text, from, to, to);
+    }
+
+    /** Leading whitespace and a trailing dot on the host are ignored. */
+    @Override
+    public double mostSpecificUrlScore(CharSequence text, int hostFrom, int hostTo, int end) {
+        while (hostFrom < hostTo && Character.isWhitespace(text.charAt(hostFrom))) hostFrom++;
+        int to = hostTo;
+        if (to > hostFrom && text.charAt(to - 1) == '.') to--;
+        return lookup(text, hostFrom, to, end);
+    }
+
+    private double lookup(CharSequence text, int from, int to, int end) {
+        double best = Double.NaN;
+        double bestPath = Double.NaN;
+        int node = 0;
+        int labelEnd = to;
+        while (labelEnd > from) {
+            int start = labelEnd;
+            while (start > from && text.charAt(start - 1) != '.') start--;
+            if (start < labelEnd) {
+                node = child(node, text, start, labelEnd);
+                if (node < 0) break;
+                float s = nodes.getFloat(node * NODE_BYTES + 16);
+                if (!Float.isNaN(s)) best = s;
+                if ((nodes.getInt(node * NODE_BYTES + 4) & HAS_PATHS) != 0) {
+                    double p = pathScore(node, text, to, end);
+                    if (!Double.isNaN(p)) bestPath = p;   // a deeper host's prefix wins
+                }
+            }
+            labelEnd = start - 1;
+        }
+        return Double.isNaN(bestPath) ? best : bestPath;
+    }
+
+    private double pathScore(int host, CharSequence text, int from, int end) {
+        int i = from;
+        while (i < end && text.charAt(i) != '/') i++;   // past a port
+        double best = Double.NaN;
+        int node = host;
+        while (i < end) {
+            int segEnd = i + 1;
+            while (segEnd < end && text.charAt(segEnd) != '/') segEnd++;
+            if (segEnd > i + 1) {
+                node = child(node, text, i, segEnd);   // "/segment", slash included
+                if (node < 0) break;
+                float s = nodes.getFloat(node * NODE_BYTES + 16);
+                if (!Float.isNaN(s)) best = s;
+            }
+            i = segEnd;
+        }
+        return best;
+    }
+
+    @Override
+    public int size() { return size; }
+
+    /** Walks the whole index, building each name. */
+    @Override
+    public void forEachDomain(Consumer<? super String> action) {
+        Deque<Integer> nodeStack = new ArrayDeque<>();
+        Deque<String> nameStack = new ArrayDeque<>();
+        nodeStack.push(0);
+        nameStack.push("");
+        while (!nodeStack.isEmpty()) {
+            int node = nodeStack.pop();
+            String name = nameStack.pop();
+            int base = node * NODE_BYTES;
+            if (node != 0 && !Float.isNaN(nodes.getFloat(base + 16))) action.accept(name);
+            int first = nodes.getInt(base + 8);
+            for (int c = first; c < first + nodes.getInt(base + 12); c++) {
+                String label = label(c);
+                nodeStack.push(c);
+                nameStack.push(node == 0 ? label : label.charAt(0) == '/' ? name + label : label + "." + name);
+            }
+        }
+    }
+
+    public int nodeCount() { return nodeCount; }
+
+    /** Bytes of the serialized (mapped) form. */
+    public long bytes() {
+        return HEADER_BYTES + (long) nodes.capacity() + slots.capacity() + labels.capacity();
+    }
+
+    // ---- internals ----
+
+    private int child(int node, CharSequence text, int from, int to) {
+        int base = node * NODE_BYTES;
+        int first = nodes.getInt(base + 8);
+        int count = nodes.getInt(base + 12);
+        int table = nodes.getInt(base + 20);
+        if (table >= 0) {
+            int mask = tableSize(count) - 1;
+            for (int i = spread(labelHash(text, from, to)) & mask; ; i = (i + 1) & mask) {
+                int id = slots.getInt((table + i) * Integer.BYTES) - 1;
+                if (id < 0) return -1;
+                if (compareLabel(id, text, from, to) == 0) return id;
+            }
+        }
+        int lo = first;
+        int hi = first + count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compareLabel(mid, text, from, to);
+            if (c < 0) lo = mid + 1;
+            else if (c > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private int compareLabel(int node, CharSequence text, int from, int to) {
+        int off = nodes.getInt(node * NODE_BYTES);
+        int len = nodes.getInt(node * NODE_BYTES + 4) & ~HAS_PATHS;
+        int n = Math.min(len, to - from);
+        for (int i = 0; i < n; i++) {
+            int a = labels.get(off + i) & 0xff;
+            int b = Character.toLowerCase(text.charAt(from + i));
+            if (a != b) return a - b;
+        }
+        return len - (to - from);
+    }
+
+    private String label(int node) {
+        byte[] b = new byte[nodes.getInt(node * NODE_BYTES + 4) & ~HAS_PATHS];
+        ByteBuffer at = labels.duplicate();
+        at.position(nodes.getInt(node * NODE_BYTES));
+        at.get(b);
+        return new String(b, StandardCharsets.US_ASCII);
+    }
+
+    private static int labelHash(CharSequence text, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + Character.toLowerCase(text.charAt(i));
+        return h;
+    }
+
+    private static int spread(int h) { return h ^ (h >>> 16); }
+
+    private static int tableSize(int children) {
+        return Integer.highestOneBit(children * 2 - 1) << 1;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buf, int offset, int length) {
+        ByteBuffer dup = buf.duplicate();
+        dup.position(offset).limit(offset + length);
+        return dup.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // ---- builder ----
+
+    /**
+     * Collects (domain, score) pairs, then lays them out as an index. A later score for the same
+     * domain replaces the earlier one.
+     */
+    public static final class Builder {
+        // labels joined right-to-left with a separator below any label byte, so that sorting
+        // the keys orders them label by label, which is the trie's sibling order
+        private static final char SEP = '\u0001';
+
+        private final List<Entry> entries = new ArrayList<>();
+        private int skippedLines;
+
+        /**
+         * Adds a domain (case, surrounding dots, "*." wildcards and IDNs are normalized) or a URL
+         * prefix ("host/segment/...", scheme, query and fragment dropped; path in ASCII).
+         */
+        public Builder add(String domain, double score) {
+            String key = key(domain);
+            if (key == null) throw new IllegalArgumentException("Invalid domain: " + domain);
+            if (!Double.isFinite(score)) throw new IllegalArgumentException("Invalid score for " + domain + ": " + score);
+            entries.add(new Entry(key, (float) Math.max(0.0, Math.min(1.0, score))));
+            return this;
+        }
+
+        /**
+         * Reads "domain,score" or "domain&lt;TAB&gt;score" lines. Blank lines, # comments and a header
+         * line are ignored; malformed lines are skipped and counted ({@link #skippedLines()}).
+         */
+        public Builder addFeed(Reader feed) throws IOException {
+            BufferedReader in = feed instanceof BufferedReader ? (BufferedReader) feed : new BufferedReader(feed);
+            String line;
+            boolean first = true;
+            while ((line = in.readLine()) != null) {
+                String l = line.trim();
+                if (l.isEmpty() || l.startsWith("#")) continue;
+                int sep = l.indexOf('\t');
+                if (sep < 0) sep = l.indexOf(',');
+                try {
+                    if (sep < 0) throw new IllegalArgumentException();
+                    add(l.substring(0, sep), Double.parseDouble(l.substring(sep + 1).trim()));
+                } catch (IllegalArgumentException e) {
+                    if (!first) skippedLines++;   // a first line that does not parse is a header
+                }
+                first = false;
+            }
+            return this;
+        }
+
+        public Builder addFeed(Path feed) throws IOException {
+            try (Reader in = Files.newBufferedReader(feed, StandardCharsets.UTF_8)) {
+                return addFeed(in);
+            }
+        }
+
+        public int skippedLines() { return skippedLines; }
+
+        public CompactDomainIndex build() {
+            return new CompactDomainIndex(layout());
+        }
+
+        /** Writes the index to a temp file next to {@code file}, then moves it into place. */
+        public void save(Path file) throws IOException {
+            ByteBuffer buf = layout();
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    while (buf.hasRemaining()) ch.write(buf);
+                    ch.force(true);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        /**
+         * Breadth-first layout from the sorted keys: the distinct d-label prefixes, in key order,
+         * are the nodes of depth d, grouped by parent in the parents' own order.
+         */
+        private ByteBuffer layout() {
+            List<Entry> sorted = new ArrayList<>(entries);
+            sorted.sort(Comparator.comparing((Entry e) -> e.key));
+            List<Entry> keys = new ArrayList<>(sorted.size());
+            for (int i = 0; i < sorted.size(); i++) {
+                // stable sort: the last of equal keys is the latest score
+                if (i + 1 < sorted.size() && sorted.get(i + 1).key.equals(sorted.get(i).key)) continue;
+                keys.add(sorted.get(i));
+            }
+
+            Nodes out = new Nodes();
+            out.add(0, 0, 0);                          // root
+            Map<String, Integer> labelOffsets = new HashMap<>();
+            ByteArrayBuilder labelPool = new ByteArrayBuilder();
+
+            int n = keys.size();
+            int[] parentOf = new int[n];              // node of each key's prefix one level up
+            int[] labelStart = new int[n];            // where each key's next label begins
+            while (true) {
+                boolean any = false;
+                String lastKey = null;                // key whose label made the last node at this depth
+                int lastStart = 0, lastEnd = 0, lastParent = -1, lastNode = -1;
+                for (int i = 0; i < n; i++) {
+                    String key = keys.get(i).key;
+                    int start = labelStart[i];
+                    if (start > key.length()) continue;   // no label at this depth
+                    any = true;
+                    int end = key.indexOf(SEP, start);
+                    if (end < 0) end = key.length();
+
+                    int node;
+                    if (parentOf[i] == lastParent && end - start == lastEnd - lastStart
+                            && key.regionMatches(start, lastKey, lastStart, end - start)) {
+                        node = lastNode;
+                    } else {
+                        String label = key.substring(start, end);
+                        int off = labelOffsets.computeIfAbsent(label, labelPool::append);
+                        node = out.add(off, label.length(), label.hashCode());
+                        out.link(parentOf[i], node);
+                        if (label.charAt(0) == '/') out.hasPaths[parentOf[i]] = true;
+                        lastKey = key;
+                        lastStart = start;
+                        lastEnd = end;
+                        lastParent = parentOf[i];
+                        lastNode = node;
+                    }
+                    if (end == key.length()) out.score[node] = keys.get(i).score;
+                    parentOf[i] = node;
+                    labelStart[i] = end + 1;
+                }
+                if (!any) break;
+            }
+
+            // hash tables for wide nodes, stored as child id + 1 (0 = empty slot)
+            int[] tableOf = new int[out.count];
+            int slotCount = 0;
+            for (int i = 0; i < out.count; i++) {
+                tableOf[i] = out.childCount[i] > HASHED_FANOUT ? slotCount : -1;
+                if (tableOf[i] >= 0) slotCount += tableSize(out.childCount[i]);
+            }
+            int[] slotIds = new int[slotCount];
+            for (int i = 0; i < out.count; i++) {
+                if (tableOf[i] < 0) continue;
+                int mask = tableSize(out.childCount[i]) - 1;
+                for (int c = out.firstChild[i]; c < out.firstChild[i] + out.childCount[i]; c++) {
+                    int slot = spread(out.hash[c]) & mask;
+                    while (slotIds[tableOf[i] + slot] != 0) slot = (slot + 1) & mask;
+                    slotIds[tableOf[i] + slot] = c + 1;
+                }
+            }
+
+            byte[] pool = labelPool.toArray();
+            ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + out.count * NODE_BYTES + slotCount * Integer.BYTES + pool.length)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(out.count).putInt(slotCount).putInt(pool.length).putInt(n);
+            for (int i = 0; i < out.count; i++) {
+                buf.putInt(out.labelOff[i]).putInt(out.labelLen[i] | (out.hasPaths[i] ? HAS_PATHS : 0))
+                        .putInt(out.firstChild[i]).putInt(out.childCount[i]).putFloat(out.score[i])
+                        .putInt(tableOf[i]);
+            }
+            for (int id : slotIds) buf.putInt(id);
+            buf.put(pool);
+            buf.flip();
+            return buf;
+        }
+
+        private static String key(String domain) {
+            if (domain == null) return null;
+            String d = domain.trim().toLowerCase(Locale.ROOT);
+            int scheme = d.indexOf("://");
+            if (scheme >= 0) d = d.substring(scheme + 3);
+            String path = "";
+            int slash = d.indexOf('/');
+            if (slash >= 0) {
+                path = d.substring(slash);
+                d = d.substring(0, slash);
+            }
+            if (d.startsWith("*.")) d = d.substring(2);
+            while (d.startsWith(".")) d = d.substring(1);
+            while (d.endsWith(".")) d = d.substring(0, d.length() - 1);
+            if (d.isEmpty()) return null;
+            try {
+                d = IDN.toASCII(d, IDN.ALLOW_UNASSIGNED).toLowerCase(Locale.ROOT);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            String[] labels = d.split("\\.");
+            StringBuilder sb = new StringBuilder(d.length());
+            for (int i = labels.length - 1; i >= 0; i--) {
+                if (labels[i].isEmpty()) return null;
+                if (sb.length() > 0) sb.append(SEP);
+                sb.append(labels[i]);
+            }
+            for (String segment : path.split("[?#]", 2)[0].split("/")) {
+                if (segment.isEmpty()) continue;
+                for (int i = 0; i < segment.length(); i++) {
+                    if (segment.charAt(i) <= ' ' || segment.charAt(i) > '~') return null;
+                }
+                sb.append(SEP).append('/').append(segment);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final float score;
+        Entry(String key, float score) { this.key = key; this.score = score; }
+    }
+
+    /** Growable node columns used while laying out. */
+    private static final class Nodes {
+        int[] labelOff = new int[1024], labelLen = new int[1024], firstChild = new int[1024],
+                childCount = new int[1024], hash = new int[1024];
+        float[] score = new float[1024];
+        boolean[] hasPaths = new boolean[1024];
+        int count;
+
+        int add(int off, int len, int labelHash) {
+            if (count == score.length) {
+                int cap = count * 2;
+                labelOff = Arrays.copyOf(labelOff, cap);
+                labelLen = Arrays.copyOf(labelLen, cap);
+                firstChild = Arrays.copyOf(firstChild, cap);
+                childCount = Arrays.copyOf(childCount, cap);
+                hash = Arrays.copyOf(hash, cap);
+                score = Arrays.copyOf(score, cap);
+                hasPaths = Arrays.copyOf(hasPaths, cap);
+            }
+            labelOff[count] = off;
+            labelLen[count] = len;
+            hash[count] = labelHash;
+            score[count] = Float.NaN;
+            return count++;
+        }
+
+        void link(int parent, int child) {
+            if (childCount[parent]++ == 0) firstChild[parent] = child;
+        }
+    }
+
+    private static final class ByteArrayBuilder {
+        private byte[] buf = new byte[4096];
+        private int len;
+
+        int append(String ascii) {
+            int off = len;
+            if (len + ascii.length() > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + ascii.length()));
+            for (int i = 0; i < ascii.length(); i++) buf[len++] = (byte) ascii.charAt(i);
+            return off;
+        }
+
+        byte[] toArray() { return Arrays.copyOf(buf, len); }
+    }
+}
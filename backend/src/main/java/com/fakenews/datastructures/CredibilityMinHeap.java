@@ -3,109 +3,198 @@ package com.fakenews.datastructures;
 import java.util.*;
 
 /**
- * Min-heap keyed by score.
- * NOTE: In this project, "least credible" == HIGHEST fake score.
- * To avoid semantic confusion, getTopKLeastCredible() explicitly returns
- * the top-K by DESCENDING score (i.e., most fake first), regardless of heap internals.
+ * Compact indexed heap for ranking very large numbers of articles.
+ * NOTE: In this project, "least credible" == HIGHEST fake score. The heap is a min-heap on
+ * credibility (1 - fake score), so its root is always the least credible article.
+ * Notes:
+ * - Parallel primitive arrays: fake score and interned id handle per heap slot, plus a
+ *   handle -> slot index. Ids are interned by {@link IdInterner}; no per-article objects,
+ *   roughly 60-70 bytes per article with UUID ids.
+ * - insert is an upsert: an id already present is re-ranked in place.
+ * - topK is a best-first walk from the root over a k-sized frontier: O(k log k), no copying.
+ * - {@link #descending()} is the interface default, pages of topK: O(j log j) for j entries.
+ * - Public operations are synchronized.
  */
-public class CredibilityMinHeap {
-    private final List<HeapNode> heap = new ArrayList<>();
-    private final Map<String, Integer> pos = new HashMap<>();
-
-    // ---- core heap ops (min-heap on score) ----
-
-    public void insert(String articleId, double score) {
-        HeapNode n = new HeapNode(articleId, score);
-        heap.add(n);
-        pos.put(articleId, heap.size() - 1);
-        heapifyUp(heap.size() - 1);
-    }
-
-    public HeapNode extractMin() {
-        if (heap.isEmpty()) return null;
-        HeapNode min = heap.get(0);
-        HeapNode last = heap.remove(heap.size() - 1);
-        pos.remove(min.articleId);
-        if (!heap.isEmpty()) {
-            heap.set(0, last);
-            pos.put(last.articleId, 0);
-            heapifyDown(0);
+public class CredibilityMinHeap implements CredibilityRanking {
+    private static final int ABSENT = -1;
+
+    private final IdInterner ids = new IdInterner();
+    private double[] scores = new double[64];   // by heap slot
+    private int[] handles = new int[64];        // by heap slot
+    private int[] slotOf = new int[64];         // by handle, ABSENT if not in the heap
+    private int size;
+
+    public CredibilityMinHeap() {
+        Arrays.fill(slotOf, ABSENT);
+    }
+
+    // ---- core heap ops ----
+
+    @Override
+    public synchronized void insert(String articleId, double score) {
+        int handle = ids.intern(articleId);
+        ensureHandleCapacity(handle);
+        int slot = slotOf[handle];
+        if (slot != ABSENT) {
+            rescore(slot, score);
+            return;
         }
-        return min;
+        if (size == scores.length) {
+            scores = Arrays.copyOf(scores, size * 2);
+            handles = Arrays.copyOf(handles, size * 2);
+        }
+        place(size, handle, score);
+        size++;
+        siftUp(size - 1);
     }
 
-    public HeapNode peek() {
-        return heap.isEmpty() ? null : heap.get(0);
+    @Override
+    public synchronized boolean updateScore(String articleId, double score) {
+        int slot = slotFor(articleId);
+        if (slot == ABSENT) return false;
+        rescore(slot, score);
+        return true;
     }
 
-    public void updateScore(String articleId, double newScore) {
-        Integer i = pos.get(articleId);
-        if (i == null) return;
-        double old = heap.get(i).score;
-        heap.get(i).score = newScore;
-        if (newScore < old) heapifyUp(i); else heapifyDown(i);
+    @Override
+    public synchronized boolean remove(String articleId) {
+        int slot = slotFor(articleId);
+        if (slot == ABSENT) return false;
+        removeAt(slot);
+        return true;
     }
 
-    public boolean isEmpty() { return heap.isEmpty(); }
-    public int size()        { return heap.size();    }
+    /** Removes and returns the least credible article (highest fake score), or null if empty. */
+    public synchronized Entry pollLeastCredible() {
+        if (size == 0) return null;
+        Entry top = entryAt(0);
+        removeAt(0);
+        return top;
+    }
 
-    // ---- "least credible" view (DESC by score) ----
+    public synchronized Entry peekLeastCredible() {
+        return size == 0 ? null : entryAt(0);
+    }
 
-    /**
-     * Returns top-K by DESCENDING score (i.e., highest fake scores first).
-     * Uses a copy + partial sort to avoid changing heap invariants.
-     */
-    public List<HeapNode> getTopKLeastCredible(int k) {
-        k = Math.max(0, k);
-        if (k == 0 || heap.isEmpty()) return Collections.emptyList();
+    @Override
+    public synchronized double scoreOf(String articleId) {
+        int slot = slotFor(articleId);
+        return slot == ABSENT ? Double.NaN : scores[slot];
+    }
+
+    @Override
+    public synchronized int size() { return size; }
+
+    // ---- "least credible" view (DESC by score) ----
 
-        List<HeapNode> copy = new ArrayList<>(heap.size());
-        for (HeapNode n : heap) copy.add(new HeapNode(n.articleId, n.score));
+    /** Top-K by DESCENDING fake score: expands the heap from its root, k slots at most. */
+    @Override
+    public synchronized List<Entry> topK(int k) {
+        k = Math.min(Math.max(0, k), size);
+        if (k == 0) return Collections.emptyList();
+
+        List<Entry> out = new ArrayList<>(k);
+        int[] frontier = new int[2 * k + 1];   // max-heap of slots by score; grows by <= 1 per step
+        int n = 0;
+        frontier[n++] = 0;
+        while (out.size() < k) {
+            int slot = frontier[0];
+            frontier[0] = frontier[--n];
+            siftDownFrontier(frontier, n, 0);
+            out.add(entryAt(slot));
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                frontier[n] = child;
+                siftUpFrontier(frontier, n++);
+            }
+        }
+        return out;
+    }
 
-        // Sort by score descending
-        copy.sort((a, b) -> Double.compare(b.score, a.score));
-        if (copy.size() > k) copy = copy.subList(0, k);
-        return copy;
+    /** Approximate bytes held by the arrays and the id table. */
+    public synchronized long bytes() {
+        return 8L * scores.length + 4L * handles.length + 4L * slotOf.length + ids.bytes();
     }
 
     // ---- internals ----
-    private void heapifyUp(int i) {
+
+    private int slotFor(String articleId) {
+        int handle = ids.lookup(articleId);
+        return handle < 0 || handle >= slotOf.length ? ABSENT : slotOf[handle];
+    }
+
+    private Entry entryAt(int slot) {
+        return new Entry(ids.idOf(handles[slot]), scores[slot]);
+    }
+
+    private void rescore(int slot, double score) {
+        double old = scores[slot];
+        scores[slot] = score;
+        if (score > old) siftUp(slot); else siftDown(slot);
+    }
+
+    private void removeAt(int slot) {
+        slotOf[handles[slot]] = ABSENT;
+        size--;
+        if (slot == size) return;
+        place(slot, handles[size], scores[size]);
+        siftDown(slot);
+        siftUp(slot);
+    }
+
+    private void place(int slot, int handle, double score) {
+        scores[slot] = score;
+        handles[slot] = handle;
+        slotOf[handle] = slot;
+    }
+
+    private void ensureHandleCapacity(int handle) {
+        if (handle < slotOf.length) return;
+        int old = slotOf.length;
+        slotOf = Arrays.copyOf(slotOf, Math.max(old * 2, handle + 1));
+        Arrays.fill(slotOf, old, slotOf.length, ABSENT);
+    }
+
+    // higher fake score = lower credibility = closer to the root
+    private void siftUp(int i) {
         while (i > 0) {
             int p = (i - 1) / 2;
-            if (heap.get(i).score >= heap.get(p).score) break;
+            if (scores[i] <= scores[p]) break;
             swap(i, p); i = p;
         }
     }
 
-    private void heapifyDown(int i) {
-        int n = heap.size();
+    private void siftDown(int i) {
         while (true) {
-            int smallest = i, l = 2 * i + 1, r = 2 * i + 2;
-            if (l < n && heap.get(l).score < heap.get(smallest).score) smallest = l;
-            if (r < n && heap.get(r).score < heap.get(smallest).score) smallest = r;
-            if (smallest == i) break;
-            swap(i, smallest); i = smallest;
+            int top = i, l = 2 * i + 1, r = 2 * i + 2;
+            if (l < size && scores[l] > scores[top]) top = l;
+            if (r < size && scores[r] > scores[top]) top = r;
+            if (top == i) break;
+            swap(i, top); i = top;
         }
     }
 
     private void swap(int i, int j) {
-        HeapNode a = heap.get(i), b = heap.get(j);
-        heap.set(i, b); heap.set(j, a);
-        pos.put(b.articleId, i);
-        pos.put(a.articleId, j);
+        double s = scores[i]; scores[i] = scores[j]; scores[j] = s;
+        int h = handles[i]; handles[i] = handles[j]; handles[j] = h;
+        slotOf[handles[i]] = i;
+        slotOf[handles[j]] = j;
     }
 
-    // ---- dto ----
-    public static class HeapNode {
-        private final String articleId;
-        private double score;
+    private void siftUpFrontier(int[] f, int i) {
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (scores[f[i]] <= scores[f[p]]) break;
+            int t = f[i]; f[i] = f[p]; f[p] = t; i = p;
+        }
+    }
 
-        public HeapNode(String articleId, double credibilityScore) {
-            this.articleId = articleId;
-            this.score = credibilityScore;
+    private void siftDownFrontier(int[] f, int n, int i) {
+        while (true) {
+            int top = i, l = 2 * i + 1, r = 2 * i + 2;
+            if (l < n && scores[f[l]] > scores[f[top]]) top = l;
+            if (r < n && scores[f[r]] > scores[f[top]]) top = r;
+            if (top == i) break;
+            int t = f[i]; f[i] = f[top]; f[top] = t; i = top;
         }
-        public String getArticleId()     { return articleId; }
-        public double getCredibilityScore() { return score; }
-        public void setCredibilityScore(double s) { this.score = s; }
     }
 }
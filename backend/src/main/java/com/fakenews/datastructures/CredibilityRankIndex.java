@@ -0,0 +1,75 @@
+package com.fakenews.datastructures;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Thread-safe ranking of articles by fake score, highest ("least credible") first.
+ * Notes:
+ * - A concurrent skip list ordered by (score desc, id) holds one immutable entry per article;
+ *   an id -> entry map finds the entry to replace, so insert is an upsert.
+ * - Writes to the same id are serialized by the map (compute); different ids never block.
+ * - topK walks the head of the list: O(log n + k), returning the stored entries without copying;
+ *   {@link #descending()} is the same walk left open, O(1) per entry.
+ * - Reads are weakly consistent: an article whose score is being replaced may be missing
+ *   from a concurrent topK, never duplicated.
+ */
+public class CredibilityRankIndex implements CredibilityRanking {
+    private static final Comparator<Entry> MOST_FAKE_FIRST =
+            Comparator.comparingDouble(Entry::getCredibilityScore).reversed().thenComparing(Entry::getArticleId);
+
+    private final ConcurrentSkipListSet<Entry> ranked = new ConcurrentSkipListSet<>(MOST_FAKE_FIRST);
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void insert(String articleId, double score) {
+        entries.compute(articleId, (id, old) -> replace(old, new Entry(id, score)));
+    }
+
+    @Override
+    public boolean updateScore(String articleId, double score) {
+        return entries.computeIfPresent(articleId, (id, old) -> replace(old, new Entry(id, score))) != null;
+    }
+
+    @Override
+    public boolean remove(String articleId) {
+        boolean[] removed = new boolean[1];
+        entries.computeIfPresent(articleId, (id, old) -> {
+            removed[0] = ranked.remove(old);
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public List<Entry> topK(int k) {
+        if (k <= 0) return Collections.emptyList();
+        List<Entry> out = new ArrayList<>(Math.min(k, 64));
+        for (Entry e : ranked) {
+            out.add(e);
+            if (out.size() == k) break;
+        }
+        return out;
+    }
+
+    @Override
+    public Iterator<Entry> descending() {
+        return Collections.unmodifiableSet(ranked).iterator();
+    }
+
+    @Override
+    public double scoreOf(String articleId) {
+        Entry e = entries.get(articleId);
+        return e != null ? e.getCredibilityScore() : Double.NaN;
+    }
+
+    @Override
+    public int size() { return entries.size(); }
+
+    private Entry replace(Entry old, Entry next) {
+        if (old != null) ranked.remove(old);
+        ranked.add(next);
+        return next;
+    }
+}
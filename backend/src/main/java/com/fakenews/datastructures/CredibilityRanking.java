@@ -0,0 +1,51 @@
+package com.fakenews.datastructures;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Ranking of analyzed articles by fake score, highest ("least credible") first.
+ * Implementations: {@link CredibilityRankIndex} (concurrent skip list, lock-free reads) and
+ * {@link CredibilityMinHeap} (primitive arrays + interned ids, compact for very large counts).
+ */
+public interface CredibilityRanking {
+
+    /** Adds the article, or moves it to {@code score} if already ranked. */
+    void insert(String articleId, double score);
+
+    /** Re-ranks an article already present; returns false (and adds nothing) otherwise. */
+    boolean updateScore(String articleId, double score);
+
+    boolean remove(String articleId);
+
+    /** Up to k entries by descending fake score. */
+    List<Entry> topK(int k);
+
+    /**
+     * All entries by descending fake score, produced as they are consumed, for callers that stop
+     * after an unknown number. The default pages through {@link #topK} (see {@link PagedRankingIterator}).
+     */
+    default Iterator<Entry> descending() {
+        return new PagedRankingIterator(this);
+    }
+
+    /** Current score, or NaN if the article is not ranked. */
+    double scoreOf(String articleId);
+
+    int size();
+
+    default boolean isEmpty() { return size() == 0; }
+
+    final class Entry {
+        private final String articleId;
+        private final double score;
+
+        public Entry(String articleId, double score) {
+            this.articleId = articleId;
+            this.score = score;
+        }
+
+        public String getArticleId()        { return articleId; }
+        public double getCredibilityScore() { return score; }
+    }
+}
@@ -0,0 +1,73 @@
+package com.fakenews.datastructures;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Small lock-free cache of recent results: each key hashes to exactly one slot, and a new entry
+ * simply replaces whatever was there. Meant for hot, cheap-to-recompute lookups where
+ * {@link BoundedLruCache}'s locking and bookkeeping would cost more than the lookup itself.
+ * Notes:
+ * - A hit is one array read and an equals(): nothing is allocated or locked.
+ * - Racing writers may overwrite each other; the loser's value is just recomputed next time.
+ * - Values must be a pure function of the key (the same key may be computed more than once).
+ */
+public class DirectMappedCache<K, V> {
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        Entry(K key, V value) { this.key = key; this.value = value; }
+    }
+
+    private final AtomicReferenceArray<Entry<K, V>> slots;
+    private final int mask;
+
+    /** {@code capacity} is rounded up to a power of two. */
+    public DirectMappedCache(int capacity) {
+        int n = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(n);
+        this.mask = n - 1;
+    }
+
+    public V get(K key) {
+        Entry<K, V> e = slots.get(indexFor(key));
+        return e != null && e.key.equals(key) ? e.value : null;
+    }
+
+    /**
+     * For String keys: the value cached under the key equal to {@code text[from, to)}, looked up
+     * without building that key (same slot as {@code get(text.substring(from, to))}).
+     */
+    public V getRegion(String text, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + text.charAt(i);   // String.hashCode of the region
+        Entry<K, V> e = slots.get(spread(h));
+        if (e == null || !(e.key instanceof String)) return null;
+        String key = (String) e.key;
+        return key.length() == to - from && text.regionMatches(from, key, 0, key.length()) ? e.value : null;
+    }
+
+    public void put(K key, V value) {
+        slots.set(indexFor(key), new Entry<>(key, value));
+    }
+
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> fn) {
+        V v = get(key);
+        if (v == null) {
+            v = fn.apply(key);
+            if (v != null) put(key, v);
+        }
+        return v;
+    }
+
+    public int capacity() { return mask + 1; }
+
+    private int indexFor(K key) {
+        return spread(key.hashCode());
+    }
+
+    private int spread(int h) {
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
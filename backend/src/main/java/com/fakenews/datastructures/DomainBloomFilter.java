@@ -0,0 +1,133 @@
+package com.fakenews.datastructures;
+
+import java.util.Locale;
+
+/**
+ * Probabilistic set of domains, answering "could any stored domain enclose this host?".
+ * Notes:
+ * - Keyed on registrable domains ({@link PublicSuffixList}): every stored domain at or below
+ *   bbc.co.uk is added as bbc.co.uk, so a host needs exactly one probe. Stored public suffixes
+ *   (e.g. "blogspot.com", or a whole TLD) are added as themselves, and while there are any,
+ *   the labels of a host above its registrable domain are probed too.
+ * - Blocked layout: a key's k bits all fall in one 512-bit block (one cache line), so a probe
+ *   is a single memory access. Sized from the expected count and false-positive rate.
+ * - No false negatives; a false positive only costs the lookup it was meant to skip.
+ * - Hashing reads the host in place (case-insensitive), so a probe allocates nothing.
+ * - Adds are not synchronized: build it first, then publish it.
+ */
+public final class DomainBloomFilter {
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+    // blocking concentrates keys unevenly; a little extra space keeps the rate near the target
+    private static final double BLOCKING_OVERHEAD = 1.2;
+
+    private final long[] words;
+    private final int blocks;
+    private final int hashes;
+    private final PublicSuffixList suffixes;
+    private int count;
+    private int suffixEntries;   // stored domains that are public suffixes themselves
+
+    private DomainBloomFilter(int blocks, int hashes, PublicSuffixList suffixes) {
+        this.words = new long[blocks * BLOCK_WORDS];
+        this.blocks = blocks;
+        this.hashes = hashes;
+        this.suffixes = suffixes;
+    }
+
+    /** Sized for {@code expectedDomains} at false-positive rate {@code fpp} (0 &lt; fpp &lt; 1). */
+    public static DomainBloomFilter create(int expectedDomains, double fpp, PublicSuffixList suffixes) {
+        if (!(fpp > 0 && fpp < 1)) throw new IllegalArgumentException("fpp must be in (0, 1): " + fpp);
+        double n = Math.max(1, expectedDomains);
+        double bits = -n * Math.log(fpp) / (Math.log(2) * Math.log(2)) * BLOCKING_OVERHEAD;
+        int blocks = (int) Math.min(Integer.MAX_VALUE / BLOCK_WORDS, Math.max(1, Math.ceil(bits / BLOCK_BITS)));
+        int hashes = (int) Math.max(1, Math.min(16, Math.round(-Math.log(fpp) / Math.log(2))));
+        return new DomainBloomFilter(blocks, hashes, suffixes);
+    }
+
+    /** Adds a domain; a URL prefix ("host/segment/...") is added as its host. */
+    public void add(String domain) {
+        String d = domain.trim().toLowerCase(Locale.ROOT);
+        int slash = d.indexOf('/');
+        if (slash >= 0) d = d.substring(0, slash);
+        while (d.endsWith(".")) d = d.substring(0, d.length() - 1);
+        if (d.isEmpty()) return;
+        int start = suffixes.registrableStart(d, 0, d.length());
+        if (start < 0) {
+            start = 0;
+            suffixEntries++;
+        }
+        long h = hash(d, start, d.length());
+        int base = block(h) * BLOCK_WORDS;
+        int g = (int) h, step = (int) (h >>> 32) | 1;
+        for (int i = 0; i < hashes; i++, g += step) {
+            int bit = g & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+        count++;
+    }
+
+    /**
+     * False if no added domain can equal or enclose the host in {@code text[from, to)}
+     * (already trimmed, no trailing dot); true if one might.
+     */
+    public boolean mightContainEnclosing(CharSequence text, int from, int to) {
+        if (to <= from) return false;
+        int start = suffixes.registrableStart(text, from, to);
+        if (start >= 0 && probe(text, start, to)) return true;
+        if (suffixEntries == 0) return false;
+        // suffix-level entries: the labels above the registrable domain (or all of a bare suffix)
+        for (int i = Math.max(start, from); i < to; i++) {
+            if ((i == from || text.charAt(i - 1) == '.') && i != start && probe(text, i, to)) return true;
+        }
+        return false;
+    }
+
+    public int size() { return count; }
+
+    public int hashFunctions() { return hashes; }
+
+    public long bytes() { return (long) words.length * Long.BYTES; }
+
+    /** Expected false-positive rate at the current fill (standard Bloom estimate). */
+    public double expectedFpp() {
+        double bits = (double) blocks * BLOCK_BITS;
+        return Math.pow(1 - Math.exp(-hashes * (double) count / bits), hashes);
+    }
+
+    // ---- internals ----
+
+    private boolean probe(CharSequence text, int from, int to) {
+        long h = hash(text, from, to);
+        int base = block(h) * BLOCK_WORDS;
+        int g = (int) h, step = (int) (h >>> 32) | 1;
+        for (int i = 0; i < hashes; i++, g += step) {
+            int bit = g & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /** Block from the high bits of a second mix, so it is independent of the in-block bits. */
+    private int block(long h) {
+        long m = mix(h ^ 0x9E3779B97F4A7C15L);
+        return (int) (((m >>> 32) * blocks) >>> 32);
+    }
+
+    /** FNV-1a over the lowercased chars, then a 64-bit finalizer. */
+    private static long hash(CharSequence text, int from, int to) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            h ^= c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;   // ASCII hosts
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,41 @@
+package com.fakenews.datastructures;
+
+import java.util.function.Consumer;
+
+/**
+ * Read side of a domain -> fake score table, queried with hosts.
+ * Implementations: {@link DomainTrie} (mutable, on heap) and {@link CompactDomainIndex}
+ * (immutable, memory-mapped, for feeds with millions of domains).
+ */
+public interface DomainScoreIndex {
+
+    /**
+     * Score of the most specific stored domain equal to or enclosing the host in
+     * {@code text[from, to)}, or NaN if none. Case-insensitive; must not allocate.
+     */
+    double mostSpecificScore(CharSequence text, int from, int to);
+
+    default double mostSpecificScore(CharSequence host) {
+        return mostSpecificScore(host, 0, host.length());
+    }
+
+    /**
+     * As {@link #mostSpecificScore(CharSequence, int, int)} for the host in {@code text[hostFrom, hostTo)},
+     * except that a stored URL prefix matching the path in {@code text[hostTo, end)} wins over any
+     * domain score (the most specific host first, then the longest prefix). The path starts at the
+     * first '/' (a port is skipped); {@code end} should exclude the query and fragment.
+     * Indexes without URL prefixes score the host alone.
+     */
+    default double mostSpecificUrlScore(CharSequence text, int hostFrom, int hostTo, int end) {
+        return mostSpecificScore(text, hostFrom, hostTo);
+    }
+
+    /** Number of stored domains. */
+    int size();
+
+    /**
+     * Visits every stored domain (lowercase, labels in the usual order) and URL prefix
+     * ("host/segment/..."); no particular order.
+     */
+    void forEachDomain(Consumer<? super String> action);
+}
@@ -1,96 +1,268 @@
 package com.fakenews.datastructures;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Trie for domain -> credibility/fake score lookup.
  * Store scores in [0..1], where higher = more fake (lower credibility).
+ * Notes:
+ * - Keyed on domain labels from the right (com -> reuters -> news), so the ancestors of a
+ *   host lie on the path to it: one walk finds the most specific entry that covers it.
+ * - {@link #mostSpecificScore(CharSequence, int, int)} reads labels straight out of the caller's
+ *   text (case-insensitive, no substring or boxing), so a lookup allocates nothing.
+ * - Writes are serialized; reads never lock. Child tables are open-addressed without deletion:
+ *   an insert fills one empty slot (a reader sees the child or a miss), and a full table is
+ *   rehashed into a new array before it is published.
+ * - Entries may also be URL prefixes ("medium.com/@someone/"): each path segment is a child
+ *   labelled "/segment" under the host's node. {@link #mostSpecificUrlScore} continues from a host
+ *   node into the path, and a matching prefix wins over any domain score. Paths are matched by
+ *   whole segments, ignoring case.
+ * - Hosts are expected in ASCII (IDNs as punycode).
  */
-public class DomainTrie {
-    private final TrieNode root;
+public class DomainTrie implements DomainScoreIndex {
+    private static final Node[] NO_CHILDREN = new Node[0];
 
-    public DomainTrie() {
-        this.root = new TrieNode();
-    }
+    private final Node root = new Node("", 0);
+    private volatile int size;
 
-    /** Insert or update a domain's score. Input is normalized to lowercase/trimmed. */
-    public void insert(String domain, double credibilityScore) {
-        if (domain == null) return;
-        domain = domain.trim().toLowerCase(Locale.ROOT);
-        if (domain.isEmpty()) return;
+    /** Insert or update a domain's (or URL prefix's) score. Input is normalized to lowercase/trimmed. */
+    public synchronized void insert(String domain, double credibilityScore) {
+        List<String> labels = labelsOf(domain);
+        if (labels == null) return;
 
-        TrieNode cur = root;
-        for (char c : domain.toCharArray()) {
-            cur.children.putIfAbsent(c, new TrieNode());
-            cur = cur.children.get(c);
+        Node cur = root;
+        for (String label : labels) {
+            if (label.charAt(0) == '/') cur.hasPaths = true;
+            cur = cur.childOrCreate(label);
         }
-        cur.isEndOfWord = true;
-        cur.credibilityScore = clamp01(credibilityScore);
+        if (Double.isNaN(cur.score)) size++;
+        cur.score = clamp01(credibilityScore);
     }
 
-    /** Exact lookup. Returns null if not found. */
+    /** Exact lookup of a domain or URL prefix. Returns null if not found. */
     public Double search(String domain) {
-        if (domain == null) return null;
-        domain = domain.trim().toLowerCase(Locale.ROOT);
-        TrieNode node = searchNode(domain);
-        return (node != null && node.isEndOfWord) ? node.credibilityScore : null;
+        List<String> labels = labelsOf(domain);
+        if (labels == null) return null;
+
+        Node cur = root;
+        for (String label : labels) {
+            cur = cur.child(label, 0, label.length());
+            if (cur == null) return null;
+        }
+        return Double.isNaN(cur.score) ? null : cur.score;
     }
 
     /**
-     * Lookup with fallback: try exact, then progressively strip leftmost subdomains.
+     * Lookup with fallback: the most specific stored domain that equals or encloses {@code domain}.
      * e.g., news.reuters.com -> reuters.com
      */
     public Double searchWithFallback(String domain) {
         if (domain == null) return null;
-        String d = domain.trim().toLowerCase(Locale.ROOT);
-        Double v = search(d);
-        if (v != null) return v;
-
-        String[] parts = d.split("\\.");
-        for (int i = 1; i + 1 < parts.length; i++) {
-            String candidate = String.join(".", Arrays.copyOfRange(parts, i, parts.length));
-            v = search(candidate);
-            if (v != null) return v;
+        double score = mostSpecificScore(domain);
+        return Double.isNaN(score) ? null : score;
+    }
+
+    /** Surrounding whitespace and a trailing dot are ignored. */
+    @Override
+    public double mostSpecificScore(CharSequence text, int from, int to) {
+        while (from < to && Character.isWhitespace(text.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) to--;
+        if (to > from && text.charAt(to - 1) == '.') to--;
+        return lookup(text, from, to, to);
+    }
+
+    /** Leading whitespace and a trailing dot on the host are ignored. */
+    @Override
+    public double mostSpecificUrlScore(CharSequence text, int hostFrom, int hostTo, int end) {
+        while (hostFrom < hostTo && Character.isWhitespace(text.charAt(hostFrom))) hostFrom++;
+        int to = hostTo;
+        if (to > hostFrom && text.charAt(to - 1) == '.') to--;
+        return lookup(text, hostFrom, to, end);
+    }
+
+    /** Host labels right to left; from each host node with URL prefixes, path segments left to right. */
+    private double lookup(CharSequence text, int from, int to, int end) {
+        double best = Double.NaN;
+        double bestPath = Double.NaN;
+        Node cur = root;
+        int labelEnd = to;
+        while (labelEnd > from) {
+            int start = labelEnd;
+            while (start > from && text.charAt(start - 1) != '.') start--;
+            if (start < labelEnd) {
+                cur = cur.child(text, start, labelEnd);
+                if (cur == null) break;
+                double s = cur.score;
+                if (!Double.isNaN(s)) best = s;
+                if (cur.hasPaths) {
+                    double p = pathScore(cur, text, to, end);
+                    if (!Double.isNaN(p)) bestPath = p;   // a deeper host's prefix wins
+                }
+            }
+            labelEnd = start - 1;
         }
-        return null;
+        return Double.isNaN(bestPath) ? best : bestPath;
     }
 
-    /** All domains starting with prefix (already normalized). */
+    /** Longest stored prefix below {@code host} of the path in text[from, end) (a port before it is skipped). */
+    private static double pathScore(Node host, CharSequence text, int from, int end) {
+        int i = from;
+        while (i < end && text.charAt(i) != '/') i++;
+        double best = Double.NaN;
+        Node cur = host;
+        while (i < end) {
+            int segEnd = i + 1;
+            while (segEnd < end && text.charAt(segEnd) != '/') segEnd++;
+            if (segEnd > i + 1) {
+                cur = cur.child(text, i, segEnd);   // "/segment", slash included
+                if (cur == null) break;
+                double s = cur.score;
+                if (!Double.isNaN(s)) best = s;
+            }
+            i = segEnd;
+        }
+        return best;
+    }
+
+    /** All domains starting with prefix (already normalized). Walks the whole trie. */
     public List<DomainScore> getAllWithPrefix(String prefix) {
         List<DomainScore> results = new ArrayList<>();
         if (prefix == null) return results;
-        prefix = prefix.trim().toLowerCase(Locale.ROOT);
-        TrieNode node = searchNode(prefix);
-        if (node != null) collectAllDomains(node, prefix, results);
+        String p = prefix.trim().toLowerCase(Locale.ROOT);
+        collectAllDomains(root, "", p, results);
         return results;
     }
 
+    @Override
+    public int size() { return size; }
+
+    /** Domains and URL prefixes ("host/segment/..."). */
+    @Override
+    public void forEachDomain(Consumer<? super String> action) {
+        for (DomainScore d : getAllWithPrefix("")) action.accept(d.getDomain());
+    }
+
     // ---- internals ----
-    private TrieNode searchNode(String domain) {
-        TrieNode current = root;
-        for (char c : domain.toCharArray()) {
-            TrieNode nxt = current.children.get(c);
-            if (nxt == null) return null;
-            current = nxt;
+
+    /**
+     * Trie path of a domain or URL prefix: host labels right to left, then "/segment" per path
+     * segment (scheme, query and fragment dropped). Null if there is no host.
+     */
+    private static List<String> labelsOf(String entry) {
+        if (entry == null) return null;
+        String e = entry.trim().toLowerCase(Locale.ROOT);
+        int scheme = e.indexOf("://");
+        if (scheme >= 0) e = e.substring(scheme + 3);
+        int slash = e.indexOf('/');
+        String host = slash < 0 ? e : e.substring(0, slash);
+        if (host.endsWith(".")) host = host.substring(0, host.length() - 1);
+
+        List<String> labels = new ArrayList<>();
+        for (int end = host.length(); end > 0; ) {
+            int dot = host.lastIndexOf('.', end - 1);
+            if (dot + 1 < end) labels.add(host.substring(dot + 1, end));
+            end = Math.max(dot, 0);
+        }
+        if (labels.isEmpty()) return null;
+        if (slash >= 0) {
+            String path = e.substring(slash);
+            int cut = indexOfAny(path, "?#");
+            if (cut >= 0) path = path.substring(0, cut);
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) labels.add("/" + segment);
+            }
         }
-        return current;
+        return labels;
     }
 
-    private void collectAllDomains(TrieNode node, String prefix, List<DomainScore> results) {
-        if (node.isEndOfWord) results.add(new DomainScore(prefix, node.credibilityScore));
-        for (Map.Entry<Character, TrieNode> e : node.children.entrySet()) {
-            collectAllDomains(e.getValue(), prefix + e.getKey(), results);
+    private static int indexOfAny(String s, String chars) {
+        for (int i = 0; i < s.length(); i++) if (chars.indexOf(s.charAt(i)) >= 0) return i;
+        return -1;
+    }
+
+    private void collectAllDomains(Node node, String domain, String prefix, List<DomainScore> results) {
+        if (node != root && !Double.isNaN(node.score) && domain.startsWith(prefix)) {
+            results.add(new DomainScore(domain, node.score));
+        }
+        for (Node child : node.children) {
+            if (child != null) {
+                String name = node == root ? child.label
+                        : child.label.charAt(0) == '/' ? domain + child.label
+                        : child.label + "." + domain;
+                collectAllDomains(child, name, prefix, results);
+            }
         }
     }
 
+    /** Same as String.hashCode of the lowercased label, computed in place. */
+    private static int labelHash(CharSequence text, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + Character.toLowerCase(text.charAt(i));
+        return h;
+    }
+
     private static double clamp01(double v) { return Math.max(0.0, Math.min(1.0, v)); }
 
     // ---- node + dto ----
-    static class TrieNode {
-        final Map<Character, TrieNode> children = new ConcurrentHashMap<>();
-        volatile boolean isEndOfWord;
-        volatile double credibilityScore;
+    static final class Node {
+        final String label;              // lowercase
+        final int hash;
+        volatile Node[] children = NO_CHILDREN;  // open addressing, power-of-two length
+        volatile double score = Double.NaN;     // NaN = no domain ends here
+        volatile boolean hasPaths;               // some children are "/segment" URL prefixes
+        private int childCount;                  // guarded by the trie lock
+
+        Node(String label, int hash) {
+            this.label = label;
+            this.hash = hash;
+        }
+
+        Node child(CharSequence text, int from, int to) {
+            Node[] table = children;
+            if (table.length == 0) return null;
+            int h = labelHash(text, from, to);
+            int mask = table.length - 1;
+            for (int i = spread(h) & mask; ; i = (i + 1) & mask) {
+                Node n = table[i];
+                if (n == null) return null;
+                if (n.hash == h && n.matches(text, from, to)) return n;
+            }
+        }
+
+        Node childOrCreate(String label) {
+            Node existing = child(label, 0, label.length());
+            if (existing != null) return existing;
+
+            Node created = new Node(label, label.hashCode());
+            Node[] table = children;
+            if ((childCount + 1) * 2 > table.length) {
+                Node[] grown = new Node[Math.max(4, table.length * 2)];
+                for (Node n : table) if (n != null) place(grown, n);
+                table = grown;
+            }
+            place(table, created);
+            childCount++;
+            children = table;   // (re)publish: readers see the new slot or a miss, never a partial probe
+            return created;
+        }
+
+        private boolean matches(CharSequence text, int from, int to) {
+            if (label.length() != to - from) return false;
+            for (int i = 0; i < label.length(); i++) {
+                if (Character.toLowerCase(text.charAt(from + i)) != label.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        private static void place(Node[] table, Node n) {
+            int mask = table.length - 1;
+            int i = spread(n.hash) & mask;
+            while (table[i] != null) i = (i + 1) & mask;
+            table[i] = n;
+        }
+
+        private static int spread(int h) { return h ^ (h >>> 16); }
     }
 
     public static class DomainScore {
@@ -0,0 +1,30 @@
+package com.fakenews.datastructures;
+
+/** Dot-product implementation behind {@link FloatVectors}; chosen once at class load. */
+abstract class DotKernel {
+
+    abstract String name();
+
+    abstract float dot(float[] a, int aOff, float[] b, int bOff, int len);
+
+    /** Sum of query[i] * codes[off + i]; the caller applies the row's scale. */
+    float dotInt8(float[] query, byte[] codes, int off, int len) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int bound = len & ~3; i < bound; i += 4) {
+            s0 += query[i]     * codes[off + i];
+            s1 += query[i + 1] * codes[off + i + 1];
+            s2 += query[i + 2] * codes[off + i + 2];
+            s3 += query[i + 3] * codes[off + i + 3];
+        }
+        for (; i < len; i++) s0 += query[i] * codes[off + i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    void dotMany(float[] query, float[] matrix, int rows, float[] out, int outOff) {
+        int dim = query.length;
+        for (int r = 0, off = 0; r < rows; r++, off += dim) {
+            out[outOff + r] = dot(query, 0, matrix, off, dim);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.fakenews.datastructures;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link DomainScoreIndex} behind a {@link DomainBloomFilter} built from its domains.
+ * Most hosts are in no reputation list: for them the filter answers NaN in one probe, without
+ * walking the index (for a memory-mapped index, without touching its pages at all).
+ */
+public final class FilteredDomainIndex implements DomainScoreIndex {
+    private final DomainScoreIndex index;
+    private final DomainBloomFilter filter;
+
+    private FilteredDomainIndex(DomainScoreIndex index, DomainBloomFilter filter) {
+        this.index = index;
+        this.filter = filter;
+    }
+
+    /** Builds the filter from every domain in {@code index} at false-positive rate {@code fpp}. */
+    public static FilteredDomainIndex of(DomainScoreIndex index, double fpp, PublicSuffixList suffixes) {
+        DomainBloomFilter filter = DomainBloomFilter.create(index.size(), fpp, suffixes);
+        index.forEachDomain(filter::add);
+        return new FilteredDomainIndex(index, filter);
+    }
+
+    public static FilteredDomainIndex of(DomainScoreIndex index, double fpp) {
+        return of(index, fpp, PublicSuffixList.bundled());
+    }
+
+    /** Surrounding whitespace and a trailing dot are ignored. */
+    @Override
+    public double mostSpecificScore(CharSequence text, int from, int to) {
+        while (from < to && Character.isWhitespace(text.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) to--;
+        if (to > from && text.charAt(to - 1) == '.') to--;
+        if (!filter.mightContainEnclosing(text, from, to)) return Double.NaN;
+        return index.mostSpecificScore(text, from, to);
+    }
+
+    /** Leading whitespace and a trailing dot on the host are ignored. */
+    @Override
+    public double mostSpecificUrlScore(CharSequence text, int hostFrom, int hostTo, int end) {
+        while (hostFrom < hostTo && Character.isWhitespace(text.charAt(hostFrom))) hostFrom++;
+        int to = hostTo;
+        if (to > hostFrom && text.charAt(to - 1) == '.') to--;
+        if (!filter.mightContainEnclosing(text, hostFrom, to)) return Double.NaN;
+        return index.mostSpecificUrlScore(text, hostFrom, hostTo, end);
+    }
+
+    @Override
+    public int size() { return index.size(); }
+
+    @Override
+    public void forEachDomain(Consumer<? super String> action) { index.forEachDomain(action); }
+
+    public DomainScoreIndex getIndex() { return index; }
+
+    public DomainBloomFilter getFilter() { return filter; }
+}
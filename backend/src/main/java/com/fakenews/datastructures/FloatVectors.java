@@ -0,0 +1,145 @@
+package com.fakenews.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Dot-product kernels over float32 vectors (similarity of L2-normalized embeddings).
+ * Notes:
+ * - Uses the JDK Vector API when the SIMD kernel was compiled in (Maven profile {@code vector-api})
+ *   and the JVM runs with {@code --add-modules jdk.incubator.vector}; otherwise an unrolled
+ *   scalar loop. {@code -Dfakenews.vector-api=false} forces the scalar kernel.
+ * - Sums accumulate in float: relative error is ~1e-6 for 768 dimensions, well below
+ *   any similarity threshold used here.
+ * - Matrices are row-major in one contiguous array: row r starts at {@code r * dim}.
+ * - Int8 rows ({@link #quantize}) carry one scale per row; the query stays float32,
+ *   so only the stored side is approximated.
+ */
+public final class FloatVectors {
+    private static final String SIMD_KERNEL = "com.fakenews.datastructures.VectorApiDotKernel";
+
+    private static final DotKernel KERNEL = loadKernel();
+
+    private FloatVectors() {}
+
+    public static float dot(float[] a, float[] b) {
+        if (a.length != b.length) throw new IllegalArgumentException("Dimension mismatch: " + a.length + " vs " + b.length);
+        return KERNEL.dot(a, 0, b, 0, a.length);
+    }
+
+    /** Dot product of {@code query} with the row of {@code matrix} starting at {@code offset}. */
+    public static float dot(float[] query, float[] matrix, int offset) {
+        return KERNEL.dot(query, 0, matrix, offset, query.length);
+    }
+
+    /** Scores {@code query} against the first {@code rows} rows of {@code matrix} into {@code out}. */
+    public static void dotMany(float[] query, float[] matrix, int rows, float[] out) {
+        dotMany(query, matrix, rows, out, 0);
+    }
+
+    /** Same, writing the scores to {@code out[outOffset..]} (one block of a chunked matrix). */
+    public static void dotMany(float[] query, float[] matrix, int rows, float[] out, int outOffset) {
+        int dim = query.length;
+        if ((long) rows * dim > matrix.length || (long) outOffset + rows > out.length) {
+            throw new IllegalArgumentException("Matrix holds " + matrix.length / Math.max(1, dim) + " rows, asked for " + rows);
+        }
+        KERNEL.dotMany(query, matrix, rows, out, outOffset);
+    }
+
+    /**
+     * Symmetric int8 quantization of {@code v} into {@code codes[offset..]}: codes are
+     * round(v / scale) in [-127, 127]. Returns the scale (1 for a zero vector).
+     */
+    public static float quantize(float[] v, byte[] codes, int offset) {
+        float max = 0;
+        for (float x : v) max = Math.max(max, Math.abs(x));
+        if (max == 0) {
+            Arrays.fill(codes, offset, offset + v.length, (byte) 0);
+            return 1f;
+        }
+        float scale = max / 127f;
+        float inv = 127f / max;
+        for (int i = 0; i < v.length; i++) codes[offset + i] = (byte) Math.round(v[i] * inv);
+        return scale;
+    }
+
+    /** Approximate dot product of {@code query} with the int8 row at {@code offset}. */
+    public static float dotQuantized(float[] query, byte[] codes, int offset, float scale) {
+        return scale * KERNEL.dotInt8(query, codes, offset, query.length);
+    }
+
+    /** Approximate dot product of two int8 vectors (used where neither side is float32). */
+    public static float dotQuantized(byte[] a, float aScale, byte[] b, float bScale) {
+        int s = 0;
+        for (int i = 0; i < a.length; i++) s += a[i] * b[i];
+        return s * aScale * bScale;
+    }
+
+    /** {@link #dotMany} over int8 rows with per-row {@code scales}. */
+    public static void dotManyQuantized(float[] query, byte[] codes, float[] scales, int rows, float[] out) {
+        dotManyQuantized(query, codes, scales, rows, out, 0);
+    }
+
+    /** Same, writing the scores to {@code out[outOffset..]}. */
+    public static void dotManyQuantized(float[] query, byte[] codes, float[] scales, int rows, float[] out, int outOffset) {
+        int dim = query.length;
+        if ((long) rows * dim > codes.length || scales.length < rows || (long) outOffset + rows > out.length) {
+            throw new IllegalArgumentException("Matrix holds " + codes.length / Math.max(1, dim) + " rows, asked for " + rows);
+        }
+        for (int r = 0, off = 0; r < rows; r++, off += dim) {
+            out[outOffset + r] = scales[r] * KERNEL.dotInt8(query, codes, off, dim);
+        }
+    }
+
+    /** Copy scaled to unit length (a zero vector stays zero). */
+    public static float[] normalized(double[] v) {
+        double s = 0;
+        for (double x : v) s += x * x;
+        double inv = s > 0 ? 1.0 / Math.sqrt(s) : 0;
+        float[] out = new float[v.length];
+        for (int i = 0; i < v.length; i++) out[i] = (float) (v[i] * inv);
+        return out;
+    }
+
+    public static float[] normalized(float[] v) {
+        double s = 0;
+        for (float x : v) s += (double) x * x;
+        double inv = s > 0 ? 1.0 / Math.sqrt(s) : 0;
+        float[] out = new float[v.length];
+        for (int i = 0; i < v.length; i++) out[i] = (float) (v[i] * inv);
+        return out;
+    }
+
+    /** "vector-api" or "scalar". */
+    public static String kernelName() { return KERNEL.name(); }
+
+    private static DotKernel loadKernel() {
+        if (Boolean.parseBoolean(System.getProperty("fakenews.vector-api", "true"))) {
+            try {
+                return (DotKernel) Class.forName(SIMD_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // not compiled in, or jdk.incubator.vector not added to the JVM
+            }
+        }
+        return new ScalarDotKernel();
+    }
+
+    /** Four independent accumulators let the JIT overlap the multiply-adds. */
+    static final class ScalarDotKernel extends DotKernel {
+        @Override
+        String name() { return "scalar"; }
+
+        @Override
+        float dot(float[] a, int aOff, float[] b, int bOff, int len) {
+            float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+            int i = 0;
+            for (int bound = len & ~3; i < bound; i += 4) {
+                s0 += a[aOff + i]     * b[bOff + i];
+                s1 += a[aOff + i + 1] * b[bOff + i + 1];
+                s2 += a[aOff + i + 2] * b[bOff + i + 2];
+                s3 += a[aOff + i + 3] * b[bOff + i + 3];
+            }
+            for (; i < len; i++) s0 += a[aOff + i] * b[bOff + i];
+            return (s0 + s1) + (s2 + s3);
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.fakenews.datastructures;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical Navigable Small World graph for approximate nearest-neighbour search
+ * over L2-normalized float32 vectors (similarity = dot product = cosine, see {@link FloatVectors}).
+ * Notes:
+ * - Inserts are serialized by a writer lock; searches never lock and may run concurrently
+ *   with inserts. Neighbour lists are immutable int[] replaced copy-on-write, so a reader
+ *   always sees a complete list (either before or after an insert touched it).
+ * - Keys are unique: re-inserting an existing key is a no-op.
+ * - {@link #remove} tombstones a node: it leaves the results at once but still routes searches.
+ *   Once tombstones are half the graph, the live nodes are re-linked into a fresh graph (keeping
+ *   their stored form) that replaces the old one in a single step, so removed vectors are freed
+ *   at an amortized O(log n * M) per removal. Searches in flight finish on the old graph.
+ * - Query cost is roughly O(log n * M) instead of a linear scan over every vector.
+ * - Quantized mode keeps each vector as int8 + one scale (a quarter of float32); queries stay
+ *   float32, so similarities are approximate (~1e-2) and callers should re-rank what matters.
+ *   Given a {@link MappedFloatVectors}, the float32 originals are kept there (off-heap) and
+ *   {@link #exactSimilarity} re-ranks from them.
+ */
+public class HnswIndex {
+    public static final int DEFAULT_M = 16;
+    public static final int DEFAULT_EF_CONSTRUCTION = 100;
+    public static final int DEFAULT_EF_SEARCH = 64;
+
+    private static final int[] NO_LINKS = new int[0];
+
+    private final int m;              // max links per node on upper layers
+    private final int maxM0;          // max links per node on layer 0
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMult;
+    private final boolean quantized;
+    private final MappedFloatVectors exact;   // float32 originals of quantized nodes, may be null
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Graph graph = new Graph();
+
+    public HnswIndex() {
+        this(DEFAULT_M, DEFAULT_EF_CONSTRUCTION, DEFAULT_EF_SEARCH);
+    }
+
+    public HnswIndex(int m, int efConstruction, int efSearch) {
+        this(m, efConstruction, efSearch, false);
+    }
+
+    public HnswIndex(int m, int efConstruction, int efSearch, boolean quantized) {
+        this(m, efConstruction, efSearch, quantized, null);
+    }
+
+    /** Quantized index whose float32 originals go to {@code exact} (shared stores are fine). */
+    public HnswIndex(int m, int efConstruction, int efSearch, MappedFloatVectors exact) {
+        this(m, efConstruction, efSearch, true, exact);
+    }
+
+    private HnswIndex(int m, int efConstruction, int efSearch, boolean quantized, MappedFloatVectors exact) {
+        this.quantized = quantized;
+        this.exact = quantized ? exact : null;
+        this.m = Math.max(2, m);
+        this.maxM0 = this.m * 2;
+        this.efConstruction = Math.max(this.m, efConstruction);
+        this.efSearch = Math.max(1, efSearch);
+        this.levelMult = 1.0 / Math.log(this.m);
+    }
+
+    // ---- writes ----
+
+    /** Adds a vector under {@code key}. Returns false if the key is already indexed. */
+    public boolean insert(String key, float[] vector) {
+        writeLock.lock();
+        try {
+            Graph g = graph;
+            if (g.keyToNode.containsKey(key)) return false;
+            Node node = quantized
+                    ? Node.quantized(key, vector, exact != null ? exact.add(vector) : -1, randomLevel())
+                    : new Node(key, vector, randomLevel());
+            link(g, node, vector);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Drops {@code key} from the results (see the class notes). Returns false if it is not indexed. */
+    public boolean remove(String key) {
+        writeLock.lock();
+        try {
+            Graph g = graph;
+            Integer idx = g.keyToNode.remove(key);
+            if (idx == null) return false;
+            g.nodeAt(idx).deleted = true;
+            g.deleted++;
+            if (g.deleted * 2 >= g.size) graph = rebuilt(g);   // removed nodes never outnumber live ones
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Links {@code node} into {@code g}, searching with {@code vector} (writeLock held). */
+    private void link(Graph g, Node node, float[] vector) {
+        int idx = g.size;
+        g.store(idx, node);
+
+        EntryPoint ep = g.entry;
+        if (ep == null) {
+            g.publish(node.key, idx);
+            g.entry = new EntryPoint(idx, node.level());
+            return;
+        }
+
+        int cur = ep.node;
+        for (int l = ep.level; l > node.level(); l--) {
+            cur = greedyClosest(g, vector, cur, l);
+        }
+        for (int l = Math.min(node.level(), ep.level); l >= 0; l--) {
+            List<Candidate> found = searchLayer(g, vector, cur, efConstruction, l);
+            int[] links = closest(found, l == 0 ? maxM0 : m);
+            node.links.set(l, links);
+            for (int nb : links) backLink(g, nb, idx, l);
+            cur = found.get(0).node;
+        }
+
+        g.publish(node.key, idx);
+        if (node.level() > ep.level) g.entry = new EntryPoint(idx, node.level());
+    }
+
+    /** A new graph of the live nodes of {@code old}, each keeping its stored vector and level. */
+    private Graph rebuilt(Graph old) {
+        Graph g = new Graph();
+        for (int i = 0; i < old.size; i++) {
+            Node n = old.nodeAt(i);
+            if (n.deleted) continue;
+            link(g, n.unlinked(), n.vector != null ? n.vector : decoded(n));
+        }
+        return g;
+    }
+
+    /** Float32 form of a quantized node: its original when kept, else the int8 values scaled back. */
+    private float[] decoded(Node n) {
+        if (n.exactRow >= 0) return exact.get(n.exactRow);
+        float[] v = new float[n.codes.length];
+        for (int i = 0; i < v.length; i++) v[i] = n.codes[i] * n.scale;
+        return v;
+    }
+
+    // ---- reads ----
+
+    /** Approximate top-k by descending similarity. Safe to call while inserts are running. */
+    public List<Neighbor> search(float[] query, int k) {
+        Graph g = graph;
+        EntryPoint ep = g.entry;
+        if (ep == null || k <= 0) return Collections.emptyList();
+
+        int cur = ep.node;
+        for (int l = ep.level; l > 0; l--) {
+            cur = greedyClosest(g, query, cur, l);
+        }
+        List<Candidate> found = searchLayer(g, query, cur, Math.max(efSearch, k), 0);
+
+        List<Neighbor> out = new ArrayList<>(Math.min(k, found.size()));
+        for (int i = 0; i < found.size() && out.size() < k; i++) {
+            Candidate c = found.get(i);
+            Node n = g.nodeAt(c.node);
+            if (!n.deleted) out.add(new Neighbor(n.key, c.similarity));
+        }
+        return out;
+    }
+
+    /**
+     * Similarity of {@code query} to the vector stored under {@code key}: exact for float32 nodes
+     * and for quantized nodes with a full-precision copy, approximate otherwise; NaN if absent.
+     */
+    public double exactSimilarity(float[] query, String key) {
+        Graph g = graph;
+        Integer idx = g.keyToNode.get(key);
+        if (idx == null) return Double.NaN;
+        Node n = g.nodeAt(idx);
+        return n.exactRow >= 0 ? exact.dot(query, n.exactRow) : similarity(query, n);
+    }
+
+    public boolean contains(String key) { return graph.keyToNode.containsKey(key); }
+
+    /** Keys currently indexed. */
+    public int size() { return graph.keyToNode.size(); }
+
+    /** Nodes held, including removed ones not yet rebuilt away. */
+    public int nodeCount() { return graph.size; }
+
+    // ---- internals ----
+
+    private int randomLevel() {
+        double u = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        return (int) Math.floor(-Math.log(u) * levelMult);
+    }
+
+    private int greedyClosest(Graph g, float[] query, int start, int level) {
+        int best = start;
+        double bestSim = similarity(query, g.nodeAt(start));
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int nb : linksOf(g.nodeAt(best), level)) {
+                Node n = g.nodeAt(nb);
+                if (n == null) continue;
+                double sim = similarity(query, n);
+                if (sim > bestSim) {
+                    bestSim = sim;
+                    best = nb;
+                    improved = true;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Beam search on one layer; returns up to ef candidates sorted by descending similarity. */
+    private List<Candidate> searchLayer(Graph g, float[] query, int start, int ef, int level) {
+        Set<Integer> visited = new HashSet<>();
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>((a, b) -> Double.compare(b.similarity, a.similarity));
+        PriorityQueue<Candidate> best = new PriorityQueue<>((a, b) -> Double.compare(a.similarity, b.similarity));
+
+        Candidate first = new Candidate(start, similarity(query, g.nodeAt(start)));
+        visited.add(start);
+        frontier.add(first);
+        best.add(first);
+
+        while (!frontier.isEmpty()) {
+            Candidate c = frontier.poll();
+            if (best.size() >= ef && c.similarity < best.peek().similarity) break;
+
+            for (int nb : linksOf(g.nodeAt(c.node), level)) {
+                if (!visited.add(nb)) continue;
+                Node n = g.nodeAt(nb);
+                if (n == null) continue;
+                double sim = similarity(query, n);
+                if (best.size() < ef || sim > best.peek().similarity) {
+                    Candidate cand = new Candidate(nb, sim);
+                    frontier.add(cand);
+                    best.add(cand);
+                    if (best.size() > ef) best.poll();
+                }
+            }
+        }
+
+        List<Candidate> out = new ArrayList<>(best);
+        out.sort((a, b) -> Double.compare(b.similarity, a.similarity));
+        return out;
+    }
+
+    private static int[] closest(List<Candidate> sortedDesc, int max) {
+        int n = Math.min(max, sortedDesc.size());
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) out[i] = sortedDesc.get(i).node;
+        return out;
+    }
+
+    /** Adds a back-link nb -> idx, pruning nb's list to its closest neighbours when full. */
+    private void backLink(Graph g, int nb, int idx, int level) {
+        Node owner = g.nodeAt(nb);
+        int[] cur = owner.links.get(level);
+        int max = level == 0 ? maxM0 : m;
+        if (cur.length < max) {
+            int[] grown = Arrays.copyOf(cur, cur.length + 1);
+            grown[cur.length] = idx;
+            owner.links.set(level, grown);
+            return;
+        }
+        List<Candidate> all = new ArrayList<>(cur.length + 1);
+        for (int x : cur) all.add(new Candidate(x, similarity(owner, g.nodeAt(x))));
+        all.add(new Candidate(idx, similarity(owner, g.nodeAt(idx))));
+        all.sort((a, b) -> Double.compare(b.similarity, a.similarity));
+        owner.links.set(level, closest(all, max));
+    }
+
+    private static int[] linksOf(Node n, int level) {
+        return n == null || level > n.level() ? NO_LINKS : n.links.get(level);
+    }
+
+    private static double similarity(float[] query, Node n) {
+        return n.vector != null
+                ? FloatVectors.dot(query, n.vector)
+                : FloatVectors.dotQuantized(query, n.codes, 0, n.scale);
+    }
+
+    private static double similarity(Node a, Node b) {
+        if (a.vector != null) return similarity(a.vector, b);
+        if (b.vector != null) return similarity(b.vector, a);
+        return FloatVectors.dotQuantized(a.codes, a.scale, b.codes, b.scale);
+    }
+
+    // ---- graph, nodes + dto ----
+
+    /** Node table, key map and entry point of one graph; a rebuild replaces all of them at once. */
+    static final class Graph {
+        final Map<String, Integer> keyToNode = new ConcurrentHashMap<>();
+        volatile Node[] nodes = new Node[16];
+        volatile int size;
+        volatile EntryPoint entry;
+        int deleted;   // guarded by writeLock
+
+        void store(int idx, Node node) {
+            Node[] arr = nodes;
+            if (idx >= arr.length) {
+                arr = Arrays.copyOf(arr, arr.length * 2);
+                nodes = arr;
+            }
+            arr[idx] = node;
+        }
+
+        void publish(String key, int idx) {
+            keyToNode.put(key, idx);
+            size = idx + 1;
+        }
+
+        /** Reads the current node table each time so links to freshly inserted nodes resolve. */
+        Node nodeAt(int idx) {
+            Node[] arr = nodes;
+            return idx < arr.length ? arr[idx] : null;
+        }
+    }
+
+    static final class Node {
+        final String key;
+        final float[] vector;  // null when quantized
+        final byte[] codes;    // int8 components, null unless quantized
+        final float scale;
+        final int exactRow;    // row of the float32 original in the index's MappedFloatVectors, or -1
+        final AtomicReferenceArray<int[]> links; // one immutable list per layer
+        volatile boolean deleted;
+
+        Node(String key, float[] vector, int level) {
+            this(key, vector, null, 0f, -1, level);
+        }
+
+        private Node(String key, float[] vector, byte[] codes, float scale, int exactRow, int level) {
+            this.key = key;
+            this.vector = vector;
+            this.codes = codes;
+            this.scale = scale;
+            this.exactRow = exactRow;
+            this.links = new AtomicReferenceArray<>(level + 1);
+            for (int l = 0; l <= level; l++) links.set(l, NO_LINKS);
+        }
+
+        static Node quantized(String key, float[] vector, int exactRow, int level) {
+            byte[] codes = new byte[vector.length];
+            float scale = FloatVectors.quantize(vector, codes, 0);
+            return new Node(key, null, codes, scale, exactRow, level);
+        }
+
+        /** Same key, stored vector and level, without links. */
+        Node unlinked() {
+            return new Node(key, vector, codes, scale, exactRow, level());
+        }
+
+        int level() { return links.length() - 1; }
+    }
+
+    static final class EntryPoint {
+        final int node;
+        final int level;
+        EntryPoint(int node, int level) { this.node = node; this.level = level; }
+    }
+
+    static final class Candidate {
+        final int node;
+        final double similarity;
+        Candidate(int node, double similarity) { this.node = node; this.similarity = similarity; }
+    }
+
+    public static class Neighbor {
+        private final String key;
+        private final double similarity;
+        public Neighbor(String key, double similarity) { this.key = key; this.similarity = similarity; }
+        public String getKey() { return key; }
+        public double getSimilarity() { return similarity; }
+    }
+}
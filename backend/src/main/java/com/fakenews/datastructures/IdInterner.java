@@ -0,0 +1,107 @@
+package com.fakenews.datastructures;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only table mapping string ids to dense int handles (0, 1, 2, ...).
+ * Notes:
+ * - Ids are stored as UTF-8 in one byte arena with an offset per handle, and looked up
+ *   through an open-addressing table of handles: no String, entry or boxed objects per id.
+ *   A 36-char UUID costs ~50 bytes instead of ~150 in a HashMap<String, Integer>.
+ * - Handles are never released; callers that forget ids simply stop using the handle.
+ * - Not thread-safe: callers synchronize.
+ */
+public class IdInterner {
+    private static final int EMPTY = -1;
+
+    private byte[] arena = new byte[1024];
+    private int arenaSize;
+    private int[] offsets = new int[65];  // handle h spans offsets[h] .. offsets[h + 1]
+    private int[] hashes = new int[64];   // per handle, avoids re-hashing on resize
+    private int count;
+    private int[] table = newTable(128);  // handle per slot, EMPTY if free
+
+    /** Handle for {@code id}, assigning the next one if it is new. */
+    public int intern(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+        int slot = find(key, hash);
+        if (table[slot] != EMPTY) return table[slot];
+
+        int handle = count++;
+        ensureCapacity(handle, key.length);
+        System.arraycopy(key, 0, arena, arenaSize, key.length);
+        arenaSize += key.length;
+        offsets[handle + 1] = arenaSize;
+        hashes[handle] = hash;
+        table[slot] = handle;
+        if (count * 2 > table.length) rehash(table.length * 2);
+        return handle;
+    }
+
+    /** Handle for {@code id}, or -1 if it was never interned. */
+    public int lookup(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        return table[find(key, hash(key))];
+    }
+
+    public String idOf(int handle) {
+        if (handle < 0 || handle >= count) throw new IndexOutOfBoundsException("handle " + handle);
+        return new String(arena, offsets[handle], offsets[handle + 1] - offsets[handle], StandardCharsets.UTF_8);
+    }
+
+    public int size() { return count; }
+
+    /** Approximate bytes held by the arena and index arrays. */
+    public long bytes() {
+        return arena.length + 4L * (offsets.length + hashes.length + table.length);
+    }
+
+    // ---- internals ----
+
+    private int find(byte[] key, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            int h = table[slot];
+            if (h == EMPTY || (hashes[h] == hash && matches(h, key))) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean matches(int handle, byte[] key) {
+        int from = offsets[handle], to = offsets[handle + 1];
+        return Arrays.equals(arena, from, to, key, 0, key.length);
+    }
+
+    private void ensureCapacity(int handle, int bytes) {
+        if (arenaSize + bytes > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + bytes));
+        }
+        if (handle + 2 > offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        if (handle >= hashes.length) hashes = Arrays.copyOf(hashes, hashes.length * 2);
+    }
+
+    private void rehash(int capacity) {
+        int[] next = newTable(capacity);
+        int mask = capacity - 1;
+        for (int h = 0; h < count; h++) {
+            int slot = hashes[h] & mask;
+            while (next[slot] != EMPTY) slot = (slot + 1) & mask;
+            next[slot] = h;
+        }
+        table = next;
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] t = new int[capacity];
+        Arrays.fill(t, EMPTY);
+        return t;
+    }
+
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,128 @@
+package com.fakenews.datastructures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only float32 vectors in a memory-mapped temp file: the full-precision copies kept next
+ * to int8 codes ({@link HnswIndex}, the evidence matrix) so that re-ranking never re-runs the model.
+ * Notes:
+ * - Off-heap: the OS pages rows in when a re-rank touches them and can drop them under pressure,
+ *   so only the handful of re-ranked rows per query is resident, not the whole set.
+ * - The file grows in fixed-size mapped chunks (a row never spans two); the dimension is fixed
+ *   by the first append.
+ * - Appends are serialized; reads never lock. A row index must be published by the caller
+ *   (e.g. through a concurrent map) after {@link #add} returns, which makes the row visible.
+ * - {@link #close()} deletes the file; the mapping itself is released by the GC.
+ */
+public class MappedFloatVectors implements AutoCloseable {
+    private static final long CHUNK_BYTES = 8L << 20;
+
+    private final Path directory;
+    private FileChannel channel;        // guarded by this
+    private Path file;                  // guarded by this
+    private volatile int dim = -1;
+    private volatile int rowsPerChunk;
+    private volatile FloatBuffer[] chunks = new FloatBuffer[0];
+    private volatile int rows;
+    private boolean closed;             // guarded by this
+
+    public MappedFloatVectors() {
+        this(null);
+    }
+
+    /** Creates the backing file under {@code directory} (the temp dir when null) on first append. */
+    public MappedFloatVectors(Path directory) {
+        this.directory = directory != null ? directory : defaultDirectory();
+    }
+
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "fakenews-vectors");
+    }
+
+    /** Appends a copy of {@code v} and returns its row. */
+    public synchronized int add(float[] v) {
+        if (closed) throw new IllegalStateException("vector store closed");
+        if (dim < 0) {
+            rowsPerChunk = (int) Math.max(1, CHUNK_BYTES / ((long) v.length * Float.BYTES));
+            dim = v.length;
+        } else if (v.length != dim) {
+            throw new IllegalArgumentException("Expected dimension " + dim + ", got " + v.length);
+        }
+        int row = rows;
+        int chunk = row / rowsPerChunk;
+        if (chunk == chunks.length) grow();
+        FloatBuffer buf = chunks[chunk];
+        int off = (row % rowsPerChunk) * dim;
+        for (int i = 0; i < dim; i++) buf.put(off + i, v[i]);
+        rows = row + 1;
+        return row;
+    }
+
+    /** Dot product of {@code query} with {@code row}. */
+    public float dot(float[] query, int row) {
+        FloatBuffer buf = chunks[row / rowsPerChunk];
+        int off = (row % rowsPerChunk) * dim;
+        float sum = 0f;
+        for (int i = 0; i < query.length; i++) sum += query[i] * buf.get(off + i);
+        return sum;
+    }
+
+    /** Copy of {@code row}. */
+    public float[] get(int row) {
+        FloatBuffer buf = chunks[row / rowsPerChunk];
+        int off = (row % rowsPerChunk) * dim;
+        float[] out = new float[dim];
+        for (int i = 0; i < dim; i++) out[i] = buf.get(off + i);
+        return out;
+    }
+
+    public int rows() { return rows; }
+    public int dimension() { return Math.max(0, dim); }
+
+    /** Bytes of the backing file (mapped, not necessarily resident). */
+    public long bytes() {
+        return (long) chunks.length * rowsPerChunk * Math.max(0, dim) * Float.BYTES;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        chunks = new FloatBuffer[0];
+        if (channel == null) return;
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.out.println("Vector store: failed to remove " + file + ": " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    private void grow() {
+        try {
+            if (channel == null) {
+                Files.createDirectories(directory);
+                file = Files.createTempFile(directory, "vectors-", ".f32");
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            FloatBuffer[] cur = chunks;
+            long chunkBytes = (long) rowsPerChunk * dim * Float.BYTES;
+            FloatBuffer next = channel.map(FileChannel.MapMode.READ_WRITE, cur.length * chunkBytes, chunkBytes)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+            FloatBuffer[] grown = Arrays.copyOf(cur, cur.length + 1);
+            grown[cur.length] = next;
+            chunks = grown;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Growing vector store " + file, e);
+        }
+    }
+}
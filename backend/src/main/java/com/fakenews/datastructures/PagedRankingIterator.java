@@ -0,0 +1,47 @@
+package com.fakenews.datastructures;
+
+import java.util.*;
+
+/**
+ * Lazy descending walk over a ranking that can only answer {@link CredibilityRanking#topK}:
+ * asks for pages of 1, 2, 4, ... entries and hands out the part not yet seen, so drawing j
+ * entries costs O(j log j) amortized however large the ranking is.
+ * Entries re-ranked between pages may be missed; none is returned twice.
+ */
+final class PagedRankingIterator implements Iterator<CredibilityRanking.Entry> {
+    private final CredibilityRanking ranking;
+    private final Set<String> returned = new HashSet<>();
+    private List<CredibilityRanking.Entry> page = Collections.emptyList();
+    private int requested;   // size asked for the current page
+    private int pos;
+    private CredibilityRanking.Entry next;
+
+    PagedRankingIterator(CredibilityRanking ranking) {
+        this.ranking = ranking;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (pos == page.size()) {
+                if (page.size() < requested) return false;   // a short page was the last one
+                int seen = page.size();
+                requested = requested == 0 ? 1 : (int) Math.min(Integer.MAX_VALUE, requested * 2L);
+                page = ranking.topK(requested);
+                pos = Math.min(seen, page.size());
+                continue;
+            }
+            CredibilityRanking.Entry e = page.get(pos++);
+            if (returned.add(e.getArticleId())) next = e;
+        }
+        return true;
+    }
+
+    @Override
+    public CredibilityRanking.Entry next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        CredibilityRanking.Entry e = next;
+        next = null;
+        return e;
+    }
+}
@@ -0,0 +1,296 @@
+package com.fakenews.datastructures;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Registrable domains ("eTLD+1") per the Public Suffix List: news.bbc.co.uk -> bbc.co.uk,
+ * user.github.io -> user.github.io, www.reuters.com -> reuters.com.
+ * Notes:
+ * - The rules are compiled into a reversed-label automaton (uk -> co), flattened in breadth-first
+ *   order like {@link CompactDomainIndex}: a node's children are contiguous and sorted; a label
+ *   step is a binary search over them, or one hash probe under wide nodes (the root's TLDs).
+ * - {@link #registrableStart(CharSequence, int, int)} walks the host right to left straight out of
+ *   the caller's text (case-insensitive): one pass, no substring, nothing allocated.
+ * - PSL semantics: the longest matching rule wins, "*.x" matches any one label under x,
+ *   "!a.x" exceptions beat wildcards, and an unlisted TLD counts as a suffix (default rule "*").
+ * - IP literals have no registrable domain; they are returned whole.
+ * - The bundled list is the full upstream file, kept verbatim so it can be refreshed by copying
+ *   a new release over it. Its internationalized rules (written in Unicode) are compiled to
+ *   punycode, the form hosts arrive in.
+ */
+public final class PublicSuffixList {
+    /** Classpath location of the bundled list (Mozilla PSL format). */
+    public static final String BUNDLED_RESOURCE = "/public_suffix_list.dat";
+
+    private static final byte RULE = 1;        // the path to this node is a suffix
+    private static final byte WILDCARD = 2;    // "*." + path: any one label below is a suffix
+    private static final byte EXCEPTION = 4;   // "!" + path: not a suffix, despite a wildcard
+    // children above this count get an open-addressed table of child ids (load <= 1/2)
+    private static final int HASHED_FANOUT = 8;
+
+    private final char[] labels;      // pooled label characters (lowercase)
+    private final int[] labelOff;
+    private final int[] labelLen;
+    private final int[] firstChild;   // children are [firstChild, firstChild + childCount), sorted
+    private final int[] childCount;
+    private final byte[] flags;
+    private final int[] hash;         // String.hashCode of the label
+    private final int[] tableOff;     // wide nodes: offset of an open-addressed table in slots, else -1
+    private final int[] slots;        // child id + 1 (0 = empty)
+    private final int rules;
+
+    private PublicSuffixList(Map<String, Byte> compiled, int rules) {
+        // temporary tree keyed by reversed label path ("uk\u0001co"), laid out breadth-first
+        Map<String, NavigableSet<String>> children = new HashMap<>();
+        for (String path : compiled.keySet()) {
+            String parent = "";
+            for (String label : path.split("\u0001")) {
+                String child = parent.isEmpty() ? label : parent + "\u0001" + label;
+                children.computeIfAbsent(parent, k -> new TreeSet<>(Comparator.comparing(PublicSuffixList::lastLabel)))
+                        .add(child);
+                parent = child;
+            }
+        }
+        List<String> order = new ArrayList<>();
+        order.add("");
+        for (int i = 0; i < order.size(); i++) {
+            order.addAll(children.getOrDefault(order.get(i), Collections.emptyNavigableSet()));
+        }
+
+        int n = order.size();
+        this.labelOff = new int[n];
+        this.labelLen = new int[n];
+        this.firstChild = new int[n];
+        this.childCount = new int[n];
+        this.flags = new byte[n];
+        StringBuilder pool = new StringBuilder();
+        Map<String, Integer> id = new HashMap<>();
+        for (int i = 0; i < n; i++) id.put(order.get(i), i);
+        for (int i = 0; i < n; i++) {
+            String path = order.get(i);
+            String label = i == 0 ? "" : lastLabel(path);
+            labelOff[i] = pool.length();
+            labelLen[i] = label.length();
+            pool.append(label);
+            NavigableSet<String> kids = children.getOrDefault(path, Collections.emptyNavigableSet());
+            childCount[i] = kids.size();
+            firstChild[i] = kids.isEmpty() ? 0 : id.get(kids.first());
+            flags[i] = compiled.getOrDefault(path, (byte) 0);
+        }
+        this.labels = pool.toString().toCharArray();
+        this.rules = rules;
+
+        this.hash = new int[n];
+        for (int i = 0; i < n; i++) hash[i] = new String(labels, labelOff[i], labelLen[i]).hashCode();
+        this.tableOff = new int[n];
+        int slotCount = 0;
+        for (int i = 0; i < n; i++) {
+            tableOff[i] = childCount[i] > HASHED_FANOUT ? slotCount : -1;
+            if (tableOff[i] >= 0) slotCount += tableSize(childCount[i]);
+        }
+        this.slots = new int[slotCount];
+        for (int i = 0; i < n; i++) {
+            if (tableOff[i] < 0) continue;
+            int mask = tableSize(childCount[i]) - 1;
+            for (int c = firstChild[i]; c < firstChild[i] + childCount[i]; c++) {
+                int slot = spread(hash[c]) & mask;
+                while (slots[tableOff[i] + slot] != 0) slot = (slot + 1) & mask;
+                slots[tableOff[i] + slot] = c + 1;
+            }
+        }
+    }
+
+    // ---- loading ----
+
+    /** The list bundled with the application, loaded once. */
+    public static PublicSuffixList bundled() {
+        return Bundled.INSTANCE;
+    }
+
+    private static final class Bundled {
+        static final PublicSuffixList INSTANCE = loadBundled();
+
+        private static PublicSuffixList loadBundled() {
+            try (InputStream in = PublicSuffixList.class.getResourceAsStream(BUNDLED_RESOURCE)) {
+                if (in == null) throw new IllegalStateException("Public suffix list " + BUNDLED_RESOURCE + " is not on the classpath");
+                return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Reading " + BUNDLED_RESOURCE, e);
+            }
+        }
+    }
+
+    /** Parses a list in PSL format (the first token of each non-comment line is a rule). */
+    public static PublicSuffixList parse(Reader reader) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader r = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        for (String line; (line = r.readLine()) != null; ) lines.add(line);
+        return parse(lines);
+    }
+
+    public static PublicSuffixList parse(Iterable<String> lines) {
+        Map<String, Byte> compiled = new HashMap<>();
+        int rules = 0;
+        for (String line : lines) {
+            String rule = line.strip();
+            if (rule.isEmpty() || rule.startsWith("//")) continue;
+            int space = indexOfWhitespace(rule);
+            if (space >= 0) rule = rule.substring(0, space);
+            rule = rule.toLowerCase(Locale.ROOT);
+
+            byte flag = RULE;
+            if (rule.startsWith("!")) {
+                flag = EXCEPTION;
+                rule = rule.substring(1);
+            } else if (rule.startsWith("*.")) {
+                flag = WILDCARD;
+                rule = rule.substring(2);
+            }
+            if (rule.isEmpty() || rule.contains("*")) continue;   // only leading wildcards exist in the PSL
+            if (!isAscii(rule)) {
+                try {
+                    rule = IDN.toASCII(rule, IDN.ALLOW_UNASSIGNED).toLowerCase(Locale.ROOT);
+                } catch (IllegalArgumentException e) {
+                    continue;   // not a valid IDN: no host can match it
+                }
+            }
+
+            String[] parts = rule.split("\\.");
+            StringBuilder path = new StringBuilder();
+            for (int i = parts.length - 1; i >= 0; i--) {
+                if (path.length() > 0) path.append('\u0001');
+                path.append(parts[i]);
+            }
+            compiled.merge(path.toString(), flag, (a, b) -> (byte) (a | b));
+            rules++;
+        }
+        return new PublicSuffixList(compiled, rules);
+    }
+
+    // ---- lookups ----
+
+    /**
+     * Start index of the registrable domain of the host in {@code text[from, to)} (no trailing dot),
+     * {@code from} for an IP literal, or -1 when the host is itself a public suffix (e.g. "co.uk").
+     */
+    public int registrableStart(CharSequence text, int from, int to) {
+        if (to <= from) return -1;
+        if (text.charAt(from) == '[' || isDigit(text.charAt(to - 1))) return from;   // IPv6 / IPv4 (no TLD ends in a digit)
+
+        int suffixStart = to + 1;   // where the matched public suffix begins
+        int node = 0;
+        int end = to;
+        while (end > from) {
+            int start = end;
+            while (start > from && text.charAt(start - 1) != '.') start--;
+            boolean wildcard = (flags[node] & WILDCARD) != 0;
+            int child = child(node, text, start, end);
+            if (child >= 0 && (flags[child] & EXCEPTION) != 0) {
+                suffixStart = end + 1;   // the exception's parent is the suffix
+                break;
+            }
+            if (wildcard || node == 0) suffixStart = start;   // node 0: default rule "*"
+            if (child < 0) break;
+            if ((flags[child] & RULE) != 0) suffixStart = start;
+            node = child;
+            end = start - 1;
+        }
+        if (suffixStart <= from) return -1;
+
+        // the registrable domain is the suffix plus the label before it
+        int start = suffixStart - 1;
+        while (start > from && text.charAt(start - 1) != '.') start--;
+        return start;
+    }
+
+    /** Lowercased registrable domain of {@code host}; the host itself if it has none. */
+    public String registrableDomain(String host) {
+        int from = 0, to = host.length();
+        while (from < to && Character.isWhitespace(host.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(host.charAt(to - 1))) to--;
+        if (to > from && host.charAt(to - 1) == '.') to--;
+        int start = registrableStart(host, from, to);
+        return host.substring(start < 0 ? from : start, to).toLowerCase(Locale.ROOT);
+    }
+
+    /** Number of rules compiled. */
+    public int size() { return rules; }
+
+    // ---- internals ----
+
+    private int child(int node, CharSequence text, int from, int to) {
+        int table = tableOff[node];
+        if (table >= 0) {
+            int h = labelHash(text, from, to);
+            int mask = tableSize(childCount[node]) - 1;
+            for (int i = spread(h) & mask; ; i = (i + 1) & mask) {
+                int id = slots[table + i] - 1;
+                if (id < 0) return -1;
+                if (hash[id] == h && compare(id, text, from, to) == 0) return id;
+            }
+        }
+        int lo = firstChild[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(mid, text, from, to);
+            if (c < 0) lo = mid + 1;
+            else if (c > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /** Node label vs. the lowercased text region, in String.compareTo order. */
+    private int compare(int node, CharSequence text, int from, int to) {
+        int off = labelOff[node], len = labelLen[node];
+        int n = Math.min(len, to - from);
+        for (int i = 0; i < n; i++) {
+            int d = labels[off + i] - lower(text.charAt(from + i));
+            if (d != 0) return d;
+        }
+        return len - (to - from);
+    }
+
+    /** Same as String.hashCode of the lowercased label, computed in place. */
+    private static int labelHash(CharSequence text, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + lower(text.charAt(i));
+        return h;
+    }
+
+    /** ASCII lowercase: hosts are ASCII (IDNs as punycode). */
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int spread(int h) { return h ^ (h >>> 16); }
+
+    private static int tableSize(int children) {
+        return Integer.highestOneBit(children * 2 - 1) << 1;
+    }
+
+    private static String lastLabel(String path) {
+        return path.substring(path.lastIndexOf('\u0001') + 1);
+    }
+
+    private static int indexOfWhitespace(String s) {
+        for (int i = 0; i < s.length(); i++) if (Character.isWhitespace(s.charAt(i))) return i;
+        return -1;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) if (s.charAt(i) > 0x7F) return false;
+        return true;
+    }
+
+    private static boolean isDigit(char c) { return c >= '0' && c <= '9'; }
+}
@@ -0,0 +1,172 @@
+package com.fakenews.datastructures;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Least-credible rankings over sliding time windows ("worst of the last hour").
+ * Notes:
+ * - Articles fall into fixed-width time buckets by timestamp; each bucket is its own
+ *   {@link CredibilityRanking}. A windowed top-K is a lazy k-way merge: one cursor per covered
+ *   bucket over its {@link CredibilityRanking#descending()} walk, in a heap keyed by the cursor's
+ *   head; only the winning cursor advances. For b buckets that is O(b) to seed the heap plus
+ *   O(log b) per entry taken: O(b + k log b), and at most b + k entries are ever read from the
+ *   buckets (with {@link CredibilityRankIndex} buckets, each read is O(1)). The result does not
+ *   depend on how many articles are ranked.
+ * - Windows are bucket-aligned: a window covers every bucket overlapping [now - window, now],
+ *   so it may include up to one bucket width of older articles.
+ * - Buckets past the retention are dropped whole as time moves: one map removal each, done
+ *   lazily by inserts and queries. Their ids are unlinked later, off the request path; until
+ *   then an id may still name a dropped bucket, which every lookup treats as absent.
+ * - Timestamps older than the retention are not ranked; future timestamps count as now.
+ */
+public class WindowedCredibilityRanking {
+    private final long bucketMillis;
+    private final long retentionMillis;
+    private final Supplier<CredibilityRanking> bucketFactory;
+    private final LongSupplier clock;   // epoch millis
+    private final Executor unlinker;    // unlinks the ids of dropped buckets
+
+    private final ConcurrentSkipListMap<Long, CredibilityRanking> buckets = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Long> bucketOf = new ConcurrentHashMap<>();   // id -> bucket it was ranked in
+
+    public WindowedCredibilityRanking(long bucketMillis, long retentionMillis) {
+        this(bucketMillis, retentionMillis, CredibilityRankIndex::new, System::currentTimeMillis);
+    }
+
+    public WindowedCredibilityRanking(long bucketMillis, long retentionMillis,
+                                      Supplier<CredibilityRanking> bucketFactory, LongSupplier clock) {
+        this(bucketMillis, retentionMillis, bucketFactory, clock, ForkJoinPool.commonPool());
+    }
+
+    public WindowedCredibilityRanking(long bucketMillis, long retentionMillis,
+                                      Supplier<CredibilityRanking> bucketFactory, LongSupplier clock,
+                                      Executor unlinker) {
+        this.bucketMillis = Math.max(1, bucketMillis);
+        this.retentionMillis = Math.max(this.bucketMillis, retentionMillis);
+        this.bucketFactory = bucketFactory;
+        this.clock = clock;
+        this.unlinker = unlinker;
+    }
+
+    /**
+     * Ranks the article in the bucket of {@code timestampMillis}, replacing its previous score
+     * (and bucket, if the timestamp moved). Returns false if the timestamp is past the retention.
+     */
+    public boolean insert(String articleId, double score, long timestampMillis) {
+        long now = clock.getAsLong();
+        expire(now);
+        long ts = Math.min(timestampMillis, now);
+        if (ts < now - retentionMillis) {
+            remove(articleId);
+            return false;
+        }
+        long bucket = Math.floorDiv(ts, bucketMillis);
+        Long ranked = bucketOf.compute(articleId, (id, old) -> {
+            if (old != null && old != bucket) {
+                CredibilityRanking previous = buckets.get(old);
+                if (previous != null) previous.remove(id);
+            }
+            CredibilityRanking ranking = buckets.computeIfAbsent(bucket, b -> bucketFactory.get());
+            ranking.insert(id, score);
+            // a concurrent expire (with a later clock) may have just dropped the bucket; its unlink
+            // pass either already ran or waits for this compute, so don't leave the id behind
+            if (buckets.get(bucket) != ranking) {
+                ranking.remove(id);
+                return null;
+            }
+            return bucket;
+        });
+        return ranked != null;
+    }
+
+    public boolean remove(String articleId) {
+        boolean[] removed = new boolean[1];
+        bucketOf.computeIfPresent(articleId, (id, bucket) -> {
+            CredibilityRanking ranking = buckets.get(bucket);
+            removed[0] = ranking != null && ranking.remove(id);
+            return null;
+        });
+        return removed[0];
+    }
+
+    /** Up to k entries from the last {@code windowMillis} (capped at the retention), most fake first. */
+    public List<CredibilityRanking.Entry> topK(int k, long windowMillis) {
+        if (k <= 0 || windowMillis <= 0) return Collections.emptyList();
+        long now = clock.getAsLong();
+        expire(now);
+        long from = Math.floorDiv(now - Math.min(windowMillis, retentionMillis), bucketMillis);
+
+        List<Cursor> cursors = new ArrayList<>();
+        for (CredibilityRanking bucket : buckets.tailMap(from, true).values()) {
+            Cursor c = new Cursor(bucket.descending());
+            if (c.advance()) cursors.add(c);
+        }
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(cursors);   // heapified in O(b)
+
+        List<CredibilityRanking.Entry> out = new ArrayList<>(Math.min(k, 64));
+        while (out.size() < k && !heads.isEmpty()) {
+            Cursor c = heads.poll();
+            out.add(c.head);
+            if (c.advance()) heads.add(c);
+        }
+        return out;
+    }
+
+    public long getRetentionMillis() { return retentionMillis; }
+
+    /** Articles ranked within the retention (sums the live buckets). */
+    public int size() {
+        expire(clock.getAsLong());
+        int n = 0;
+        for (CredibilityRanking bucket : buckets.values()) n += bucket.size();
+        return n;
+    }
+
+    public int bucketCount() { return buckets.size(); }
+
+    /** Ids linked to a bucket, including those of dropped buckets not yet unlinked. */
+    int linkedIds() { return bucketOf.size(); }
+
+    // ---- internals ----
+
+    private void expire(long now) {
+        long oldest = Math.floorDiv(now - retentionMillis, bucketMillis);
+        Map.Entry<Long, CredibilityRanking> first;
+        while ((first = buckets.firstEntry()) != null && first.getKey() < oldest) {
+            if (buckets.remove(first.getKey(), first.getValue())) {
+                Long bucket = first.getKey();
+                CredibilityRanking dropped = first.getValue();
+                unlinker.execute(() -> {
+                    for (CredibilityRanking.Entry e : dropped.topK(dropped.size())) {
+                        bucketOf.remove(e.getArticleId(), bucket);
+                    }
+                });
+            }
+        }
+    }
+
+    /** A bucket's descending walk and the entry at its front; orders most fake first. */
+    private static final class Cursor implements Comparable<Cursor> {
+        final Iterator<CredibilityRanking.Entry> rest;
+        CredibilityRanking.Entry head;
+
+        Cursor(Iterator<CredibilityRanking.Entry> rest) { this.rest = rest; }
+
+        boolean advance() {
+            if (!rest.hasNext()) return false;
+            head = rest.next();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cursor o) {
+            return Double.compare(o.head.getCredibilityScore(), head.getCredibilityScore());
+        }
+    }
+}
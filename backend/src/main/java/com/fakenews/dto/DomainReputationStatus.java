@@ -0,0 +1,23 @@
+package com.fakenews.dto;
+
+public class DomainReputationStatus {
+    private long version;
+    private int domains;
+    private long builtAtMillis;
+    private long buildMillis;
+    private long failedReloads;
+
+    public DomainReputationStatus(long version, int domains, long builtAtMillis, long buildMillis, long failedReloads) {
+        this.version = version;
+        this.domains = domains;
+        this.builtAtMillis = builtAtMillis;
+        this.buildMillis = buildMillis;
+        this.failedReloads = failedReloads;
+    }
+
+    public long getVersion() { return version; }
+    public int getDomains() { return domains; }
+    public long getBuiltAtMillis() { return builtAtMillis; }
+    public long getBuildMillis() { return buildMillis; }
+    public long getFailedReloads() { return failedReloads; }
+}
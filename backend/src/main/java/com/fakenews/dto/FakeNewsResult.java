@@ -30,6 +30,7 @@ public class FakeNewsResult {
     private String riskIcon;
     private List extractedClaims;
     private UncertaintyDto uncertainty; // NEW: Uncertainty quantification metrics
+    private String duplicateOf; // article id of the earlier analysis this result was served from (null if fresh)
 
     // ===== getters =====
     public String getArticleId() {
@@ -108,6 +109,10 @@ public class FakeNewsResult {
         return uncertainty;
     }
 
+    public String getDuplicateOf() {
+        return duplicateOf;
+    }
+
     // ===== setters =====
     public void setArticleId(String id) {
         this.articleId = id;
@@ -184,4 +189,8 @@ public class FakeNewsResult {
     public void setUncertainty(UncertaintyDto uncertainty) {
         this.uncertainty = uncertainty;
     }
+
+    public void setDuplicateOf(String duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
 }
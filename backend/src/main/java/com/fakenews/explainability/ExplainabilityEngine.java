@@ -1,9 +1,11 @@
 package com.fakenews.explainability;
 
 import com.fakenews.model.Article;
+import com.fakenews.nlp.AnalysisContext;
 import com.fakenews.nlp.RoBERTaModel;
 
 import java.util.*;
+import java.util.regex.Pattern;
 
 /**
  * Generates a human-friendly explanation bundle used by the API and UI.
@@ -14,23 +16,33 @@ public class ExplainabilityEngine {
 
     public ExplainabilityEngine(RoBERTaModel model) { this.model = model; }
 
+    private static final String[] FOCUS_WORDS =
+            {"BREAKING","SHOCKING","UNBELIEVABLE","AMAZING","INCREDIBLE","TERRIFIED","CATASTROPHIC"};
+    private static final Pattern SENSATIONAL =
+            Pattern.compile("(?i)(BREAKING|SHOCKING|UNBELIEVABLE|AMAZING|INCREDIBLE|TERRIFIED|CATASTROPHIC).*");
+
     public ComprehensiveExplanation generateComprehensiveExplanation(Article article) {
+        return generateComprehensiveExplanation(article, model.analyze(article.getContent()));
+    }
+
+    /** Builds the explanation from an already tokenized + classified context (no re-classification). */
+    public ComprehensiveExplanation generateComprehensiveExplanation(Article article, AnalysisContext ctx) {
         // Attention
-        String[] tokens = tokenize(article.getContent());
-        double[] weights = model.classify(article.getContent()).getAttentionWeights();
-        List<TokenAttention> atts = new ArrayList<>();
-        for (int i = 0; i < Math.min(tokens.length, weights.length); i++) {
-            atts.add(new TokenAttention(tokens[i], clamp01(weights[i])));
+        double[] weights = ctx.getAttentionWeights();
+        int n = Math.min(ctx.tokenCount(), weights.length);
+        List<TokenAttention> atts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            atts.add(new TokenAttention(ctx.token(i), clamp01(weights[i])));
         }
         AttentionExplanation attention = new AttentionExplanation(atts);
 
         // LIME-ish top words (fake importance by frequency of hot words)
-        List<WordImportance> top = topWords(article.getContent());
+        List<WordImportance> top = topWords(ctx);
         LIMEExplanation lime = new LIMEExplanation(top);
 
         // Reasons
         List<String> reasons = new ArrayList<>();
-        long hotCount = top.stream().filter(w -> w.word.matches("(?i)(BREAKING|SHOCKING|UNBELIEVABLE|AMAZING|INCREDIBLE|TERRIFIED|CATASTROPHIC).*")).count();
+        long hotCount = top.stream().filter(w -> SENSATIONAL.matcher(w.word).matches()).count();
         if (hotCount >= 2) reasons.add("High use of sensational language");
         if (article.getSource() != null && article.getSource().toLowerCase(Locale.ROOT).contains("clickbait")) reasons.add("Low-credibility source domain");
         if (reasons.isEmpty()) reasons.add("Language and sourcing appear balanced");
@@ -43,18 +55,16 @@ public class ExplainabilityEngine {
         return new ComprehensiveExplanation(nl, reasons, attention, lime);
     }
 
-    private String[] tokenize(String text) {
-        if (text == null || text.isBlank()) return new String[0];
-        return text.trim().split("\\s+");
-    }
-
-    private List<WordImportance> topWords(String content) {
-        if (content == null) return Collections.emptyList();
-        String[] toks = content.toUpperCase(Locale.ROOT).split("\\s+");
-        String[] focus = {"BREAKING","SHOCKING","UNBELIEVABLE","AMAZING","INCREDIBLE","TERRIFIED","CATASTROPHIC"};
-        Set<String> focusSet = new HashSet<>(Arrays.asList(focus));
+    private List<WordImportance> topWords(AnalysisContext ctx) {
         Map<String,Integer> counts = new HashMap<>();
-        for (String t : toks) if (focusSet.stream().anyMatch(t::contains)) counts.put(t, counts.getOrDefault(t, 0)+1);
+        for (int i = 0; i < ctx.tokenCount(); i++) {
+            for (String f : FOCUS_WORDS) {
+                if (ctx.upperTokenContains(i, f)) {
+                    counts.merge(ctx.upperToken(i), 1, Integer::sum);
+                    break;
+                }
+            }
+        }
         List<WordImportance> out = new ArrayList<>();
         for (Map.Entry<String,Integer> e : counts.entrySet()) {
             out.add(new WordImportance(e.getKey(), Math.min(1.0, e.getValue() * 0.15)));
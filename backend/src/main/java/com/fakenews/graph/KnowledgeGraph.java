@@ -1,6 +1,7 @@
 package com.fakenews.graph;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Lightweight in-memory knowledge graph with BFS/DFS/Dijkstra utilities.
@@ -9,39 +10,94 @@ import java.util.*;
  * - Traversals guard unknown start nodes (return empty).
  * - Dijkstra treats edge weight as a COST; pass lower values for "stronger" edges,
  *   or convert strengths to costs (e.g., cost = 1.0 / (epsilon + strength)).
+ * - Thread-safe without a graph-wide lock: nodes live in a ConcurrentHashMap and each node's
+ *   out-edges are an immutable array replaced copy-on-write under the map's per-bin lock.
+ *   Insertions are linearizable (duplicate (to, relationship) edges are still rejected);
+ *   traversals read the current arrays without blocking and never see a half-built list.
+ * - removeNode() also drops the reverse links back to the node, so a graph whose writers add
+ *   both directions (ARTICLE <-> SOURCE) can shed old nodes without dangling edges.
  */
 public class KnowledgeGraph {
 
-    private final Map<String, GraphNode> nodes = new HashMap<>();
-    private final Map<String, List<GraphEdge>> adjacencyList = new HashMap<>();
+    private static final GraphEdge[] NO_EDGES = new GraphEdge[0];
+
+    private final Map<String, GraphNode> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, GraphEdge[]> adjacencyList = new ConcurrentHashMap<>();
 
     // ---- Node / Edge management ------------------------------------------------
 
     public void addNode(String id, String type, Object data) {
         GraphNode node = new GraphNode(id, type, data);
         nodes.put(id, node);
-        adjacencyList.putIfAbsent(id, new ArrayList<>());
+        adjacencyList.putIfAbsent(id, NO_EDGES);
     }
 
     public void addEdge(String from, String to, String relationship, double weight) {
-        adjacencyList.putIfAbsent(from, new ArrayList<>());
-        adjacencyList.putIfAbsent(to, new ArrayList<>()); // makes traversals simpler
-        // (Optional) avoid duplicate edges with same (to, relationship)
-        List<GraphEdge> edges = adjacencyList.get(from);
-        for (GraphEdge e : edges) {
-            if (e.getTo().equals(to) && e.getRelationship().equals(relationship)) {
-                return; // already present
+        adjacencyList.putIfAbsent(to, NO_EDGES); // makes traversals simpler
+        adjacencyList.compute(from, (id, edges) -> {
+            if (edges == null) edges = NO_EDGES;
+            // avoid duplicate edges with same (to, relationship)
+            for (GraphEdge e : edges) {
+                if (e.getTo().equals(to) && e.getRelationship().equals(relationship)) {
+                    return edges; // already present
+                }
             }
+            GraphEdge[] grown = Arrays.copyOf(edges, edges.length + 1);
+            grown[edges.length] = new GraphEdge(from, to, relationship, weight);
+            return grown;
+        });
+    }
+
+    /**
+     * Removes a node and its out-edges, together with the edges back to it from the nodes those
+     * point at (reverse links such as SOURCE -> ARTICLE). Other edges into it are the caller's.
+     * Returns false if the node was not in the graph.
+     */
+    public boolean removeNode(String id) {
+        GraphEdge[] out = adjacencyList.remove(id);
+        boolean present = nodes.remove(id) != null;
+        if (out == null) return present;
+        for (GraphEdge e : out) {
+            adjacencyList.computeIfPresent(e.getTo(), (to, edges) -> without(edges, id));
         }
-        edges.add(new GraphEdge(from, to, relationship, weight));
+        return true;
+    }
+
+    /** Removes a node left with no out-edges (e.g. a SOURCE whose articles are all gone). */
+    public void removeIfIsolated(String id) {
+        adjacencyList.computeIfPresent(id, (k, edges) -> {
+            if (edges.length > 0) return edges;
+            nodes.remove(id);
+            return null;
+        });
+    }
+
+    private static GraphEdge[] without(GraphEdge[] edges, String to) {
+        int kept = 0;
+        for (GraphEdge e : edges) if (!e.getTo().equals(to)) kept++;
+        if (kept == edges.length) return edges;
+        GraphEdge[] out = new GraphEdge[kept];
+        int i = 0;
+        for (GraphEdge e : edges) if (!e.getTo().equals(to)) out[i++] = e;
+        return out;
     }
 
     public GraphNode getNode(String id) {
         return nodes.get(id);
     }
 
+    /** Read-only view of the node's out-edges at the time of the call. */
     public List<GraphEdge> getEdges(String nodeId) {
-        return adjacencyList.getOrDefault(nodeId, Collections.emptyList());
+        GraphEdge[] edges = adjacencyList.get(nodeId);
+        return edges == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(edges));
+    }
+
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    private GraphEdge[] edgesOf(String nodeId) {
+        return adjacencyList.getOrDefault(nodeId, NO_EDGES);
     }
 
     // ---- Traversals ------------------------------------------------------------
@@ -58,7 +114,7 @@ public class KnowledgeGraph {
         while (!q.isEmpty()) {
             String cur = q.poll();
             order.add(cur);
-            for (GraphEdge e : getEdges(cur)) {
+            for (GraphEdge e : edgesOf(cur)) {
                 String v = e.getTo();
                 if (visited.add(v)) q.offer(v);
             }
@@ -78,7 +134,7 @@ public class KnowledgeGraph {
     private void dfsRec(String u, Set<String> visited, List<String> order) {
         visited.add(u);
         order.add(u);
-        for (GraphEdge e : getEdges(u)) {
+        for (GraphEdge e : edgesOf(u)) {
             String v = e.getTo();
             if (!visited.contains(v)) dfsRec(v, visited, order);
         }
@@ -103,9 +159,10 @@ public class KnowledgeGraph {
             NodeDistance cur = pq.poll();
             if (!visited.add(cur.nodeId)) continue;
 
-            for (GraphEdge e : getEdges(cur.nodeId)) {
+            for (GraphEdge e : edgesOf(cur.nodeId)) {
                 double nd = dist.get(cur.nodeId) + e.getWeight();
-                if (nd < dist.get(e.getTo())) {
+                // nodes added after the snapshot above start out unreached
+                if (nd < dist.getOrDefault(e.getTo(), Double.POSITIVE_INFINITY)) {
                     dist.put(e.getTo(), nd);
                     pq.offer(new NodeDistance(e.getTo(), nd));
                 }
@@ -133,7 +190,7 @@ public class KnowledgeGraph {
             NodeDepth cur = q.poll();
             if (cur.depth >= maxDepth) continue;
 
-            for (GraphEdge e : getEdges(cur.nodeId)) {
+            for (GraphEdge e : edgesOf(cur.nodeId)) {
                 String v = e.getTo();
                 if (!visited.add(v)) continue;
 
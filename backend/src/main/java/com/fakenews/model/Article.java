@@ -1,5 +1,7 @@
 package com.fakenews.model;
 
+import com.fakenews.nlp.Embedding;
+
 import java.util.*;
 
 /**
@@ -17,6 +19,7 @@ public class Article {
     private List<String> claims;                   // plain strings (extracted summaries)
     private double credibilityScore;               // final fake-ness score
     private Map<String, Double> featureScores;     // per-feature fake-ness components
+    private volatile Embedding embedding;           // content embedding, computed once at ingest
 
     public Article(String id, String title, String content, String source) {
         this.id = id;
@@ -38,9 +41,12 @@ public class Article {
     public List<String> getClaims() { return claims; }
     public double getCredibilityScore() { return credibilityScore; }
     public Map<String, Double> getFeatureScores() { return featureScores; }
+    public Embedding getEmbedding() { return embedding; }
 
     // Mutators
     public void setCredibilityScore(double score) { this.credibilityScore = clamp01(score); }
+    public void setEmbedding(Embedding embedding) { this.embedding = embedding; }
+    public void setPublishDate(Date publishDate) { this.publishDate = publishDate; }
 
     public void addClaim(String claim) {
         if (claim != null && !claim.isBlank()) this.claims.add(claim);
@@ -0,0 +1,113 @@
+package com.fakenews.nlp;
+
+import java.util.*;
+
+/**
+ * Immutable per-article analysis state, built once by {@link RoBERTaModel#analyze(String)}
+ * and handed to every pipeline stage so the text is tokenized and classified exactly once.
+ * Holds the whitespace tokens with their [start, end) offsets, the upper-cased text,
+ * and the classification result (scores + attention weights).
+ */
+public final class AnalysisContext {
+    private final String text;
+    private final String upper;
+    private final String[] tokens;
+    private final int[] starts;
+    private final int[] ends;
+    private final RoBERTaModel.ClassificationResult classification;
+
+    private AnalysisContext(Tokenized t, RoBERTaModel.ClassificationResult classification) {
+        this.text = t.text;
+        this.upper = t.upper;
+        this.tokens = t.tokens;
+        this.starts = t.starts;
+        this.ends = t.ends;
+        this.classification = classification;
+    }
+
+    static AnalysisContext of(Tokenized t, RoBERTaModel.ClassificationResult classification) {
+        return new AnalysisContext(t, classification);
+    }
+
+    /** Tokenized context with a neutral classification (used when the content stage is unavailable). */
+    public static AnalysisContext unclassified(String text) {
+        Tokenized t = Tokenized.of(text);
+        Map<String, Double> scores = new HashMap<>();
+        scores.put("fake", 0.5);
+        scores.put("real", 0.5);
+        return new AnalysisContext(t, new RoBERTaModel.ClassificationResult(scores, new double[0], t.tokens));
+    }
+
+    public String getText() { return text; }
+    public String getUpper() { return upper; }
+    public int tokenCount() { return tokens.length; }
+    public String token(int i) { return tokens[i]; }
+    public int tokenStart(int i) { return starts[i]; }
+    public int tokenEnd(int i) { return ends[i]; }
+    public RoBERTaModel.ClassificationResult getClassification() { return classification; }
+    public double[] getAttentionWeights() { return classification.getAttentionWeights(); }
+    public double getFakeScore() { return classification.getFakeScore(); }
+
+    /** Upper-cased token i; shares offsets with the original text when case mapping kept the length. */
+    public String upperToken(int i) {
+        return upperAligned() ? upper.substring(starts[i], ends[i]) : tokens[i].toUpperCase(Locale.ROOT);
+    }
+
+    /** True if upper-cased token i contains {@code word} (upper case), without allocating. */
+    public boolean upperTokenContains(int i, String word) {
+        if (!upperAligned()) return tokens[i].toUpperCase(Locale.ROOT).contains(word);
+        int last = ends[i] - word.length();
+        for (int p = starts[i]; p <= last; p++) {
+            if (upper.regionMatches(p, word, 0, word.length())) return true;
+        }
+        return false;
+    }
+
+    private boolean upperAligned() {
+        return upper.length() == text.length();
+    }
+
+    // ---- single-pass whitespace tokenizer (same token boundaries as split("\\s+") after trim) ----
+    static final class Tokenized {
+        final String text;
+        final String upper;
+        final String[] tokens;
+        final int[] starts;
+        final int[] ends;
+
+        private Tokenized(String text, String upper, String[] tokens, int[] starts, int[] ends) {
+            this.text = text; this.upper = upper; this.tokens = tokens; this.starts = starts; this.ends = ends;
+        }
+
+        static Tokenized of(String text) {
+            String t = text == null ? "" : text;
+            int n = t.length();
+            int count = 0;
+            for (int i = 0; i < n; ) {
+                while (i < n && isSpace(t.charAt(i))) i++;
+                if (i == n) break;
+                count++;
+                while (i < n && !isSpace(t.charAt(i))) i++;
+            }
+            String[] tokens = new String[count];
+            int[] starts = new int[count];
+            int[] ends = new int[count];
+            int k = 0;
+            for (int i = 0; i < n; ) {
+                while (i < n && isSpace(t.charAt(i))) i++;
+                if (i == n) break;
+                int s = i;
+                while (i < n && !isSpace(t.charAt(i))) i++;
+                starts[k] = s;
+                ends[k] = i;
+                tokens[k++] = t.substring(s, i);
+            }
+            return new Tokenized(t, t.toUpperCase(Locale.ROOT), tokens, starts, ends);
+        }
+
+        // \s in java.util.regex: [ \t\n\x0B\f\r]
+        private static boolean isSpace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.fakenews.nlp;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 content keys, for caches whose hits are served to other submitters: unlike the 64-bit
+ * {@link ContentHash} keys, two different texts sharing a key is not something that happens by
+ * accident or can be arranged, so a hit never hands one article's verdict to another.
+ * Notes:
+ * - Held as four longs (no byte[] or text retained); equals/hashCode compare all 256 bits.
+ * - {@link #normalized} applies the same normalization as {@link ContentHash#normalized}.
+ * - {@link #of} frames every field with its length (null distinct from ""), so field
+ *   boundaries cannot shift: ("ab", "c") and ("a", "bc") differ.
+ */
+public final class ContentDigest {
+    private static final ThreadLocal<Sha256> SHA = ThreadLocal.withInitial(Sha256::new);
+
+    private final long h0, h1, h2, h3;
+
+    private ContentDigest(byte[] d) {
+        this.h0 = longAt(d, 0);
+        this.h1 = longAt(d, 8);
+        this.h2 = longAt(d, 16);
+        this.h3 = longAt(d, 24);
+    }
+
+    /** Digest of the text after case folding and collapsing non-alphanumeric runs to one separator. */
+    public static ContentDigest normalized(CharSequence text) {
+        Sha256 sha = SHA.get();
+        if (text != null) {
+            boolean pendingSeparator = false, started = false;
+            for (int i = 0, n = text.length(); i < n; i++) {
+                char c = text.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    if (pendingSeparator && started) sha.putChar(' ');
+                    pendingSeparator = false;
+                    started = true;
+                    sha.putChar(Character.toLowerCase(c));
+                } else {
+                    pendingSeparator = true;
+                }
+            }
+        }
+        return sha.finish();
+    }
+
+    /** Digest of the fields exactly as given, each prefixed by its length (-1 for null). */
+    public static ContentDigest of(CharSequence... fields) {
+        Sha256 sha = SHA.get();
+        for (CharSequence f : fields) {
+            sha.putInt(f == null ? -1 : f.length());
+            if (f == null) continue;
+            for (int i = 0, n = f.length(); i < n; i++) sha.putChar(f.charAt(i));
+        }
+        return sha.finish();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ContentDigest)) return false;
+        ContentDigest d = (ContentDigest) o;
+        return h0 == d.h0 && h1 == d.h1 && h2 == d.h2 && h3 == d.h3;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (h0 ^ (h0 >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x%016x%016x", h0, h1, h2, h3);
+    }
+
+    private static long longAt(byte[] b, int off) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) v = (v << 8) | (b[off + i] & 0xFF);
+        return v;
+    }
+
+    /** Per-thread SHA-256 with a small staging buffer, so feeding chars does not allocate. */
+    private static final class Sha256 {
+        private final MessageDigest md;
+        private final byte[] buf = new byte[512];
+        private int pos;
+
+        Sha256() {
+            try {
+                md = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);   // required of every JRE
+            }
+        }
+
+        void putChar(char c) {
+            if (pos + 2 > buf.length) flush();
+            buf[pos++] = (byte) (c >>> 8);
+            buf[pos++] = (byte) c;
+        }
+
+        void putInt(int v) {
+            putChar((char) (v >>> 16));
+            putChar((char) v);
+        }
+
+        ContentDigest finish() {
+            flush();
+            return new ContentDigest(md.digest());   // digest() also resets for the next use
+        }
+
+        private void flush() {
+            md.update(buf, 0, pos);
+            pos = 0;
+        }
+    }
+}
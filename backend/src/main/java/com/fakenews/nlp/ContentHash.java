@@ -0,0 +1,60 @@
+package com.fakenews.nlp;
+
+/**
+ * 64-bit content hashes used as compact cache keys (avoids holding whole article texts as keys).
+ * FNV-1a over UTF-16 chars followed by a murmur-style finalizer for better bit spread.
+ */
+public final class ContentHash {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME  = 0x100000001b3L;
+
+    private ContentHash() {}
+
+    public static long of(CharSequence text) {
+        if (text == null) return 0L;
+        long h = FNV_OFFSET;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            h ^= text.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix(h ^ text.length());
+    }
+
+    /**
+     * Fingerprint of the text after normalization: case-folded, letters/digits only, with every run
+     * of other characters (whitespace, punctuation, markup) collapsed to a single separator.
+     * Re-posts that differ only in spacing, punctuation or case hash identically. Allocation-free.
+     */
+    public static long normalized(CharSequence text) {
+        if (text == null) return 0L;
+        long h = FNV_OFFSET;
+        int len = 0;
+        boolean pendingSeparator = false;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSeparator && len > 0) {
+                    h ^= ' ';
+                    h *= FNV_PRIME;
+                    len++;
+                }
+                pendingSeparator = false;
+                h ^= Character.toLowerCase(c);
+                h *= FNV_PRIME;
+                len++;
+            } else {
+                pendingSeparator = true;
+            }
+        }
+        return mix(h ^ len);
+    }
+
+    static long mix(long h) {
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= (h >>> 33);
+        return h;
+    }
+}
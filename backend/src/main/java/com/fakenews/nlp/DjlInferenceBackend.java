@@ -0,0 +1,128 @@
+package com.fakenews.nlp;
+
+import ai.djl.MalformedModelException;
+import ai.djl.inference.Predictor;
+import ai.djl.modality.Classifications;
+import ai.djl.repository.zoo.Criteria;
+import ai.djl.repository.zoo.ModelNotFoundException;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.TranslateException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * In-process inference with DJL (e.g. an ONNX export of the classifier), loaded from a local path.
+ * Notes:
+ * - Translators (tokenizer + pre/post-processing) are resolved by DJL from the model directory
+ *   (serving.properties / translatorFactory), so the engine and tokenizer jars only need to be
+ *   on the runtime classpath; this class compiles against ai.djl:api alone.
+ * - The classifier must emit {@link Classifications}; the probability of {@code fakeLabel} is the score.
+ * - Embeddings come from a second model when one is configured, otherwise from the heuristic backend.
+ * - DJL predictors are not thread-safe: a fixed pool is shared, one predictor per concurrent call.
+ */
+public class DjlInferenceBackend implements InferenceBackend {
+
+    private final ZooModel<String, Classifications> classifier;
+    private final ZooModel<String, float[]> embedder;   // null = heuristic embeddings
+    private final String fakeLabel;
+    private final BlockingQueue<Predictor<String, Classifications>> classifiers;
+    private final BlockingQueue<Predictor<String, float[]>> embedders;
+    private final HeuristicInferenceBackend fallback = new HeuristicInferenceBackend();
+
+    public DjlInferenceBackend(Path classifierPath, Path embedderPath, String engine, String fakeLabel, int predictors) {
+        this(load(classifierPath, engine, Classifications.class),
+                embedderPath != null ? load(embedderPath, engine, float[].class) : null,
+                fakeLabel, predictors);
+    }
+
+    /** Over already loaded models ({@code embedder} may be null). */
+    DjlInferenceBackend(ZooModel<String, Classifications> classifier, ZooModel<String, float[]> embedder,
+                        String fakeLabel, int predictors) {
+        this.fakeLabel = fakeLabel;
+        int n = Math.max(1, predictors);
+        this.classifier = classifier;
+        this.embedder = embedder;
+        this.classifiers = new ArrayBlockingQueue<>(n);
+        this.embedders = new ArrayBlockingQueue<>(n);
+        for (int i = 0; i < n; i++) {
+            classifiers.add(classifier.newPredictor());
+            if (embedder != null) embedders.add(embedder.newPredictor());
+        }
+    }
+
+    @Override
+    public String name() { return "djl"; }
+
+    @Override
+    public double[] classify(List<String> texts) {
+        List<Classifications> results = predict(classifiers, texts);
+        double[] out = new double[results.size()];
+        for (int i = 0; i < out.length; i++) {
+            Classifications.Classification c = results.get(i).get(fakeLabel);
+            if (c == null) {
+                throw new IllegalStateException("Model output has no class '" + fakeLabel + "': "
+                        + results.get(i).getClassNames());
+            }
+            out[i] = c.getProbability();
+        }
+        return out;
+    }
+
+    @Override
+    public List<double[]> embed(List<String> texts) {
+        if (embedder == null) return fallback.embed(texts);
+        List<float[]> results = predict(embedders, texts);
+        List<double[]> out = new ArrayList<>(results.size());
+        for (float[] f : results) {
+            double[] v = new double[f.length];
+            for (int i = 0; i < f.length; i++) v[i] = f[i];
+            out.add(v);
+        }
+        return out;
+    }
+
+    @Override
+    public void close() {
+        classifiers.forEach(Predictor::close);
+        embedders.forEach(Predictor::close);
+        classifier.close();
+        if (embedder != null) embedder.close();
+    }
+
+    private static <O> ZooModel<String, O> load(Path path, String engine, Class<O> output) {
+        Criteria.Builder<String, O> criteria = Criteria.builder()
+                .setTypes(String.class, output)
+                .optModelPath(path);
+        if (engine != null && !engine.isBlank()) criteria.optEngine(engine);
+        try {
+            return criteria.build().loadModel();
+        } catch (IOException | ModelNotFoundException | MalformedModelException e) {
+            throw new IllegalStateException("Failed to load inference model from " + path, e);
+        }
+    }
+
+    private static <O> List<O> predict(BlockingQueue<Predictor<String, O>> pool, List<String> texts) {
+        List<String> inputs = new ArrayList<>(texts.size());
+        for (String t : texts) inputs.add(t == null ? "" : t);
+
+        Predictor<String, O> p;
+        try {
+            p = pool.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a predictor", e);
+        }
+        try {
+            return p.batchPredict(inputs);
+        } catch (TranslateException e) {
+            throw new IllegalStateException("Inference failed", e);
+        } finally {
+            pool.add(p);
+        }
+    }
+}
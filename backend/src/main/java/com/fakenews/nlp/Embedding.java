@@ -0,0 +1,33 @@
+package com.fakenews.nlp;
+
+import com.fakenews.datastructures.FloatVectors;
+
+/**
+ * Text embedding stored as float32 and normalized to unit length on construction,
+ * so cosine similarity is a single dot product. Immutable; {@link #values()} is shared.
+ */
+public final class Embedding {
+    private final float[] values;
+
+    private Embedding(float[] values) {
+        this.values = values;
+    }
+
+    public static Embedding of(double[] vector) {
+        return new Embedding(FloatVectors.normalized(vector));
+    }
+
+    public static Embedding of(float[] vector) {
+        return new Embedding(FloatVectors.normalized(vector));
+    }
+
+    public int dimension() { return values.length; }
+
+    /** Unit-length components; read-only. */
+    public float[] values() { return values; }
+
+    /** Cosine similarity with {@code other}. */
+    public double similarity(Embedding other) {
+        return FloatVectors.dot(values, other.values);
+    }
+}
@@ -0,0 +1,69 @@
+package com.fakenews.nlp;
+
+import com.fakenews.datastructures.BoundedLruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of text embeddings keyed by a 64-bit content hash (float32, 4 bytes per component).
+ * Evicts least-recently-used vectors once the configured byte budget is exceeded.
+ * Cached vectors are shared: callers must treat them as read-only.
+ */
+public class EmbeddingCache {
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    // array header + key/entry overhead, roughly
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+    private final BoundedLruCache<Long, Embedding> cache;
+
+    public EmbeddingCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public EmbeddingCache(long maxBytes) {
+        this.cache = new BoundedLruCache<>(maxBytes, v -> ENTRY_OVERHEAD_BYTES + (long) v.dimension() * Float.BYTES);
+    }
+
+    public Embedding getOrCompute(String text, Function<String, Embedding> embedder) {
+        long key = ContentHash.of(text);
+        Embedding v = cache.get(key);
+        if (v != null) return v;
+        v = embedder.apply(text);
+        cache.put(key, v);
+        return v;
+    }
+
+    /** Batched {@link #getOrCompute}: all misses are passed to {@code embedder} in one call. */
+    public List<Embedding> getOrComputeAll(List<String> texts, Function<List<String>, List<Embedding>> embedder) {
+        List<Embedding> out = new ArrayList<>(texts.size());
+        List<String> missing = new ArrayList<>();
+        List<Integer> missingAt = new ArrayList<>();
+        for (String text : texts) {
+            Embedding v = cache.get(ContentHash.of(text));
+            if (v == null) {
+                missing.add(text);
+                missingAt.add(out.size());
+            }
+            out.add(v);
+        }
+        if (missing.isEmpty()) return out;
+
+        List<Embedding> computed = embedder.apply(missing);
+        for (int i = 0; i < missing.size(); i++) {
+            Embedding v = computed.get(i);
+            cache.put(ContentHash.of(missing.get(i)), v);
+            out.set(missingAt.get(i), v);
+        }
+        return out;
+    }
+
+    public long hitCount()      { return cache.hitCount(); }
+    public long missCount()     { return cache.missCount(); }
+    public long evictionCount() { return cache.evictionCount(); }
+    public double hitRate()     { return cache.hitRate(); }
+    public int size()           { return cache.size(); }
+    public long weightBytes()   { return cache.weight(); }
+}
@@ -0,0 +1,152 @@
+package com.fakenews.nlp;
+
+import com.fakenews.datastructures.FloatVectors;
+
+import java.util.Arrays;
+
+/**
+ * Append-only set of embeddings packed row-major into fixed-size chunks, for scoring a query
+ * against many candidates without chasing a pointer per vector.
+ * Notes:
+ * - Rows are float32, or int8 with a per-row scale when quantized (a quarter of the memory,
+ *   an eighth of a double[]); quantized similarities are approximate (see {@link #isExact()}).
+ * - A chunk holds a fixed number of rows (about {@link #CHUNK_BYTES}), so no array index or
+ *   offset ever nears int range and growing never copies more than one chunk: the matrix holds
+ *   as many rows as the heap does, up to Integer.MAX_VALUE. Only the last chunk grows (doubling
+ *   up to full size), so a small matrix stays small.
+ * - Appends are serialized; readers never lock: a row is written before the row count that
+ *   makes it visible, and a grown chunk table is published before the count as well.
+ */
+public class EmbeddingMatrix {
+    static final long CHUNK_BYTES = 4L << 20;
+
+    private final int dim;
+    private final boolean quantized;
+    private final int rowsPerChunk;
+    private final int initialRows;
+    private volatile float[][] data;      // float32 chunks (null when quantized)
+    private volatile byte[][] codes;      // int8 chunks (null otherwise)
+    private volatile float[][] scales;    // one per int8 row, chunked like codes
+    private volatile int rows;
+
+    public EmbeddingMatrix(int dim, int initialRows) {
+        this(dim, initialRows, false);
+    }
+
+    public EmbeddingMatrix(int dim, int initialRows, boolean quantized) {
+        this(dim, initialRows, quantized,
+                (int) Math.max(1, CHUNK_BYTES / ((long) Math.max(1, dim) * (quantized ? 1 : Float.BYTES))));
+    }
+
+    EmbeddingMatrix(int dim, int initialRows, boolean quantized, int rowsPerChunk) {
+        this.dim = dim;
+        this.quantized = quantized;
+        this.rowsPerChunk = rowsPerChunk;
+        this.initialRows = Math.max(1, Math.min(initialRows, rowsPerChunk));
+        if (quantized) {
+            this.codes = new byte[0][];
+            this.scales = new float[0][];
+        } else {
+            this.data = new float[0][];
+        }
+    }
+
+    /** Appends a row and returns its index. */
+    public synchronized int add(Embedding e) {
+        if (e.dimension() != dim) {
+            throw new IllegalArgumentException("Expected dimension " + dim + ", got " + e.dimension());
+        }
+        int row = rows;
+        if (row == Integer.MAX_VALUE) throw new IllegalStateException("Embedding matrix is full");
+        int chunk = row / rowsPerChunk;
+        int inChunk = row % rowsPerChunk;
+        if (quantized) {
+            byte[][] c = codes;
+            float[][] s = scales;
+            if (chunk == c.length || inChunk == s[chunk].length) {
+                int capacity = chunkCapacity(chunk == c.length ? 0 : s[chunk].length);
+                c = Arrays.copyOf(c, chunk + 1);
+                s = Arrays.copyOf(s, chunk + 1);
+                c[chunk] = c[chunk] == null ? new byte[capacity * dim] : Arrays.copyOf(c[chunk], capacity * dim);
+                s[chunk] = s[chunk] == null ? new float[capacity] : Arrays.copyOf(s[chunk], capacity);
+                codes = c;
+                scales = s;
+            }
+            s[chunk][inChunk] = FloatVectors.quantize(e.values(), c[chunk], inChunk * dim);
+        } else {
+            float[][] d = data;
+            if (chunk == d.length || (inChunk + 1) * dim > d[chunk].length) {
+                int capacity = chunkCapacity(chunk == d.length ? 0 : d[chunk].length / dim);
+                d = Arrays.copyOf(d, chunk + 1);
+                d[chunk] = d[chunk] == null ? new float[capacity * dim] : Arrays.copyOf(d[chunk], capacity * dim);
+                data = d;
+            }
+            System.arraycopy(e.values(), 0, d[chunk], inChunk * dim, dim);
+        }
+        rows = row + 1;
+        return row;
+    }
+
+    public int rows() { return rows; }
+    public int dimension() { return dim; }
+
+    /** False when rows are int8: similarities are then approximate and worth re-ranking. */
+    public boolean isExact() { return !quantized; }
+
+    /** Bytes held by row storage (capacity, not just used rows). */
+    public long bytes() {
+        long bytes = 0;
+        if (quantized) {
+            for (byte[] c : codes) bytes += c.length;
+            for (float[] s : scales) bytes += (long) s.length * Float.BYTES;
+        } else {
+            for (float[] d : data) bytes += (long) d.length * Float.BYTES;
+        }
+        return bytes;
+    }
+
+    /** Similarity of {@code query} to every row, in row order. */
+    public float[] similarities(Embedding query) {
+        int n = rows;
+        float[] out = new float[n];
+        float[] q = query.values();
+        float[][] d = data;
+        byte[][] c = codes;
+        float[][] s = scales;
+        for (int chunk = 0, base = 0; base < n; chunk++, base += rowsPerChunk) {
+            int count = Math.min(rowsPerChunk, n - base);
+            if (quantized) {
+                FloatVectors.dotManyQuantized(q, c[chunk], s[chunk], count, out, base);
+            } else {
+                FloatVectors.dotMany(q, d[chunk], count, out, base);
+            }
+        }
+        return out;
+    }
+
+    /** Similarity of {@code query} to the given rows, in argument order. */
+    public float[] similarities(Embedding query, int[] selected) {
+        float[] q = query.values();
+        float[] out = new float[selected.length];
+        if (quantized) {
+            byte[][] c = codes;
+            float[][] s = scales;
+            for (int i = 0; i < selected.length; i++) {
+                int chunk = selected[i] / rowsPerChunk, inChunk = selected[i] % rowsPerChunk;
+                out[i] = FloatVectors.dotQuantized(q, c[chunk], inChunk * dim, s[chunk][inChunk]);
+            }
+        } else {
+            float[][] d = data;
+            for (int i = 0; i < selected.length; i++) {
+                int chunk = selected[i] / rowsPerChunk, inChunk = selected[i] % rowsPerChunk;
+                out[i] = FloatVectors.dot(q, d[chunk], inChunk * dim);
+            }
+        }
+        return out;
+    }
+
+    /** Rows for a new last chunk, or for the last chunk grown from {@code current} rows. */
+    private int chunkCapacity(int current) {
+        return current == 0 ? initialRows : (int) Math.min(rowsPerChunk, current * 2L);
+    }
+}
@@ -2,46 +2,119 @@ package com.fakenews.nlp;
 
 import com.fakenews.model.*;
 import com.fakenews.datastructures.EvidenceKDTree;
+import com.fakenews.datastructures.MappedFloatVectors;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Retrieves semantically relevant evidence using a KD-tree (relevance, recency)
  * and re-ranks by semantic similarity from the NLP model.
+ * Evidence is embedded once at indexing time into a contiguous {@link EmbeddingMatrix};
+ * re-ranking scores the claim against the candidates' rows. With int8 rows, the best
+ * candidates by approximate score are re-scored exactly before the final cut, against float32
+ * copies kept in a memory-mapped {@link MappedFloatVectors} (the model is not re-run).
+ * Safe for concurrent use: KD-tree access is guarded, re-ranking runs outside the lock.
  */
 public class EvidenceRetriever {
+    // extra candidates re-scored exactly beyond topK when rows are quantized
+    private static final int RERANK_MARGIN = 4;
+
     private final EvidenceKDTree index = new EvidenceKDTree();
-    private final Map<String, Evidence> store = new HashMap<>();
+    private final Map<String, Evidence> store = new ConcurrentHashMap<>();
+    private final Map<String, Integer> rowOf = new ConcurrentHashMap<>();
+    private final Map<String, Integer> exactRowOf = new ConcurrentHashMap<>();
     private final RoBERTaModel model;
+    private final boolean quantized;
+    private final MappedFloatVectors exact;        // float32 copies of int8 rows (null when exact)
+    private volatile EmbeddingMatrix embeddings;   // created with the first indexed evidence
+
+    public EvidenceRetriever(RoBERTaModel model) { this(model, null); }
 
-    public EvidenceRetriever(RoBERTaModel model) { this.model = model; }
+    /** Int8 rows when {@code exact} is given; their float32 copies go there (shared stores are fine). */
+    public EvidenceRetriever(RoBERTaModel model, MappedFloatVectors exact) {
+        this.model = model;
+        this.quantized = exact != null;
+        this.exact = exact;
+    }
 
     public void indexEvidence(Evidence e) {
         if (e == null) return;
-        store.put(e.getId(), e);
-        index.insert(e.getId(), e.getRelevanceScore(), 1.0, e); // recency=1.0 (demo)
+        indexAll(Collections.singletonList(e));
+    }
+
+    /** Indexes a batch; texts are embedded in one backend call. */
+    public void indexAll(List<Evidence> evidence) {
+        List<Evidence> valid = new ArrayList<>(evidence.size());
+        List<String> texts = new ArrayList<>(evidence.size());
+        for (Evidence e : evidence) {
+            if (e == null) continue;
+            valid.add(e);
+            texts.add(String.valueOf(e.getText()));
+        }
+        if (valid.isEmpty()) return;
+        List<Embedding> vectors = model.getEmbeddings(texts);
+
+        synchronized (index) {
+            if (embeddings == null) {
+                embeddings = new EmbeddingMatrix(vectors.get(0).dimension(), Math.max(16, valid.size()), quantized);
+            }
+            for (int i = 0; i < valid.size(); i++) {
+                Evidence e = valid.get(i);
+                // a re-indexed id gets a fresh row; the old one is simply no longer referenced
+                rowOf.put(e.getId(), embeddings.add(vectors.get(i)));
+                if (exact != null) exactRowOf.put(e.getId(), exact.add(vectors.get(i).values()));
+                store.put(e.getId(), e);
+                index.insert(e.getId(), e.getRelevanceScore(), 1.0, e); // recency=1.0 (demo)
+            }
+        }
     }
 
     public List<Evidence> retrieveRelevantEvidence(Claim claim, int topK) {
         List<Evidence> out = new ArrayList<>();
         if (claim == null) return out;
 
-        List<EvidenceKDTree.EvidenceResult> nn = index.kNearestNeighbors(0.5, 0.5, Math.max(2, topK * 2));
-        List<Scored> scored = new ArrayList<>();
-
+        List<EvidenceKDTree.EvidenceResult> nn;
+        synchronized (index) {
+            nn = index.kNearestNeighbors(0.5, 0.5, Math.max(2, topK * 2));
+        }
+        List<Evidence> candidates = new ArrayList<>(nn.size());
+        int[] rows = new int[nn.size()];
         for (EvidenceKDTree.EvidenceResult r : nn) {
             Evidence e = store.get(r.getEvidenceId());
-            if (e != null) {
-                double sim = model.computeSimilarity(claim.getText(), e.getText());
-                scored.add(new Scored(e, sim));
+            Integer row = rowOf.get(r.getEvidenceId());
+            if (e != null && row != null) {
+                rows[candidates.size()] = row;
+                candidates.add(e);
             }
         }
+        if (candidates.isEmpty()) return out;
+
+        Embedding query = model.getEmbedding(String.valueOf(claim.getText()));
+        EmbeddingMatrix matrix = embeddings;
+        float[] sims = matrix.similarities(query, Arrays.copyOf(rows, candidates.size()));
+
+        List<Scored> scored = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            scored.add(new Scored(candidates.get(i), sims[i]));
+        }
 
         scored.sort((a,b) -> Double.compare(b.score, a.score));
+        if (!matrix.isExact()) rerankExactly(query, scored, topK + RERANK_MARGIN);
         for (int i = 0; i < Math.min(topK, scored.size()); i++) out.add(scored.get(i).e);
         return out;
     }
 
+    /** Replaces the approximate scores of the first {@code n} entries with exact ones and re-sorts them. */
+    private void rerankExactly(Embedding query, List<Scored> scored, int n) {
+        List<Scored> head = scored.subList(0, Math.min(n, scored.size()));
+        for (int i = 0; i < head.size(); i++) {
+            Integer row = exactRowOf.get(head.get(i).e.getId());
+            if (row != null) head.set(i, new Scored(head.get(i).e, exact.dot(query.values(), row)));
+        }
+        head.sort((a,b) -> Double.compare(b.score, a.score));
+    }
+
     /** Returns support ratio in [0..1] weighted by relevance. */
     public double verifyClaimWithEvidence(Claim claim, List<Evidence> evidences) {
         if (evidences == null || evidences.isEmpty()) return 0.5;
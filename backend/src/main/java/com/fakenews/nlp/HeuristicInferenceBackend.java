@@ -0,0 +1,66 @@
+package com.fakenews.nlp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Demo backend: keyword heuristics for classification, text-seeded random vectors for embeddings.
+ * Deterministic and dependency-free; the default when no model is configured.
+ */
+public class HeuristicInferenceBackend implements InferenceBackend {
+    static final int EMB_DIM = 768;
+
+    static final String[] HOT_WORDS =
+            {"BREAKING","SHOCKING","UNBELIEVABLE","AMAZING","INCREDIBLE","TERRIFIED","CATASTROPHIC"};
+    private static final Pattern SOURCING = Pattern.compile("\\b(according to|said|reported|published)\\b");
+
+    @Override
+    public String name() { return "heuristic"; }
+
+    @Override
+    public double[] classify(List<String> texts) {
+        double[] out = new double[texts.size()];
+        for (int i = 0; i < out.length; i++) {
+            String text = texts.get(i);
+            out[i] = fakeScore(text, text == null ? null : text.toUpperCase());
+        }
+        return out;
+    }
+
+    @Override
+    public List<double[]> embed(List<String> texts) {
+        List<double[]> out = new ArrayList<>(texts.size());
+        for (String text : texts) out.add(embed(text));
+        return out;
+    }
+
+    @Override
+    public double[] embed(String text) {
+        Random r = new Random(text == null ? 0 : text.hashCode());
+        double[] v = new double[EMB_DIM];
+        for (int i = 0; i < EMB_DIM; i++) v[i] = r.nextGaussian();
+        return v;
+    }
+
+    /** Same as {@link #classify(String)}, reusing an upper-cased copy the caller already holds. */
+    static double fakeScore(String text, String upper) {
+        if (text == null || text.isBlank()) return 0.5;
+        double s = 0.5;
+        int hits = 0;
+        for (String h : HOT_WORDS) if (upper.contains(h)) hits++;
+        s += Math.min(hits * 0.08, 0.3);
+        if (text.contains("!!!")) s += 0.1;
+        if (!SOURCING.matcher(text).find()) s += 0.05;
+        return Math.max(0.0, Math.min(1.0, s));
+    }
+
+    static double[] normalize(double[] v) {
+        double s = 0;
+        for (double x : v) s += x * x;
+        double n = Math.sqrt(s);
+        if (n > 0) for (int i = 0; i < v.length; i++) v[i] /= n;
+        return v;
+    }
+}
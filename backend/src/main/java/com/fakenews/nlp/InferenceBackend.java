@@ -0,0 +1,49 @@
+package com.fakenews.nlp;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Model behind {@link RoBERTaModel}: fake-news probability and text embeddings.
+ * Notes:
+ * - Calls are batched: one result per input text, in input order.
+ * - Implementations are shared by the detector's worker pools and must be thread-safe.
+ * - Embeddings need not be normalized: {@link RoBERTaModel} stores them as unit-length {@link Embedding}s.
+ * Implementations: {@link HeuristicInferenceBackend} (default), {@link DjlInferenceBackend}
+ * (in-process model loaded from a local path), and the HTTP model service
+ * ({@code com.fakenews.service.RemoteInferenceBackend}).
+ */
+public interface InferenceBackend extends AutoCloseable {
+
+    String name();
+
+    /** Probability that each text is fake, in [0, 1]. */
+    double[] classify(List<String> texts);
+
+    List<double[]> embed(List<String> texts);
+
+    /**
+     * {@link #classify(List)} without holding the calling thread while a remote model answers.
+     * Local backends compute in the caller and return a completed future.
+     */
+    default CompletableFuture<double[]> classifyAsync(List<String> texts) {
+        try {
+            return CompletableFuture.completedFuture(classify(texts));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    default double classify(String text) {
+        return classify(Collections.singletonList(text))[0];
+    }
+
+    default double[] embed(String text) {
+        return embed(Collections.singletonList(text)).get(0);
+    }
+
+    /** Releases model resources; further calls are undefined. */
+    @Override
+    default void close() {}
+}
@@ -1,89 +1,127 @@
 package com.fakenews.nlp;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Simulated RoBERTa-based NLP model.
- * In production, replace with DJL/ONNX inference and a proper tokenizer.
+ * RoBERTa-style NLP facade: tokenization, classification, embeddings and token attention.
+ * Scores and embeddings come from a pluggable {@link InferenceBackend} (heuristic by default);
+ * token attention for explanations stays heuristic whatever the backend.
  */
-public class RoBERTaModel {
-    private static final int EMB_DIM = 768;
+public class RoBERTaModel implements AutoCloseable {
+
+    private final InferenceBackend backend;
+    private final EmbeddingCache embeddingCache;
+
+    public RoBERTaModel() {
+        this(new EmbeddingCache());
+    }
+
+    public RoBERTaModel(EmbeddingCache embeddingCache) {
+        this(new HeuristicInferenceBackend(), embeddingCache);
+    }
+
+    public RoBERTaModel(InferenceBackend backend, EmbeddingCache embeddingCache) {
+        this.backend = backend;
+        this.embeddingCache = embeddingCache;
+    }
 
     // --- Classification (fake vs real) ---
+
+    /** Tokenizes and classifies once; the returned context is shared by all pipeline stages. */
+    public AnalysisContext analyze(String text) {
+        AnalysisContext.Tokenized t = AnalysisContext.Tokenized.of(text);
+        return AnalysisContext.of(t, classify(text, t));
+    }
+
+    /**
+     * {@link #analyze} that does not hold the calling thread while the backend classifies
+     * (completes when a remote backend answers; at once for local ones).
+     */
+    public CompletableFuture<AnalysisContext> analyzeAsync(String text) {
+        AnalysisContext.Tokenized t = AnalysisContext.Tokenized.of(text);
+        if (backend instanceof HeuristicInferenceBackend) {
+            return CompletableFuture.completedFuture(AnalysisContext.of(t, classify(text, t)));
+        }
+        return backend.classifyAsync(Collections.singletonList(text))
+                .thenApply(scores -> AnalysisContext.of(t, classification(text, t, clamp01(scores[0]))));
+    }
+
     public ClassificationResult classify(String text) {
+        return analyze(text).getClassification();
+    }
+
+    private ClassificationResult classify(String text, AnalysisContext.Tokenized t) {
+        // the heuristic reuses the tokenizer's upper-cased text instead of building another
+        double fakeScore = backend instanceof HeuristicInferenceBackend
+                ? HeuristicInferenceBackend.fakeScore(text, t.upper)
+                : clamp01(backend.classify(text));
+        return classification(text, t, fakeScore);
+    }
+
+    private ClassificationResult classification(String text, AnalysisContext.Tokenized t, double fakeScore) {
         Map<String, Double> scores = new HashMap<>();
-        double fakeScore = computeFakeScore(text);
         scores.put("fake", fakeScore);
         scores.put("real", 1.0 - fakeScore);
 
-        double[] attentionWeights = computeAttentionWeights(text);
-        String[] tokens = tokenize(text);
-
-        return new ClassificationResult(scores, attentionWeights, tokens);
+        double[] attentionWeights = computeAttentionWeights(text, t);
+        return new ClassificationResult(scores, attentionWeights, t.tokens);
     }
 
     // --- Embeddings + similarity ---
-    public double[] getEmbedding(String text) {
-        Random r = new Random(text == null ? 0 : text.hashCode());
-        double[] v = new double[EMB_DIM];
-        for (int i = 0; i < EMB_DIM; i++) v[i] = r.nextGaussian();
-        return normalize(v);
+
+    /** Normalized float32 embedding, served from the embedding cache. */
+    public Embedding getEmbedding(String text) {
+        return embeddingCache.getOrCompute(text, t -> Embedding.of(backend.embed(t)));
+    }
+
+    /** Batched {@link #getEmbedding}: cache misses go to the backend in a single call. */
+    public List<Embedding> getEmbeddings(List<String> texts) {
+        return embeddingCache.getOrComputeAll(texts, missing -> {
+            List<double[]> vectors = backend.embed(missing);
+            List<Embedding> out = new ArrayList<>(vectors.size());
+            for (double[] v : vectors) out.add(Embedding.of(v));
+            return out;
+        });
     }
 
     public double computeSimilarity(String t1, String t2) {
-        double[] a = getEmbedding(String.valueOf(t1));
-        double[] b = getEmbedding(String.valueOf(t2));
-        return cosine(a, b);
+        return getEmbedding(String.valueOf(t1)).similarity(getEmbedding(String.valueOf(t2)));
+    }
+
+    /** Similarity of two precomputed embeddings (e.g. ones stored on an Article at ingest). */
+    public double similarity(Embedding a, Embedding b) {
+        return a.similarity(b);
+    }
+
+    public EmbeddingCache getEmbeddingCache() { return embeddingCache; }
+    public InferenceBackend getBackend() { return backend; }
+
+    @Override
+    public void close() {
+        backend.close();
     }
 
     // --- Heuristics (demo only) ---
-    private double computeFakeScore(String text) {
-        if (text == null || text.isBlank()) return 0.5;
-        double s = 0.5;
-        String upper = text.toUpperCase(Locale.ROOT);
-        String[] hot = {"BREAKING","SHOCKING","UNBELIEVABLE","AMAZING","INCREDIBLE","TERRIFIED","CATASTROPHIC"};
-        int hits = 0;
-        for (String h : hot) if (upper.contains(h)) hits++;
-        s += Math.min(hits * 0.08, 0.3);
-        if (text.contains("!!!")) s += 0.1;
-        if (!text.matches(".*\\b(according to|said|reported|published)\\b.*")) s += 0.05;
-        return clamp01(s);
-    }
-
-    private double[] computeAttentionWeights(String text) {
-        String[] toks = tokenize(String.valueOf(text));
+
+    private double[] computeAttentionWeights(String text, AnalysisContext.Tokenized t) {
+        String[] toks = t.tokens;
         double[] w = new double[toks.length];
-        Set<String> hot = new HashSet<>(Arrays.asList(
-                "breaking","shocking","unbelievable","amazing","incredible","terrified","catastrophic"));
         Random rand = new Random(Objects.hash(text));
         for (int i = 0; i < toks.length; i++) {
-            String t = toks[i].toLowerCase(Locale.ROOT);
-            w[i] = hot.contains(t) ? 0.9 : 0.25 + rand.nextDouble() * 0.45;
+            w[i] = isHotWord(t, i) ? 0.9 : 0.25 + rand.nextDouble() * 0.45;
         }
-        return normalize(w);
-    }
-
-    private String[] tokenize(String text) {
-        if (text == null || text.isBlank()) return new String[0];
-        return text.trim().split("\\s+");
-    }
-
-    private static double[] normalize(double[] v) {
-        double s = 0;
-        for (double x : v) s += x * x;
-        double n = Math.sqrt(s);
-        if (n > 0) for (int i = 0; i < v.length; i++) v[i] /= n;
-        return v;
+        return HeuristicInferenceBackend.normalize(w);
     }
 
-    private static double cosine(double[] a, double[] b) {
-        double dot = 0, na = 0, nb = 0;
-        for (int i = 0; i < a.length; i++) {
-            dot += a[i] * b[i];
-            na += a[i] * a[i];
-            nb += b[i] * b[i];
+    private static boolean isHotWord(AnalysisContext.Tokenized t, int i) {
+        int start = t.starts[i], len = t.ends[i] - start;
+        boolean aligned = t.upper.length() == t.text.length();
+        for (String h : HeuristicInferenceBackend.HOT_WORDS) {
+            if (h.length() != len) continue;
+            if (aligned ? t.upper.regionMatches(start, h, 0, len) : t.tokens[i].equalsIgnoreCase(h)) return true;
         }
-        return dot / (Math.sqrt(na) * Math.sqrt(nb));
+        return false;
     }
 
     private static double clamp01(double v) { return Math.max(0.0, Math.min(1.0, v)); }
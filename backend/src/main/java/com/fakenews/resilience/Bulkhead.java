@@ -0,0 +1,67 @@
+package com.fakenews.resilience;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Caps concurrent calls at {@code maxConcurrent}; up to {@code maxQueued} more wait in FIFO order
+ * for a permit, and anything beyond that is rejected immediately. Waiting is asynchronous
+ * (a future completes when the permit is handed over), so no thread is parked in the queue.
+ */
+public class Bulkhead {
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int inUse;
+
+    public Bulkhead(int maxConcurrent, int maxQueued) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+    }
+
+    /** Permit now, or a future completed once one is handed over; fails fast when the queue is full. */
+    public synchronized CompletableFuture<Void> acquire() {
+        if (inUse < maxConcurrent) {
+            inUse++;
+            return GRANTED;
+        }
+        if (waiters.size() >= maxQueued) {
+            return CompletableFuture.failedFuture(new CallRejectedException("bulkhead full"));
+        }
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    /** Permit only if one is free right now (never queues). */
+    public synchronized boolean tryAcquire() {
+        if (inUse < maxConcurrent) {
+            inUse++;
+            return true;
+        }
+        return false;
+    }
+
+    /** Gives up a queued wait (e.g. the caller timed out); a no-op once the permit was granted. */
+    public synchronized void abandon(CompletableFuture<Void> waiter) {
+        waiters.remove(waiter);
+    }
+
+    public void release() {
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            next = waiters.poll();
+            if (next == null) {
+                inUse--;
+                return;
+            }
+        }
+        // permit passes straight to the next waiter; if it was cancelled meanwhile, pass it on again
+        if (!next.complete(null)) release();
+    }
+
+    public synchronized int available() { return maxConcurrent - inUse; }
+    public synchronized int queued()    { return waiters.size(); }
+}
@@ -0,0 +1,197 @@
+package com.fakenews.resilience;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Wraps asynchronous calls to a remote service with, in order:
+ * circuit breaker (reject at once while open) -> bulkhead (bounded concurrency + wait queue)
+ * -> adaptive timeout (p99 of recent latencies) -> optional hedged second attempt.
+ * Notes:
+ * - The timeout covers queueing in the bulkhead as well as the call itself.
+ * - A hedge is sent only if a bulkhead slot is free right now; the first attempt to succeed
+ *   wins and the other is cancelled. The call fails only when every attempt has failed.
+ * - Rejections are not counted against the service by the breaker; timeouts and errors are.
+ */
+public class CallGuard {
+    private final CircuitBreaker breaker;
+    private final Bulkhead bulkhead;
+    private final LatencyTracker latencies = new LatencyTracker(1024);
+    private final long slowCallNanos;
+    private final double timeoutMultiplier;
+    private final long minTimeoutNanos;
+    private final long maxTimeoutNanos;
+    private final int minSamples;
+    private final boolean hedgingEnabled;
+    private final double hedgePercentile;
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+
+    public CallGuard(ResilienceSettings settings) {
+        this.breaker = new CircuitBreaker(settings.getWindowSize(), settings.getMinimumCalls(),
+                settings.getFailureRateThreshold(), settings.getSlowCallRateThreshold(),
+                settings.getOpenMs(), settings.getHalfOpenCalls());
+        this.bulkhead = new Bulkhead(settings.getMaxConcurrent(), settings.getMaxQueued());
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(settings.getSlowCallMs());
+        this.timeoutMultiplier = settings.getTimeoutMultiplier();
+        this.minTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getMinTimeoutMs());
+        this.maxTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(settings.getMinTimeoutMs(), settings.getMaxTimeoutMs()));
+        this.minSamples = settings.getMinSamples();
+        this.hedgingEnabled = settings.isHedgingEnabled();
+        this.hedgePercentile = settings.getHedgePercentile();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "call-guard-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> attempt) {
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new CallRejectedException("circuit open"));
+        }
+
+        Call<T> call = new Call<>(attempt, currentTimeoutNanos());
+        call.timer = scheduler.schedule(() -> call.settle(null, new TimeoutException(
+                "no response within " + TimeUnit.NANOSECONDS.toMillis(call.timeoutNanos) + " ms")),
+                call.timeoutNanos, TimeUnit.NANOSECONDS);
+
+        call.permit = bulkhead.acquire();
+        call.permit.whenComplete((granted, rejected) -> {
+            if (rejected != null) {
+                bulkheadRejections.increment();
+                call.settle(null, rejected);
+                return;
+            }
+            if (call.result.isDone()) { // timed out while queued
+                bulkhead.release();
+                return;
+            }
+            call.start();
+            long hedgeDelay = hedgeDelayNanos();
+            if (hedgeDelay > 0) {
+                scheduler.schedule(() -> {
+                    if (!call.result.isDone() && bulkhead.tryAcquire()) {
+                        hedges.increment();
+                        call.start();
+                    }
+                }, hedgeDelay, TimeUnit.NANOSECONDS);
+            }
+        });
+
+        // a caller cancelling the result directly still gets the bookkeeping
+        call.result.whenComplete((value, error) -> call.cleanUp(error));
+        return call.result;
+    }
+
+    /**
+     * One guarded call. Every outcome goes through {@link #settle}, which does the bookkeeping
+     * (counters, bulkhead permits, breaker) before completing the result, so a caller that sees
+     * the result done also sees its effects.
+     */
+    private final class Call<T> {
+        final Supplier<CompletableFuture<T>> attempt;
+        final long timeoutNanos;
+        final long startNanos = System.nanoTime();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final List<CompletableFuture<T>> attempts = new CopyOnWriteArrayList<>();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicBoolean cleaned = new AtomicBoolean();
+        volatile ScheduledFuture<?> timer;
+        volatile CompletableFuture<Void> permit;
+
+        Call(Supplier<CompletableFuture<T>> attempt, long timeoutNanos) {
+            this.attempt = attempt;
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        /** Runs one attempt holding a bulkhead permit; the permit is returned when it finishes. */
+        void start() {
+            running.incrementAndGet();
+            long t0 = System.nanoTime();
+            CompletableFuture<T> f;
+            try {
+                f = attempt.get();
+            } catch (RuntimeException e) {
+                f = CompletableFuture.failedFuture(e);
+            }
+            attempts.add(f);
+            if (result.isDone()) f.cancel(true); // lost the race with completion; don't leave it running
+
+            f.whenComplete((value, error) -> {
+                bulkhead.release();
+                if (error == null) {
+                    latencies.record(System.nanoTime() - t0);
+                    settle(value, null);
+                } else {
+                    if (!(error instanceof CancellationException)) latencies.record(System.nanoTime() - t0);
+                    if (running.decrementAndGet() == 0) {
+                        settle(null, error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    }
+                }
+            });
+        }
+
+        /** First outcome wins; its bookkeeping is done before the result completes. */
+        void settle(T value, Throwable error) {
+            if (!cleaned.compareAndSet(false, true)) return;
+            if (error instanceof TimeoutException) timeouts.increment();
+            release(error);
+            if (error == null) result.complete(value);
+            else result.completeExceptionally(error);
+        }
+
+        void cleanUp(Throwable error) {
+            if (cleaned.compareAndSet(false, true)) release(error);
+        }
+
+        private void release(Throwable error) {
+            ScheduledFuture<?> t = timer;
+            if (t != null) t.cancel(false);
+            CompletableFuture<Void> p = permit;
+            if (p != null && !p.isDone()) bulkhead.abandon(p);
+            // cancelling an attempt returns its permit (its whenComplete runs here, and its settle is a no-op)
+            for (CompletableFuture<T> a : attempts) a.cancel(true);
+
+            if (error instanceof CallRejectedException) {
+                breaker.release();
+            } else {
+                breaker.record(error != null, System.nanoTime() - startNanos > slowCallNanos);
+            }
+        }
+    }
+
+    /** p99 x multiplier within [min, max]; max until enough samples exist. */
+    public long currentTimeoutNanos() {
+        if (latencies.sampleCount() < minSamples) return maxTimeoutNanos;
+        long p99 = latencies.percentile(0.99);
+        return Math.max(minTimeoutNanos, Math.min(maxTimeoutNanos, (long) (p99 * timeoutMultiplier)));
+    }
+
+    private long hedgeDelayNanos() {
+        if (!hedgingEnabled || latencies.sampleCount() < minSamples) return -1;
+        return latencies.percentile(hedgePercentile);
+    }
+
+    public boolean isOpen() { return breaker.isOpen(); }
+    public CircuitBreaker.State state() { return breaker.state(); }
+    public CircuitBreaker getBreaker() { return breaker; }
+    public Bulkhead getBulkhead() { return bulkhead; }
+    public LatencyTracker getLatencies() { return latencies; }
+
+    public long timeoutCount()            { return timeouts.sum(); }
+    public long hedgeCount()              { return hedges.sum(); }
+    public long bulkheadRejectionCount()  { return bulkheadRejections.sum(); }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package com.fakenews.resilience;
+
+/** A guarded call was refused before reaching the remote service (circuit open or bulkhead full). */
+public class CallRejectedException extends RuntimeException {
+    public CallRejectedException(String message) {
+        super(message);
+    }
+}
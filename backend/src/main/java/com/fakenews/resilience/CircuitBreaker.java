@@ -0,0 +1,131 @@
+package com.fakenews.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker over the last {@code windowSize} call outcomes.
+ * Notes:
+ * - CLOSED -> OPEN once at least {@code minimumCalls} are recorded and either the failure rate
+ *   or the slow-call rate reaches its threshold.
+ * - OPEN rejects every call for {@code openMillis}, then lets {@code halfOpenCalls} trial calls
+ *   through (HALF_OPEN): all succeeding closes the breaker, any failure or slow call re-opens it.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    // outcome window, guarded by this
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int recorded, next, failures, slowCalls;
+
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int halfOpenPermits, halfOpenSuccesses;
+    private long rejected;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          double slowCallRateThreshold, long openMillis, int halfOpenCalls) {
+        this(windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold, openMillis, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                   double slowCallRateThreshold, long openMillis, int halfOpenCalls, LongSupplier clock) {
+        int size = Math.max(1, windowSize);
+        this.failed = new boolean[size];
+        this.slow = new boolean[size];
+        this.minimumCalls = Math.max(1, Math.min(size, minimumCalls));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, openMillis));
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+    }
+
+    /** Takes a permit for one call; false means reject without calling. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openUntil < 0) {
+                rejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                rejected++;
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /** True while calls would be rejected (OPEN and the wait has not elapsed yet). */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && clock.getAsLong() - openUntil < 0;
+    }
+
+    public synchronized void record(boolean failure, boolean slowCall) {
+        switch (state) {
+            case HALF_OPEN:
+                if (failure || slowCall) {
+                    open();
+                } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                    close();
+                }
+                break;
+            case CLOSED:
+                if (recorded == failed.length) {
+                    if (failed[next]) failures--;
+                    if (slow[next]) slowCalls--;
+                } else {
+                    recorded++;
+                }
+                failed[next] = failure;
+                slow[next] = slowCall;
+                if (failure) failures++;
+                if (slowCall) slowCalls++;
+                next = (next + 1) % failed.length;
+                if (recorded >= minimumCalls
+                        && (failureRate() >= failureRateThreshold || slowCallRate() >= slowCallRateThreshold)) {
+                    open();
+                }
+                break;
+            default:
+                break; // late result of a call admitted before the breaker opened
+        }
+    }
+
+    /** Hands back a permit for a call that ended without a verdict on the service (e.g. never sent). */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) halfOpenPermits++;
+    }
+
+    public synchronized State state() {
+        return state == State.OPEN && clock.getAsLong() - openUntil >= 0 ? State.HALF_OPEN : state;
+    }
+
+    public synchronized double failureRate()  { return recorded == 0 ? 0.0 : (double) failures / recorded; }
+    public synchronized double slowCallRate() { return recorded == 0 ? 0.0 : (double) slowCalls / recorded; }
+    public synchronized long rejectedCount()  { return rejected; }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = clock.getAsLong() + openNanos;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = next = failures = slowCalls = 0;
+    }
+}
@@ -0,0 +1,42 @@
+package com.fakenews.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Sliding sample of recent call latencies with cheap percentile reads.
+ * Keeps the last {@code capacity} samples in a ring; a sorted snapshot is rebuilt every
+ * {@code REFRESH_EVERY} samples, so percentile() is O(1) and slightly stale by design.
+ */
+public class LatencyTracker {
+    private static final int REFRESH_EVERY = 32;
+
+    private final long[] ring;
+    private long recorded;                    // guarded by this
+    private volatile long[] sorted = new long[0];
+
+    public LatencyTracker(int capacity) {
+        this.ring = new long[Math.max(REFRESH_EVERY, capacity)];
+    }
+
+    public synchronized void record(long nanos) {
+        ring[(int) (recorded % ring.length)] = nanos;
+        recorded++;
+        if (recorded % REFRESH_EVERY == 0 || recorded < REFRESH_EVERY) {
+            long[] snap = Arrays.copyOf(ring, (int) Math.min(recorded, ring.length));
+            Arrays.sort(snap);
+            sorted = snap;
+        }
+    }
+
+    /** Latency at quantile q in [0, 1] over the snapshot, or -1 with no samples yet. */
+    public long percentile(double q) {
+        long[] s = sorted;
+        if (s.length == 0) return -1;
+        int idx = (int) Math.ceil(Math.max(0, Math.min(1, q)) * s.length) - 1;
+        return s[Math.max(0, idx)];
+    }
+
+    public int sampleCount() {
+        return sorted.length;
+    }
+}
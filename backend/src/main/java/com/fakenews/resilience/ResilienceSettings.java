@@ -0,0 +1,75 @@
+package com.fakenews.resilience;
+
+/**
+ * Tunables for {@link CallGuard}.
+ * Defaults suit the RoBERTa service; the Spring wiring overrides them from application properties.
+ */
+public class ResilienceSettings {
+    // Circuit breaker: outcome window, and when it trips
+    private int windowSize = 50;
+    private int minimumCalls = 20;
+    private double failureRateThreshold = 0.5;
+    private long slowCallMs = 5000;
+    private double slowCallRateThreshold = 0.8;
+    private long openMs = 10_000;
+    private int halfOpenCalls = 3;
+
+    // Bulkhead: concurrent calls, and how many may wait for a slot
+    private int maxConcurrent = 200;
+    private int maxQueued = 1000;
+
+    // Adaptive timeout: p99 of recent latencies x multiplier, within [min, max]
+    private double timeoutMultiplier = 2.0;
+    private long minTimeoutMs = 500;
+    private long maxTimeoutMs = 30_000;
+    private int minSamples = 20;
+
+    // Hedging: a second attempt once the first has run past this latency percentile
+    private boolean hedgingEnabled = false;
+    private double hedgePercentile = 0.95;
+
+    public int getWindowSize() { return windowSize; }
+    public void setWindowSize(int windowSize) { this.windowSize = Math.max(1, windowSize); }
+
+    public int getMinimumCalls() { return minimumCalls; }
+    public void setMinimumCalls(int minimumCalls) { this.minimumCalls = Math.max(1, minimumCalls); }
+
+    public double getFailureRateThreshold() { return failureRateThreshold; }
+    public void setFailureRateThreshold(double failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+
+    public long getSlowCallMs() { return slowCallMs; }
+    public void setSlowCallMs(long slowCallMs) { this.slowCallMs = Math.max(1, slowCallMs); }
+
+    public double getSlowCallRateThreshold() { return slowCallRateThreshold; }
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) { this.slowCallRateThreshold = slowCallRateThreshold; }
+
+    public long getOpenMs() { return openMs; }
+    public void setOpenMs(long openMs) { this.openMs = Math.max(1, openMs); }
+
+    public int getHalfOpenCalls() { return halfOpenCalls; }
+    public void setHalfOpenCalls(int halfOpenCalls) { this.halfOpenCalls = Math.max(1, halfOpenCalls); }
+
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = Math.max(1, maxConcurrent); }
+
+    public int getMaxQueued() { return maxQueued; }
+    public void setMaxQueued(int maxQueued) { this.maxQueued = Math.max(0, maxQueued); }
+
+    public double getTimeoutMultiplier() { return timeoutMultiplier; }
+    public void setTimeoutMultiplier(double timeoutMultiplier) { this.timeoutMultiplier = Math.max(1.0, timeoutMultiplier); }
+
+    public long getMinTimeoutMs() { return minTimeoutMs; }
+    public void setMinTimeoutMs(long minTimeoutMs) { this.minTimeoutMs = Math.max(1, minTimeoutMs); }
+
+    public long getMaxTimeoutMs() { return maxTimeoutMs; }
+    public void setMaxTimeoutMs(long maxTimeoutMs) { this.maxTimeoutMs = Math.max(1, maxTimeoutMs); }
+
+    public int getMinSamples() { return minSamples; }
+    public void setMinSamples(int minSamples) { this.minSamples = Math.max(1, minSamples); }
+
+    public boolean isHedgingEnabled() { return hedgingEnabled; }
+    public void setHedgingEnabled(boolean hedgingEnabled) { this.hedgingEnabled = hedgingEnabled; }
+
+    public double getHedgePercentile() { return hedgePercentile; }
+    public void setHedgePercentile(double hedgePercentile) { this.hedgePercentile = Math.max(0.5, Math.min(0.999, hedgePercentile)); }
+}
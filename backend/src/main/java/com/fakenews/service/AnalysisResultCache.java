@@ -0,0 +1,139 @@
+package com.fakenews.service;
+
+import com.fakenews.datastructures.BoundedLruCache;
+import com.fakenews.dto.FakeNewsResult;
+import com.fakenews.nlp.ContentDigest;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches finished /analyze results by a SHA-256 digest of the normalized content, so re-submissions of the
+ * same story (syndicated copies under new titles/URLs) skip the detector pipeline and the RoBERTa call.
+ * Bounded by entry count and expire-after-write; hit rate is published as analysis.result.cache.* meters.
+ * Degraded results (no model score: breaker open or the call failed) go to a second tier with a short
+ * TTL, so once the model is back, re-submissions get its verdict within seconds rather than after the
+ * full TTL; a model-scored result for the same content replaces the degraded one.
+ * The key is a strong digest rather than a 64-bit hash because a hit serves one submitter's verdict
+ * to another: a colliding key would give an unrelated article someone else's result.
+ */
+@Component
+public class AnalysisResultCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final BoundedLruCache<ContentDigest, FakeNewsResult> cache;
+    private final BoundedLruCache<ContentDigest, FakeNewsResult> degraded;   // null: degraded results are not cached
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public AnalysisResultCache(
+            @Value("${analysis.result-cache.enabled:true}") boolean enabled,
+            @Value("${analysis.result-cache.max-entries:10000}") long maxEntries,
+            @Value("${analysis.result-cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${analysis.result-cache.degraded-ttl-seconds:30}") long degradedTtlSeconds) {
+        this.enabled = enabled;
+        this.cache = new BoundedLruCache<>(Math.max(1, maxEntries), r -> 1L, ttlSeconds * 1000);
+        this.degraded = degradedTtlSeconds > 0
+                ? new BoundedLruCache<>(Math.max(1, maxEntries), r -> 1L, degradedTtlSeconds * 1000)
+                : null;
+    }
+
+    /** Fingerprint of the article body (case, spacing and punctuation insensitive). */
+    public static ContentDigest fingerprint(String content) {
+        return ContentDigest.normalized(content);
+    }
+
+    /**
+     * Returns the cached result re-issued for a new submission (fresh article id, the caller's
+     * title/source, duplicateOf = the original article id), or null on a miss.
+     */
+    public FakeNewsResult lookup(String content, String articleId, String title, String source) {
+        if (!cacheable(content)) return null;
+        ContentDigest key = fingerprint(content);
+        FakeNewsResult original = cache.get(key);
+        if (original == null && degraded != null) original = degraded.get(key);
+        if (original == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+
+        FakeNewsResult copy = copyOf(original);
+        copy.setArticleId(articleId);
+        copy.setTitle(title);
+        copy.setSource(source);
+        copy.setDuplicateOf(original.getArticleId());
+        return copy;
+    }
+
+    /** {@code modelScored}: false when the result was computed without the model's prediction. */
+    public void store(String content, FakeNewsResult result, boolean modelScored) {
+        if (!cacheable(content) || result == null) return;
+        ContentDigest key = fingerprint(content);
+        if (modelScored) {
+            cache.put(key, result);
+            if (degraded != null) degraded.remove(key);
+        } else if (degraded != null) {
+            degraded.put(key, result);
+        }
+    }
+
+    public long hitCount()  { return hits.sum(); }
+    public long missCount() { return misses.sum(); }
+
+    public double hitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public int size() {
+        return cache.size() + (degraded != null ? degraded.size() : 0);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("analysis.result.cache.hits", this, AnalysisResultCache::hitCount)
+                .description("Analyze requests served from the result cache")
+                .register(registry);
+        FunctionCounter.builder("analysis.result.cache.misses", this, AnalysisResultCache::missCount)
+                .description("Analyze requests that ran the full pipeline")
+                .register(registry);
+        Gauge.builder("analysis.result.cache.hit.ratio", this, AnalysisResultCache::hitRate)
+                .register(registry);
+        Gauge.builder("analysis.result.cache.size", this, AnalysisResultCache::size)
+                .register(registry);
+    }
+
+    private boolean cacheable(String content) {
+        return enabled && content != null && !content.isBlank();
+    }
+
+    private static FakeNewsResult copyOf(FakeNewsResult r) {
+        FakeNewsResult c = new FakeNewsResult();
+        c.setArticleId(r.getArticleId());
+        c.setTitle(r.getTitle());
+        c.setSource(r.getSource());
+        c.setCredibilityScore(r.getCredibilityScore());
+        c.setClassification(r.getClassification());
+        c.setExplanation(r.getExplanation());
+        c.setFeatureScores(r.getFeatureScores());
+        c.setClaimsCount(r.getClaimsCount());
+        c.setKeyReasons(r.getKeyReasons());
+        c.setAttentionTokens(r.getAttentionTokens());
+        c.setTopWords(r.getTopWords());
+        c.setRobertaConfidence(r.getRobertaConfidence());
+        c.setSentimentScore(r.getSentimentScore());
+        c.setWritingQuality(r.getWritingQuality());
+        c.setSuspiciousPhrases(r.getSuspiciousPhrases());
+        c.setRiskLevel(r.getRiskLevel());
+        c.setRiskIcon(r.getRiskIcon());
+        c.setExtractedClaims(r.getExtractedClaims());
+        c.setUncertainty(r.getUncertainty());
+        return c;
+    }
+}
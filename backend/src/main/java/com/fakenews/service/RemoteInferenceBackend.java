@@ -0,0 +1,87 @@
+package com.fakenews.service;
+
+import com.fakenews.nlp.HeuristicInferenceBackend;
+import com.fakenews.nlp.InferenceBackend;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Classification through the Python model service ({@link RobertaService}).
+ * Notes:
+ * - A batch is submitted all at once, so the service-side micro-batcher, response cache and
+ *   call guard apply as for API requests. The pipeline uses {@link #classifyAsync}, which holds
+ *   no thread while the service answers; {@link #classify} blocks until every item is back.
+ * - Requests are keyed by content alone ({@link #request}); the controller's own model call goes
+ *   through the same method, so the two share one response-cache entry instead of two calls.
+ * - An item whose call fails scores 0.5 (the neutral score of an unclassified article) rather
+ *   than failing its neighbours.
+ * - The service has no embedding endpoint; embeddings come from the heuristic backend.
+ * - The service is resolved on first use (it depends on beans that are created after the detector).
+ */
+@Slf4j
+public class RemoteInferenceBackend implements InferenceBackend {
+    private static final double UNCLASSIFIED = 0.5;
+
+    private final Supplier<RobertaService> service;
+    private final InferenceBackend embeddings = new HeuristicInferenceBackend();
+
+    public RemoteInferenceBackend(Supplier<RobertaService> service) {
+        this.service = service;
+    }
+
+    @Override
+    public String name() { return "remote"; }
+
+    /** The model-service call for {@code text}, as this backend makes it (one cache key per content). */
+    public static CompletableFuture<RobertaAnalysisResponse> request(RobertaService service, String text) {
+        return service.analyzeAsync("", text == null ? "" : text, null);
+    }
+
+    @Override
+    public double[] classify(List<String> texts) {
+        return classifyAsync(texts).join();
+    }
+
+    @Override
+    public CompletableFuture<double[]> classifyAsync(List<String> texts) {
+        RobertaService roberta = service.get();
+        double[] out = new double[texts.size()];
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[texts.size()];
+        for (int i = 0; i < calls.length; i++) {
+            int item = i;
+            calls[i] = request(roberta, texts.get(i)).handle((response, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    log.warn("Remote classification failed: {}", cause.getMessage());
+                    out[item] = UNCLASSIFIED;
+                } else {
+                    out[item] = fakeProbability(response);
+                }
+                return null;
+            });
+        }
+        // allOf happens-after every handler, so the array writes are visible to the caller
+        return CompletableFuture.allOf(calls).thenApply(done -> out);
+    }
+
+    @Override
+    public List<double[]> embed(List<String> texts) {
+        return embeddings.embed(texts);
+    }
+
+    static double fakeProbability(RobertaAnalysisResponse response) {
+        if (response == null) return UNCLASSIFIED;
+        if (response.getCredibilityScore() != null) {
+            return Math.max(0.0, Math.min(1.0, 1.0 - response.getCredibilityScore()));
+        }
+        if (response.getConfidence() != null) {
+            double c = response.getConfidence();
+            return "FAKE".equals(response.getPrediction()) ? c : 1.0 - c;
+        }
+        return UNCLASSIFIED;
+    }
+}
@@ -0,0 +1,198 @@
+package com.fakenews.service;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent /predict calls into /batch_predict requests.
+ * Notes:
+ * - A batch is sent once it holds {@code batchLimit} items or the collection window expires,
+ *   whichever comes first; responses are routed back to callers by position.
+ * - Window adapts to the service: ~10% of the smoothed batch round-trip, within [min, max].
+ * - With a latency target, the batch limit adapts AIMD-style: +1 after a full batch that
+ *   met the target, halved after one that missed it (never above the service limit of 10).
+ * - A batch rejected with 4xx (e.g. one item failing validation) is retried item by item,
+ *   so one bad article cannot fail its neighbours.
+ */
+@Slf4j
+class RobertaBatcher implements AutoCloseable {
+    static final int SERVICE_MAX_BATCH = 10; // /batch_predict rejects larger batches
+
+    private final WebClient webClient;
+    private final Function<Map<String, String>, Mono<RobertaAnalysisResponse>> single;
+    private final Duration timeout;
+    private final int maxBatchSize;
+    private final long minWindowNanos;
+    private final long maxWindowNanos;
+    private final long targetLatencyNanos; // 0 = fixed batch limit
+    private final ScheduledExecutorService timer;
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();   // guarded by lock
+    private ScheduledFuture<?> scheduledFlush;           // guarded by lock
+    private int batchLimit;                              // guarded by lock
+    private volatile double latencyEwmaNanos = -1;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+
+    RobertaBatcher(WebClient webClient,
+                   Function<Map<String, String>, Mono<RobertaAnalysisResponse>> single,
+                   Duration timeout, int maxBatchSize, long minWindowMs, long maxWindowMs, long targetLatencyMs) {
+        this.webClient = webClient;
+        this.single = single;
+        this.timeout = timeout;
+        this.maxBatchSize = Math.max(1, Math.min(SERVICE_MAX_BATCH, maxBatchSize));
+        this.maxWindowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWindowMs));
+        this.minWindowNanos = Math.min(maxWindowNanos, TimeUnit.MILLISECONDS.toNanos(Math.max(0, minWindowMs)));
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, targetLatencyMs));
+        this.batchLimit = this.maxBatchSize;
+
+        AtomicInteger seq = new AtomicInteger();
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "roberta-batcher-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    CompletableFuture<RobertaAnalysisResponse> submit(Map<String, String> request) {
+        Pending p = new Pending(request);
+        List<Pending> ready = null;
+        synchronized (lock) {
+            pending.add(p);
+            if (pending.size() >= batchLimit) {
+                ready = drain();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = timer.schedule(this::flush, windowNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (ready != null) dispatch(ready);
+        return p.future;
+    }
+
+    long batchCount()        { return batches.sum(); }
+    long itemCount()         { return items.sum(); }
+    double windowMillis()    { return windowNanos() / 1e6; }
+
+    int batchLimit() {
+        synchronized (lock) { return batchLimit; }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdown();
+        flush();
+    }
+
+    // ---- internals ----
+
+    private void flush() {
+        List<Pending> ready;
+        synchronized (lock) {
+            scheduledFlush = null;
+            if (pending.isEmpty()) return;
+            ready = drain();
+        }
+        dispatch(ready);
+    }
+
+    private List<Pending> drain() {
+        List<Pending> out = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return out;
+    }
+
+    private void dispatch(List<Pending> batch) {
+        batches.increment();
+        items.add(batch.size());
+        if (batch.size() == 1) {
+            sendSingle(batch.get(0));
+            return;
+        }
+
+        List<Map<String, String>> body = new ArrayList<>(batch.size());
+        for (Pending p : batch) body.add(p.request);
+
+        long start = System.nanoTime();
+        webClient.post()
+                .uri("/batch_predict")
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(BatchResponse.class)
+                .timeout(timeout)
+                .subscribe(response -> {
+                    observe(System.nanoTime() - start, batch.size());
+                    List<RobertaAnalysisResponse> results =
+                            response.getResults() != null ? response.getResults() : List.of();
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (i < results.size()) {
+                            batch.get(i).future.complete(results.get(i));
+                        } else {
+                            batch.get(i).future.completeExceptionally(
+                                    new IllegalStateException("Batch response missing result " + i));
+                        }
+                    }
+                }, error -> {
+                    if (error instanceof WebClientResponseException
+                            && ((WebClientResponseException) error).getStatusCode().is4xxClientError()) {
+                        log.warn("Batch of {} rejected ({}), retrying items individually",
+                                batch.size(), ((WebClientResponseException) error).getRawStatusCode());
+                        batch.forEach(this::sendSingle);
+                        return;
+                    }
+                    observe(System.nanoTime() - start, batch.size());
+                    batch.forEach(p -> p.future.completeExceptionally(error));
+                });
+    }
+
+    private void sendSingle(Pending p) {
+        single.apply(p.request).subscribe(p.future::complete, p.future::completeExceptionally,
+                () -> p.future.complete(null));
+    }
+
+    private void observe(long latencyNanos, int size) {
+        double prev = latencyEwmaNanos;
+        latencyEwmaNanos = prev < 0 ? latencyNanos : 0.8 * prev + 0.2 * latencyNanos;
+        if (targetLatencyNanos <= 0) return;
+        synchronized (lock) {
+            if (latencyNanos > targetLatencyNanos) {
+                batchLimit = Math.max(1, batchLimit / 2);
+            } else if (size >= batchLimit) {
+                batchLimit = Math.min(maxBatchSize, batchLimit + 1);
+            }
+        }
+    }
+
+    private long windowNanos() {
+        double ewma = latencyEwmaNanos;
+        if (ewma < 0) return maxWindowNanos;
+        return Math.max(minWindowNanos, Math.min(maxWindowNanos, (long) (ewma / 10)));
+    }
+
+    private static final class Pending {
+        final Map<String, String> request;
+        final CompletableFuture<RobertaAnalysisResponse> future = new CompletableFuture<>();
+        Pending(Map<String, String> request) { this.request = request; }
+    }
+
+    @Data
+    static class BatchResponse {
+        private List<RobertaAnalysisResponse> results;
+        private Integer count;
+    }
+}
@@ -0,0 +1,98 @@
+package com.fakenews.service;
+
+import com.fakenews.datastructures.BoundedLruCache;
+import com.fakenews.nlp.ContentDigest;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches model-service predictions by a SHA-256 digest of (title, text, source), with single-flight loading:
+ * concurrent misses for the same key share one outbound call instead of each sending their own.
+ * Bounded by entry count and expire-after-write; failed calls are not cached.
+ * Counters are published as roberta.cache.* meters.
+ * A strong digest rather than a 64-bit hash, since a colliding key would return one article's
+ * prediction for another.
+ */
+@Component
+public class RobertaResponseCache implements MeterBinder {
+    private final boolean enabled;
+    private final BoundedLruCache<ContentDigest, RobertaAnalysisResponse> cache;
+    private final Map<ContentDigest, CompletableFuture<RobertaAnalysisResponse>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public RobertaResponseCache(
+            @Value("${roberta.cache.enabled:true}") boolean enabled,
+            @Value("${roberta.cache.max-entries:20000}") long maxEntries,
+            @Value("${roberta.cache.ttl-seconds:900}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = new BoundedLruCache<>(Math.max(1, maxEntries), r -> 1L, ttlSeconds * 1000);
+    }
+
+    public static ContentDigest key(String title, String text, String source) {
+        return ContentDigest.of(title, text, source);
+    }
+
+    /**
+     * Cached prediction, else the pending call for the same key, else a new call from {@code loader}.
+     * Every caller gets its own dependent future, so completing or cancelling one cannot affect the others.
+     */
+    public CompletableFuture<RobertaAnalysisResponse> getOrLoad(
+            String title, String text, String source, Supplier<CompletableFuture<RobertaAnalysisResponse>> loader) {
+        if (!enabled) return loader.get();
+
+        ContentDigest key = key(title, text, source);
+        RobertaAnalysisResponse hit = cache.get(key);
+        if (hit != null) return CompletableFuture.completedFuture(hit);
+
+        CompletableFuture<RobertaAnalysisResponse> call = new CompletableFuture<>();
+        CompletableFuture<RobertaAnalysisResponse> pending = inFlight.putIfAbsent(key, call);
+        if (pending != null) {
+            coalesced.increment();
+            return pending.copy();
+        }
+
+        CompletableFuture<RobertaAnalysisResponse> loading;
+        try {
+            loading = loader.get();
+        } catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        loading.whenComplete((response, error) -> {
+            // cache before leaving the in-flight map, so a concurrent lookup always finds one of them
+            if (error == null && response != null) cache.put(key, response);
+            inFlight.remove(key, call);
+            if (error != null) call.completeExceptionally(error);
+            else call.complete(response);
+        });
+        return call.copy();
+    }
+
+    public long hitCount()       { return cache.hitCount(); }
+    public long missCount()      { return cache.missCount(); }
+    public long coalescedCount() { return coalesced.sum(); }
+    public int size()            { return cache.size(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("roberta.cache.hits", this, RobertaResponseCache::hitCount)
+                .description("Predictions served from the cache")
+                .register(registry);
+        FunctionCounter.builder("roberta.cache.misses", this, RobertaResponseCache::missCount)
+                .register(registry);
+        FunctionCounter.builder("roberta.cache.coalesced", this, RobertaResponseCache::coalescedCount)
+                .description("Misses that joined an identical call already in flight")
+                .register(registry);
+        Gauge.builder("roberta.cache.size", this, RobertaResponseCache::size)
+                .register(registry);
+    }
+}
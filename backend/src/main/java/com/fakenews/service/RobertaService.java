@@ -1,62 +1,138 @@
 package com.fakenews.service;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fakenews.resilience.CallGuard;
+import com.fakenews.resilience.CallRejectedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import javax.annotation.PreDestroy;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
 public class RobertaService {
 
-    private final WebClient webClient;
+    private static final Duration PREDICT_TIMEOUT = Duration.ofSeconds(30);
 
-    @Value("${roberta.service.url:http://localhost:8000}")
-    private String robertaServiceUrl;
+    private final WebClient webClient;
+    private final RobertaBatcher batcher; // null = one /predict call per article
+    private final RobertaResponseCache responseCache;
+    private final CallGuard callGuard;
 
-    public RobertaService(WebClient.Builder webClientBuilder) {
+    /**
+     * Calls run on Reactor Netty's event loops: an in-flight request holds a pooled connection
+     * (or a slot in the pending-acquire queue), never a thread. Concurrent calls are coalesced
+     * into /batch_predict requests unless roberta.batch.enabled=false; repeated texts are
+     * answered from {@link RobertaResponseCache}. Outbound calls go through {@link CallGuard}
+     * (circuit breaker, bulkhead, adaptive timeout, optional hedging).
+     * (Meters are registered here rather than via a MeterBinder: the WebClient.Builder
+     * itself depends on the registry, so a binder would form a bean cycle.)
+     */
+    public RobertaService(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry,
+                          RobertaResponseCache responseCache, CallGuard callGuard,
+                          @Value("${roberta.service.url:http://localhost:8000}") String robertaServiceUrl,
+                          @Value("${roberta.client.max-connections:500}") int maxConnections,
+                          @Value("${roberta.client.pending-acquire-max:10000}") int pendingAcquireMax,
+                          @Value("${roberta.batch.enabled:true}") boolean batchEnabled,
+                          @Value("${roberta.batch.max-size:10}") int batchMaxSize,
+                          @Value("${roberta.batch.min-window-ms:1}") long batchMinWindowMs,
+                          @Value("${roberta.batch.max-window-ms:10}") long batchMaxWindowMs,
+                          @Value("${roberta.batch.target-latency-ms:0}") long batchTargetLatencyMs) {
+        ConnectionProvider pool = ConnectionProvider.builder("roberta")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(PREDICT_TIMEOUT)
+                .build();
         this.webClient = webClientBuilder
                 .baseUrl(robertaServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(pool)))
                 .build();
+        this.batcher = batchEnabled
+                ? new RobertaBatcher(webClient, this::predict, PREDICT_TIMEOUT,
+                        batchMaxSize, batchMinWindowMs, batchMaxWindowMs, batchTargetLatencyMs)
+                : null;
+        this.responseCache = responseCache;
+        this.callGuard = callGuard;
+        bindMetrics(meterRegistry);
     }
 
+    /** Blocking call; prefer {@link #analyzeAsync} on request paths. */
     public RobertaAnalysisResponse analyze(String title, String content, String source) {
         try {
-            log.info("Sending request to RoBERTa service");
-
-            Map<String, String> request = new HashMap<>();
-            request.put("title", title);
-            request.put("text", content);
-            if (source != null) {
-                request.put("source", source);
-            }
-
-            RobertaAnalysisResponse response = webClient.post()
-                    .uri("/predict")
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(RobertaAnalysisResponse.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
+            return analyzeAsync(title, content, source).join();
+        } catch (CompletionException e) {
+            throw wrap(e.getCause());
+        }
+    }
+
+    /** Non-blocking call: completes on a Netty event-loop thread, exceptionally on error or timeout. */
+    public CompletableFuture<RobertaAnalysisResponse> analyzeAsync(String title, String content, String source) {
+        return responseCache.getOrLoad(title, content, source, () -> send(title, content, source));
+    }
+
+    private CompletableFuture<RobertaAnalysisResponse> send(String title, String content, String source) {
+        Map<String, String> request = new HashMap<>();
+        request.put("title", title);
+        request.put("text", content);
+        if (source != null) {
+            request.put("source", source);
+        }
 
-            log.info("RoBERTa prediction: {} (confidence: {})",
-                    response.getPrediction(),
-                    response.getConfidence());
+        return callGuard.call(() -> batcher != null ? batcher.submit(request) : predict(request).toFuture())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw wrap(error instanceof CompletionException ? error.getCause() : error);
+                    }
+                    return response;
+                });
+    }
+
+    /** True while the circuit breaker is open: calls would be rejected without reaching the service. */
+    public boolean isCircuitOpen() {
+        return callGuard.isOpen();
+    }
 
-            return response;
+    private Mono<RobertaAnalysisResponse> predict(Map<String, String> request) {
+        log.info("Sending request to RoBERTa service");
 
-        } catch (WebClientResponseException e) {
+        return webClient.post()
+                .uri("/predict")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(RobertaAnalysisResponse.class)
+                .timeout(PREDICT_TIMEOUT)
+                .doOnNext(response -> log.info("RoBERTa prediction: {} (confidence: {})",
+                        response.getPrediction(),
+                        response.getConfidence()));
+    }
+
+    private static RuntimeException wrap(Throwable e) {
+        if (e instanceof RobertaServiceException) return (RobertaServiceException) e;
+        if (e instanceof CallRejectedException || e instanceof TimeoutException) {
+            log.warn("RoBERTa call not completed: {}", e.getMessage());
+            return new RobertaServiceException("RoBERTa service unavailable: " + e.getMessage(), e);
+        }
+        if (e instanceof WebClientResponseException) {
             log.error("RoBERTa service error: {}", e.getMessage());
-            throw new RuntimeException("RoBERTa service error: " + e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("Unexpected error calling RoBERTa service", e);
-            throw new RuntimeException("Failed to get RoBERTa prediction", e);
+            return new RobertaServiceException("RoBERTa service error: " + e.getMessage(), e);
         }
+        log.error("Unexpected error calling RoBERTa service", e);
+        return new RobertaServiceException("Failed to get RoBERTa prediction", e);
     }
 
     public boolean isHealthy() {
@@ -74,4 +150,26 @@ public class RobertaService {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private void bindMetrics(MeterRegistry registry) {
+        if (batcher == null) return;
+        FunctionCounter.builder("roberta.batch.requests", batcher, RobertaBatcher::batchCount)
+                .description("Requests sent to the model service by the micro-batcher")
+                .register(registry);
+        FunctionCounter.builder("roberta.batch.items", batcher, RobertaBatcher::itemCount)
+                .description("Articles sent in those requests")
+                .register(registry);
+        Gauge.builder("roberta.batch.limit", batcher, RobertaBatcher::batchLimit)
+                .description("Current maximum articles per batch")
+                .register(registry);
+        Gauge.builder("roberta.batch.window", batcher, RobertaBatcher::windowMillis)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    /** Sends whatever the batcher is still holding and stops its timer. */
+    @PreDestroy
+    public void close() {
+        if (batcher != null) batcher.close();
+    }
+}
@@ -0,0 +1,8 @@
+package com.fakenews.service;
+
+/** The RoBERTa model service could not produce a prediction (HTTP error, timeout, bad response). */
+public class RobertaServiceException extends RuntimeException {
+    public RobertaServiceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,92 @@
+package com.fakenews.store;
+
+import com.fakenews.model.Article;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of an analyzed {@link Article} for the cold tier.
+ * Layout: version byte, id/title/content/source (length-prefixed UTF-8, -1 = null),
+ * publish time (epoch ms, Long.MIN_VALUE = none), credibility score, feature scores, claims.
+ * The embedding is not written: it lives in the peer index and is recomputed on demand.
+ */
+final class ArticleCodec {
+    private static final byte VERSION = 1;
+
+    private ArticleCodec() {}
+
+    static byte[] encode(Article a) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + length(a.getContent()) * 2);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, a.getId());
+            writeString(out, a.getTitle());
+            writeString(out, a.getContent());
+            writeString(out, a.getSource());
+            Date published = a.getPublishDate();
+            out.writeLong(published != null ? published.getTime() : Long.MIN_VALUE);
+            out.writeDouble(a.getCredibilityScore());
+
+            Map<String, Double> features = a.getFeatureScores();
+            out.writeInt(features.size());
+            for (Map.Entry<String, Double> e : features.entrySet()) {
+                writeString(out, e.getKey());
+                out.writeDouble(e.getValue());
+            }
+
+            List<String> claims = a.getClaims();
+            out.writeInt(claims.size());
+            for (String c : claims) writeString(out, c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream: not expected
+        }
+        return bytes.toByteArray();
+    }
+
+    static Article decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte version = in.readByte();
+        if (version != VERSION) throw new IOException("Unsupported article record version " + version);
+
+        Article a = new Article(readString(in), readString(in), readString(in), readString(in));
+        long published = in.readLong();
+        a.setPublishDate(published != Long.MIN_VALUE ? new Date(published) : null);
+        a.setCredibilityScore(in.readDouble());
+
+        int features = in.readInt();
+        for (int i = 0; i < features; i++) {
+            a.addFeatureScore(readString(in), in.readDouble());
+        }
+        int claims = in.readInt();
+        for (int i = 0; i < claims; i++) {
+            a.addClaim(readString(in));
+        }
+        return a;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) return null;
+        byte[] b = new byte[n];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+}
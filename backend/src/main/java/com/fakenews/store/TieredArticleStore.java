@@ -0,0 +1,261 @@
+package com.fakenews.store;
+
+import com.fakenews.datastructures.BoundedLruCache;
+import com.fakenews.model.Article;
+import com.fakenews.nlp.Embedding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Two-tier store for analyzed articles.
+ * Notes:
+ * - Hot tier: in-heap LRU bounded by an approximate byte budget (text, scores and the
+ *   content embedding, if one is attached).
+ * - Cold tier: articles evicted from the hot tier are appended to a local spill file
+ *   (see {@link ArticleCodec}); only an id -> (offset, length) slot stays in memory.
+ *   Records superseded by a re-spilled id are garbage; once they make up half the file,
+ *   the live records are copied into a fresh file.
+ * - get() falls through to disk transparently. Cold reads are not promoted back into the
+ *   hot tier, so a scan over old articles cannot flush the recent working set.
+ * - The spill file is private to this instance: created on first spill, deleted on close().
+ * - An owner that keeps per-article state elsewhere on the heap (indexes, graph nodes) can have
+ *   it charged to the hot budget and be told when an article spills, to drop that state; the
+ *   budget then bounds the heap held for analyzed articles, not just the articles themselves.
+ */
+public class TieredArticleStore implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TieredArticleStore.class);
+
+    public static final long DEFAULT_HOT_MAX_BYTES = 256L * 1024 * 1024;
+
+    // object headers, fields, map entry, feature map, roughly
+    private static final long ARTICLE_OVERHEAD_BYTES = 512;
+    private static final long EMBEDDING_OVERHEAD_BYTES = 32;
+    // compact the spill file once superseded records reach this size and half the file
+    private static final long COMPACT_MIN_GARBAGE_BYTES = 64 * 1024;
+
+    private final BoundedLruCache<String, Article> hot;
+    private final Map<String, Slot> coldIndex = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final BiConsumer<String, Article> onSpill;
+
+    private final Object appendLock = new Object();
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();  // write: swapping in a compacted file
+    private volatile FileChannel cold;  // opened lazily by the first spill
+    private Path coldFile;
+    private long coldBytes;             // guarded by appendLock
+    private long garbageBytes;          // guarded by appendLock
+    private boolean closed;             // guarded by appendLock
+
+    private final LongAdder spills = new LongAdder();
+    private final LongAdder coldReads = new LongAdder();
+
+    public TieredArticleStore() {
+        this(DEFAULT_HOT_MAX_BYTES, defaultDirectory());
+    }
+
+    public TieredArticleStore(long hotMaxBytes, Path directory) {
+        this(hotMaxBytes, directory, a -> 0L, (id, a) -> { });
+    }
+
+    /**
+     * {@code externalBytes} is the heap the owner holds elsewhere for an article, weighed with it
+     * when it is stored; {@code onSpill} runs once the article has left the hot tier.
+     */
+    public TieredArticleStore(long hotMaxBytes, Path directory,
+                              ToLongFunction<? super Article> externalBytes, BiConsumer<String, Article> onSpill) {
+        this.directory = directory != null ? directory : defaultDirectory();
+        this.onSpill = onSpill;
+        this.hot = new BoundedLruCache<>(hotMaxBytes, a -> approximateBytes(a) + externalBytes.applyAsLong(a), 0, this::spill);
+    }
+
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "fakenews-articles");
+    }
+
+    public void put(Article article) {
+        if (article == null || article.getId() == null) return;
+        hot.put(article.getId(), article);
+    }
+
+    /** Hot tier first, then the spill file; null if the id was never stored. */
+    public Article get(String id) {
+        if (id == null) return null;
+        Article a = hot.get(id);
+        if (a != null) return a;
+
+        try {
+            byte[] record;
+            fileLock.readLock().lock();   // a compaction swaps the file and every slot together
+            try {
+                Slot slot = coldIndex.get(id);
+                if (slot == null) return null;
+                coldReads.increment();
+                record = read(slot);
+            } finally {
+                fileLock.readLock().unlock();
+            }
+            return ArticleCodec.decode(record);
+        } catch (IOException e) {
+            log.warn("Article store: failed to read {} from disk", id, e);
+            return null;
+        }
+    }
+
+    public boolean contains(String id) {
+        return id != null && (hot.get(id) != null || coldIndex.containsKey(id));
+    }
+
+    public int hotSize()        { return hot.size(); }
+    public long hotBytes()      { return hot.weight(); }
+    public int coldSize()       { return coldIndex.size(); }
+    public long spillCount()    { return spills.sum(); }
+    public long coldReadCount() { return coldReads.sum(); }
+
+    public long coldBytes() {
+        synchronized (appendLock) { return coldBytes; }
+    }
+
+    /** Bytes of superseded records still in the spill file. */
+    public long garbageBytes() {
+        synchronized (appendLock) { return garbageBytes; }
+    }
+
+    @Override
+    public void close() {
+        synchronized (appendLock) {
+            closed = true;
+            FileChannel ch = cold;
+            cold = null;
+            if (ch != null) {
+                try {
+                    ch.close();
+                    Files.deleteIfExists(coldFile);
+                } catch (IOException e) {
+                    log.warn("Article store: failed to remove spill file {}", coldFile, e);
+                }
+            }
+        }
+        hot.clear();
+        coldIndex.clear();
+    }
+
+    // ---- internals ----
+
+    /**
+     * Eviction listener: runs outside the hot tier's locks, and the hot tier keeps answering get()
+     * for the article until it returns, so readers never see a gap.
+     */
+    private void spill(String id, Article article) {
+        byte[] record = ArticleCodec.encode(article);
+        try {
+            synchronized (appendLock) {
+                if (closed) return;
+                FileChannel ch = openCold();
+                long offset = coldBytes;
+                coldBytes = append(ch, ByteBuffer.wrap(record), offset);
+                // a re-stored id leaves its old record behind as garbage; the index points at the newest
+                Slot previous = coldIndex.put(id, new Slot(offset, record.length));
+                if (previous != null) garbageBytes += previous.length;
+                if (garbageBytes >= COMPACT_MIN_GARBAGE_BYTES && garbageBytes * 2 >= coldBytes) compact();
+            }
+            spills.increment();
+        } catch (IOException e) {
+            log.warn("Article store: failed to spill {}", id, e);
+        }
+        onSpill.accept(id, article);
+    }
+
+    /** Copies the live records into a new spill file and swaps it in (appendLock held). */
+    private void compact() throws IOException {
+        Path nextFile = Files.createTempFile(directory, "articles-", ".bin");
+        FileChannel next = FileChannel.open(nextFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        fileLock.writeLock().lock();
+        try {
+            Map<String, Slot> moved = new HashMap<>();
+            long pos = 0;
+            for (Map.Entry<String, Slot> e : coldIndex.entrySet()) {
+                byte[] record = read(e.getValue());
+                moved.put(e.getKey(), new Slot(pos, record.length));
+                pos = append(next, ByteBuffer.wrap(record), pos);
+            }
+            FileChannel old = cold;
+            Path oldFile = coldFile;
+            coldIndex.putAll(moved);
+            cold = next;
+            coldFile = nextFile;
+            coldBytes = pos;
+            garbageBytes = 0;
+            old.close();
+            Files.deleteIfExists(oldFile);
+        } catch (IOException e) {
+            next.close();
+            Files.deleteIfExists(nextFile);
+            throw e;
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    private static long append(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) pos += ch.write(buf, pos);
+        return pos;
+    }
+
+    private FileChannel openCold() throws IOException {
+        FileChannel ch = cold;
+        if (ch == null) {
+            Files.createDirectories(directory);
+            coldFile = Files.createTempFile(directory, "articles-", ".bin");
+            ch = FileChannel.open(coldFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            cold = ch;
+        }
+        return ch;
+    }
+
+    private byte[] read(Slot slot) throws IOException {
+        FileChannel ch = cold;
+        if (ch == null) throw new IOException("store closed");
+        ByteBuffer buf = ByteBuffer.allocate(slot.length);
+        long pos = slot.offset;
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos);  // positional reads are safe to run concurrently
+            if (n < 0) throw new IOException("truncated record at " + slot.offset);
+            pos += n;
+        }
+        return buf.array();
+    }
+
+    private static long approximateBytes(Article a) {
+        long chars = length(a.getId()) + length(a.getTitle()) + length(a.getContent()) + length(a.getSource());
+        for (String c : a.getClaims()) chars += length(c);
+        long bytes = ARTICLE_OVERHEAD_BYTES + chars * 2 + a.getFeatureScores().size() * 64L;
+        Embedding e = a.getEmbedding();
+        if (e != null) bytes += EMBEDDING_OVERHEAD_BYTES + (long) e.dimension() * Float.BYTES;
+        return bytes;
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    private static final class Slot {
+        final long offset;
+        final int length;
+        Slot(long offset, int length) { this.offset = offset; this.length = length; }
+    }
+}
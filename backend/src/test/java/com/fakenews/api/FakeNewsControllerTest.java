@@ -16,6 +16,7 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -66,6 +67,32 @@ class FakeNewsControllerTest {
                 assertThat(response.getClassification()).isNotNull();
         }
 
+        @Test
+        void analyzeAsync_modelUnavailable_returnsLocalResult() throws Exception {
+                // Given
+                ArticleRequest request = new ArticleRequest();
+                request.setTitle("Async Article");
+                request.setContent("This is an async test article with sufficient content for analysis.");
+                request.setSource("test-source.com");
+
+                when(robertaService.analyzeAsync(anyString(), anyString(), anyString()))
+                                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Service unavailable in test")));
+
+                // When - the handler returns a future; the response is written on completion
+                MvcResult pending = mockMvc.perform(post("/api/v1/analyze/async")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                // Then
+                mockMvc.perform(asyncDispatch(pending))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.title").value("Async Article"))
+                                .andExpect(jsonPath("$.credibilityScore").isNumber())
+                                .andExpect(jsonPath("$.robertaConfidence").doesNotExist());
+        }
+
         @Test
         void analyze_missingTitle_stillProcesses() throws Exception {
                 // Given
@@ -78,7 +105,45 @@ class FakeNewsControllerTest {
                 mockMvc.perform(post("/api/v1/analyze")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(request)))
-                                .andExpect(status().is5xxServerError()); // NullPointerException expected without title
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.title").doesNotExist());
+        }
+
+        @Test
+        void analyze_repeatedContent_servedFromResultCache() throws Exception {
+                // Given - same story re-posted under a different title and spacing
+                ArticleRequest original = new ArticleRequest();
+                original.setTitle("Wire story");
+                original.setContent("Officials said the bridge will reopen in 2025, according to the city.");
+                original.setSource("wire.example.com");
+
+                ArticleRequest repost = new ArticleRequest();
+                repost.setTitle("Bridge reopening (syndicated)");
+                repost.setContent("Officials said the bridge   will reopen in 2025,\naccording to the CITY");
+                repost.setSource("partner.example.com");
+
+                // When
+                FakeNewsResult first = analyze(original, false);
+                FakeNewsResult cached = analyze(repost, false);
+                FakeNewsResult forced = analyze(repost, true);
+
+                // Then
+                assertThat(first.getDuplicateOf()).isNull();
+                assertThat(cached.getDuplicateOf()).isEqualTo(first.getArticleId());
+                assertThat(cached.getArticleId()).isNotEqualTo(first.getArticleId());
+                assertThat(cached.getTitle()).isEqualTo("Bridge reopening (syndicated)");
+                assertThat(cached.getCredibilityScore()).isEqualTo(first.getCredibilityScore());
+                assertThat(forced.getDuplicateOf()).isNull();
+        }
+
+        private FakeNewsResult analyze(ArticleRequest request, boolean force) throws Exception {
+                MvcResult result = mockMvc.perform(post("/api/v1/analyze")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(FakeNewsController.FORCE_REANALYSIS_HEADER, String.valueOf(force))
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isOk())
+                                .andReturn();
+                return objectMapper.readValue(result.getResponse().getContentAsString(), FakeNewsResult.class);
         }
 
         @Test
@@ -99,12 +164,41 @@ class FakeNewsControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(requests)))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$.count").value(2))
+                                .andExpect(jsonPath("$.totalAnalyzed").value(2))
                                 .andExpect(jsonPath("$.results").isArray())
                                 .andReturn();
 
                 String responseBody = result.getResponse().getContentAsString();
-                assertThat(responseBody).contains("\"count\":2");
+                assertThat(responseBody).contains("\"totalAnalyzed\":2");
+        }
+
+        @Test
+        void batchAnalyzeStream_ndjson_oneResultLinePerInputLine() throws Exception {
+                // Given - two articles, a blank line and a malformed line
+                ArticleRequest req1 = new ArticleRequest();
+                req1.setTitle("Streamed 1");
+                req1.setContent("Content for the first streamed article.");
+                ArticleRequest req2 = new ArticleRequest();
+                req2.setTitle("Streamed 2");
+                req2.setContent("Content for the second streamed article.");
+
+                String body = objectMapper.writeValueAsString(req1) + "\n\n"
+                                + "{not json\n"
+                                + objectMapper.writeValueAsString(req2) + "\n";
+
+                // When
+                MvcResult result = mockMvc.perform(post("/api/v1/batch-analyze/stream")
+                                .contentType(FakeNewsController.NDJSON)
+                                .content(body))
+                                .andExpect(status().isOk())
+                                .andReturn();
+
+                // Then - results arrive in completion order, the bad line is reported by number
+                List<String> lines = result.getResponse().getContentAsString().lines().toList();
+                assertThat(lines).hasSize(3);
+                assertThat(lines).filteredOn(l -> l.contains("\"error\"")).singleElement()
+                                .satisfies(l -> assertThat(l).contains("\"line\":3"));
+                assertThat(lines).filteredOn(l -> l.contains("\"credibilityScore\"")).hasSize(2);
         }
 
         @Test
@@ -112,7 +206,7 @@ class FakeNewsControllerTest {
                 // When & Then
                 mockMvc.perform(get("/api/v1/stats"))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$.totalArticles").isNumber());
+                                .andExpect(jsonPath("$.totalArticlesAnalyzed").isNumber());
         }
 
         @Test
@@ -133,4 +227,37 @@ class FakeNewsControllerTest {
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$").isArray());
         }
+
+        @Test
+        void getLeastCredible_window_ranksRecentArticlesOnly() throws Exception {
+                ArticleRequest request = new ArticleRequest();
+                request.setTitle("Windowed Article");
+                request.setContent("Content for testing the windowed least credible endpoint.");
+
+                mockMvc.perform(post("/api/v1/analyze")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/api/v1/least-credible")
+                                .param("limit", "50")
+                                .param("window", "1h"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[?(@.title == 'Windowed Article')]").exists());
+
+                mockMvc.perform(get("/api/v1/least-credible")
+                                .param("window", "soon"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void domainReputation_withoutFeed_reportsEmptySnapshotAndRejectsReload() throws Exception {
+                mockMvc.perform(get("/api/v1/domain-reputation"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.version").value(0))
+                                .andExpect(jsonPath("$.domains").value(0));
+
+                mockMvc.perform(post("/api/v1/domain-reputation/reload"))
+                                .andExpect(status().isConflict());
+        }
 }
@@ -0,0 +1,89 @@
+package com.fakenews.core;
+
+import com.fakenews.datastructures.CompactDomainIndex;
+import com.fakenews.datastructures.DomainTrie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainReputationTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reload_publishesNewVersionAndKeepsItOnFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        DomainReputation reputation = new DomainReputation(() -> {
+            if (calls.incrementAndGet() == 2) throw new IllegalStateException("feed unavailable");
+            DomainTrie trie = new DomainTrie();
+            trie.insert("clickbait.net", calls.get() / 10.0);
+            return trie;
+        });
+        assertThat(reputation.current().getVersion()).isEqualTo(0);
+        assertThat(reputation.mostSpecificScore("www.clickbait.net", 0, 17)).isNaN();
+
+        reputation.reload();
+        assertThat(reputation.current().getVersion()).isEqualTo(1);
+        assertThat(reputation.mostSpecificScore("www.clickbait.net", 0, 17)).isEqualTo(0.1);
+
+        boolean failed = reputation.reloadAsync().handle((snapshot, error) -> error != null).join();
+        assertThat(failed).isTrue();
+        assertThat(reputation.current().getVersion()).isEqualTo(1);
+        assertThat(reputation.failedReloads()).isEqualTo(1);
+
+        assertThat(reputation.reloadAsync().join().getVersion()).isEqualTo(2);
+        assertThat(reputation.mostSpecificScore("www.clickbait.net", 0, 17)).isEqualTo(0.3);
+        reputation.close();
+    }
+
+    @Test
+    void reloadAsync_requestsWhileQueuedShareOneReload() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        DomainReputation reputation = new DomainReputation(() -> {
+            release.await(10, TimeUnit.SECONDS);
+            loads.incrementAndGet();
+            return new DomainTrie();
+        });
+
+        CompletableFuture<DomainReputation.Snapshot> running = reputation.reloadAsync();
+        Thread.sleep(100);                                   // first reload has started and blocks
+        CompletableFuture<DomainReputation.Snapshot> a = reputation.reloadAsync();
+        CompletableFuture<DomainReputation.Snapshot> b = reputation.reloadAsync();
+        release.countDown();
+
+        assertThat(a).isSameAs(b);
+        assertThat(running.get(10, TimeUnit.SECONDS).getVersion()).isEqualTo(1);
+        assertThat(a.get(10, TimeUnit.SECONDS).getVersion()).isEqualTo(2);
+        assertThat(loads.get()).isEqualTo(2);
+        reputation.close();
+    }
+
+    @Test
+    void watch_reloadsWhenTheFeedChanges() throws Exception {
+        Path feed = dir.resolve("feed.csv");
+        Path index = dir.resolve("feed.idx");
+        Files.writeString(feed, "fakenewssite.com,0.9\n");
+        DomainReputation reputation = new DomainReputation(() -> CompactDomainIndex.loadOrBuild(feed, index));
+        reputation.reload();
+        reputation.watch(feed);
+
+        Thread.sleep(50);
+        Files.writeString(feed, "fakenewssite.com,0.9\nclickbait.net,0.8\n");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (reputation.current().getVersion() < 2 && System.currentTimeMillis() < deadline) Thread.sleep(50);
+        assertThat(reputation.current().getVersion()).isEqualTo(2);
+        assertThat(reputation.current().getDomains()).isEqualTo(2);
+        reputation.close();
+    }
+}
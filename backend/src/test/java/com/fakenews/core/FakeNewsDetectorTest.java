@@ -1,14 +1,26 @@
 package com.fakenews.core;
 
+import com.fakenews.datastructures.CompactDomainIndex;
 import com.fakenews.model.Article;
+import com.fakenews.nlp.HeuristicInferenceBackend;
+import com.fakenews.nlp.InferenceBackend;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 class FakeNewsDetectorTest {
 
@@ -55,6 +67,23 @@ class FakeNewsDetectorTest {
         assertThat(score).isLessThanOrEqualTo(1.0);
     }
 
+    @Test
+    void analyzeArticle_recordsScoreForEveryStage() {
+        // Given
+        Article article = new Article(UUID.randomUUID().toString(), "Report",
+                "According to officials, the council said 40% of roads were repaired in 2023.", "apnews.com");
+
+        // When
+        DetectionResult result = detector.analyzeArticle(article);
+
+        // Then
+        assertThat(result.getArticle().getFeatureScores()).containsKeys(
+                FakeNewsDetector.STAGE_CONTENT,
+                FakeNewsDetector.STAGE_DOMAIN,
+                FakeNewsDetector.STAGE_CLAIMS,
+                FakeNewsDetector.STAGE_CROSS_REF);
+    }
+
     @Test
     void analyzeMultipleArticles_processesAllArticles() {
         // Given
@@ -71,6 +100,30 @@ class FakeNewsDetectorTest {
         assertThat(results.get(1).getArticle()).isEqualTo(article2);
     }
 
+    @Test
+    void analyzeMultipleArticles_parallelBatch_keepsInputOrder() {
+        // Given
+        DetectorSettings settings = new DetectorSettings();
+        settings.setBatchParallelism(4);
+        FakeNewsDetector parallel = new FakeNewsDetector(settings);
+        List<Article> articles = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            articles.add(new Article(UUID.randomUUID().toString(), "Title " + i,
+                    "Officials said the report covers " + i + " regions.", "source" + (i % 3) + ".com"));
+        }
+
+        // When
+        List<DetectionResult> results = parallel.analyzeMultipleArticles(articles);
+
+        // Then
+        assertThat(results).hasSize(articles.size());
+        for (int i = 0; i < articles.size(); i++) {
+            assertThat(results.get(i).getArticle()).isSameAs(articles.get(i));
+        }
+        assertThat(parallel.getCredibilityRanking().size()).isEqualTo(articles.size());
+        parallel.shutdown();
+    }
+
     @Test
     void getLeastCredibleArticles_returnsArticlesInOrder() {
         // Given - analyze some articles first
@@ -95,6 +148,41 @@ class FakeNewsDetectorTest {
         }
     }
 
+    @Test
+    void getLeastCredibleArticles_window_skipsOlderArticles() {
+        Article recent = new Article(UUID.randomUUID().toString(), "Recent", "Fresh content", "unknown.com");
+        Article old = new Article(UUID.randomUUID().toString(), "Old", "Stale content", "unknown.com");
+        old.setPublishDate(new Date(System.currentTimeMillis() - Duration.ofHours(6).toMillis()));
+
+        detector.analyzeArticle(recent);
+        detector.analyzeArticle(old);
+
+        assertThat(detector.getLeastCredibleArticles(10, Duration.ofHours(1))).containsExactly(recent);
+        assertThat(detector.getLeastCredibleArticles(10, Duration.ofDays(1))).hasSize(2);
+    }
+
+    @Test
+    void domainReputation_feedOverridesBuiltInScores() {
+        DetectorSettings settings = new DetectorSettings();
+        settings.setDomainReputation(DomainReputation.of(new CompactDomainIndex.Builder()
+                .add("fakenewssite.com", 0.25)
+                .add("blog.example.org", 0.75)
+                .build()));
+        FakeNewsDetector withFeed = new FakeNewsDetector(settings);
+
+        Article listed = new Article(UUID.randomUUID().toString(), "A", "Content", "https://www.fakenewssite.com/x");
+        Article sub = new Article(UUID.randomUUID().toString(), "B", "Content", "http://a.BLOG.example.org:8080/");
+        Article builtIn = new Article(UUID.randomUUID().toString(), "C", "Content", "https://news.reuters.com/");
+
+        assertThat(withFeed.analyzeArticle(listed).getArticle().getFeatureScores().get(FakeNewsDetector.STAGE_DOMAIN))
+                .isEqualTo(0.25);
+        assertThat(withFeed.analyzeArticle(sub).getArticle().getFeatureScores().get(FakeNewsDetector.STAGE_DOMAIN))
+                .isEqualTo(0.75);
+        assertThat(withFeed.analyzeArticle(builtIn).getArticle().getFeatureScores().get(FakeNewsDetector.STAGE_DOMAIN))
+                .isEqualTo(0.10);
+        withFeed.shutdown();
+    }
+
     @Test
     void extractDomain_validUrl_returnsDomain() {
         // This tests domain extraction indirectly through article analysis
@@ -109,4 +197,163 @@ class FakeNewsDetectorTest {
         // Domain analysis should have occurred
         assertThat(result).isNotNull();
     }
+
+    @Test
+    void extractDomain_groupsSourcesByRegistrableDomain() {
+        detector.analyzeArticle(new Article(UUID.randomUUID().toString(), "Test", "Content",
+                "https://News.BBC.co.uk/politics/article"));
+        detector.analyzeArticle(new Article(UUID.randomUUID().toString(), "Test", "Content",
+                "https://someone.github.io:443/post"));
+
+        assertThat(detector.getKnowledgeGraph().getNode("source_bbc.co.uk")).isNotNull();
+        assertThat(detector.getKnowledgeGraph().getNode("source_co.uk")).isNull();
+        assertThat(detector.getKnowledgeGraph().getNode("source_someone.github.io")).isNotNull();
+    }
+
+    @Test
+    void domainReputation_urlPrefixOverridesDomainScore() {
+        DetectorSettings settings = new DetectorSettings();
+        settings.setDomainReputation(DomainReputation.of(new CompactDomainIndex.Builder()
+                .add("bbc.com/opinion", 0.70)
+                .build()));
+        FakeNewsDetector withFeed = new FakeNewsDetector(settings);
+
+        Article opinion = new Article(UUID.randomUUID().toString(), "A", "Content", "https://www.bbc.com/opinion/piece?s=1");
+        Article news = new Article(UUID.randomUUID().toString(), "B", "Content", "https://www.bbc.com/news/opinion");
+
+        assertThat(withFeed.analyzeArticle(opinion).getArticle().getFeatureScores().get(FakeNewsDetector.STAGE_DOMAIN))
+                .isCloseTo(0.70, within(1e-6));
+        // no prefix matches: the built-in bbc.com score
+        assertThat(withFeed.analyzeArticle(news).getArticle().getFeatureScores().get(FakeNewsDetector.STAGE_DOMAIN))
+                .isEqualTo(0.15);
+        withFeed.shutdown();
+    }
+
+    @Test
+    void quantizedEmbeddings_peersAreReRankedWithoutReEmbedding(@TempDir Path dir) {
+        List<String> embedded = new CopyOnWriteArrayList<>();
+        DetectorSettings settings = new DetectorSettings();
+        settings.setQuantizedEmbeddings(true);
+        settings.setArticleStoreDir(dir);
+        settings.setEmbeddingCacheMaxBytes(0);   // keeps only the newest embedding
+        settings.setInferenceBackend(new HeuristicInferenceBackend() {
+            @Override
+            public double[] embed(String text) {
+                embedded.add(text);
+                return new double[]{1, 2, 3, 4};   // every article is a close peer
+            }
+
+            @Override
+            public List<double[]> embed(List<String> texts) {
+                List<double[]> out = new ArrayList<>();
+                for (String t : texts) out.add(embed(t));
+                return out;
+            }
+        });
+        FakeNewsDetector quantized = new FakeNewsDetector(settings);
+
+        Article first = quantized.analyzeArticle(new Article("q1", "Bridge",
+                "Officials confirmed the bridge reopened after repairs.", "https://news.example.org/a")).getArticle();
+        embedded.clear();
+        Article second = quantized.analyzeArticle(new Article("q2", "Bridge",
+                "The bridge is open again, the council said.", "https://news.example.org/b")).getArticle();
+
+        // the peer counts, and its exact similarity came from the stored copy, not the model
+        assertThat(second.getFeatureScores().get(FakeNewsDetector.STAGE_CROSS_REF))
+                .isCloseTo(first.getCredibilityScore(), within(1e-9));
+        assertThat(embedded).doesNotContain(first.getContent());
+        quantized.shutdown();
+    }
+
+    @Test
+    void spilledArticles_leaveThePeerIndexAndTheGraph(@TempDir Path dir) {
+        DetectorSettings settings = new DetectorSettings();
+        settings.setArticleStoreHotMaxBytes(64 * 1024);
+        settings.setArticleStoreDir(dir);
+        FakeNewsDetector bounded = new FakeNewsDetector(settings);
+
+        int[] graphNodes = new int[2];
+        int[] peerNodes = new int[2];
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 300; i++) {
+                int n = round * 300 + i;
+                bounded.analyzeArticle(new Article("b" + n, "Report " + n,
+                        "Officials said " + n + " roads were repaired in 2023. The council confirmed it.",
+                        "https://site" + (n % 5) + ".example.com/" + n));
+            }
+            graphNodes[round] = bounded.getKnowledgeGraph().nodeCount();
+            peerNodes[round] = bounded.peerNodeCount();
+        }
+
+        // only the heap tier's articles keep graph nodes and peer entries, so both stay flat
+        int hot = bounded.getArticleStore().hotSize();
+        assertThat(bounded.getArticleStore().coldSize()).isEqualTo(600 - hot);
+        assertThat(peerNodes[0]).isLessThanOrEqualTo(2 * hot + 5);
+        assertThat(peerNodes[1]).isLessThanOrEqualTo(2 * hot + 5);
+        assertThat(graphNodes[1]).isLessThan(graphNodes[0] + graphNodes[0] / 2);
+        assertThat(graphNodes[1]).isLessThan(600);
+
+        // a spilled article is still readable, but no longer in the graph
+        assertThat(bounded.getArticleStore().get("b0")).isNotNull();
+        assertThat(bounded.getKnowledgeGraph().getNode("b0")).isNull();
+        assertThat(bounded.getKnowledgeGraph().getEdges("source_site0.example.com"))
+                .noneMatch(e -> e.getTo().equals("b0"));
+        bounded.shutdown();
+    }
+
+    @Test
+    void stageTimeout_startsWhenTheStageRuns() {
+        DetectorSettings settings = new DetectorSettings();
+        settings.setStageParallelism(1);                             // stages run one after another
+        settings.setStageTimeout(FakeNewsDetector.STAGE_CONTENT, 5_000);
+        settings.setStageTimeout(FakeNewsDetector.STAGE_DOMAIN, 150);
+        settings.setInferenceBackend(new SlowClassifier(400));
+        FakeNewsDetector serial = new FakeNewsDetector(settings);
+
+        Article article = serial.analyzeArticle(new Article("t1", "Report", "Content", "https://www.bbc.com/news/1")).getArticle();
+
+        // queued 400 ms behind the content stage, yet within its own 150 ms once running
+        assertThat(article.getFeatureScores().get(FakeNewsDetector.STAGE_DOMAIN)).isEqualTo(0.15);
+        serial.shutdown();
+    }
+
+    @Test
+    void stageTimeout_interruptsTheWork() throws Exception {
+        SlowClassifier slow = new SlowClassifier(10_000);
+        DetectorSettings settings = new DetectorSettings();
+        settings.setStageTimeout(FakeNewsDetector.STAGE_CONTENT, 100);
+        settings.setInferenceBackend(slow);
+        FakeNewsDetector impatient = new FakeNewsDetector(settings);
+
+        Article article = impatient.analyzeArticle(new Article("t2", "Report", "Content", "example.com")).getArticle();
+
+        assertThat(article.getFeatureScores().get(FakeNewsDetector.STAGE_CONTENT)).isEqualTo(0.5);
+        assertThat(slow.interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        impatient.shutdown();
+    }
+
+    /** Classifies after a delay; counts down when interrupted while waiting. */
+    private static class SlowClassifier implements InferenceBackend {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        private final HeuristicInferenceBackend heuristic = new HeuristicInferenceBackend();
+        private final long delayMs;
+
+        SlowClassifier(long delayMs) { this.delayMs = delayMs; }
+
+        @Override public String name() { return "slow"; }
+
+        @Override
+        public double[] classify(List<String> texts) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return heuristic.classify(texts);
+        }
+
+        @Override
+        public List<double[]> embed(List<String> texts) { return heuristic.embed(texts); }
+    }
 }
@@ -0,0 +1,64 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedLruCacheTest {
+
+    @Test
+    void eviction_takesTheLeastRecentlyUsedEntryAcrossSegments() {
+        List<Integer> evicted = new ArrayList<>();
+        BoundedLruCache<Integer, String> cache = new BoundedLruCache<>(64, v -> 1L, 0, (k, v) -> evicted.add(k));
+        for (int i = 0; i < 64; i++) cache.put(i, "v" + i);
+        for (int i = 0; i < 32; i++) cache.get(i);   // the first half is now the most recently used
+
+        for (int i = 64; i < 96; i++) cache.put(i, "v" + i);
+
+        assertThat(evicted).containsExactlyInAnyOrderElementsOf(range(32, 64));
+        for (int i = 0; i < 32; i++) assertThat(cache.get(i)).as("key %d", i).isNotNull();
+        assertThat(cache.size()).isEqualTo(64);
+    }
+
+    @Test
+    void evictionListener_runsOutsideTheSegmentLock() throws Exception {
+        CountDownLatch inListener = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedLruCache<Integer, String> cache = new BoundedLruCache<>(2, v -> 1L, 0, (k, v) -> {
+            inListener.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        cache.put(0, "v0");
+        cache.put(16, "v16");   // same segment as 0
+
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> cache.put(32, "v32"));
+        assertThat(inListener.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // the listener is still running: readers of its segment go on, and see the evicted value
+        String evicted = CompletableFuture.supplyAsync(() -> cache.get(0)).get(5, TimeUnit.SECONDS);
+        String neighbour = CompletableFuture.supplyAsync(() -> cache.get(16)).get(5, TimeUnit.SECONDS);
+        assertThat(evicted).isEqualTo("v0");
+        assertThat(neighbour).isEqualTo("v16");
+
+        release.countDown();
+        writer.get(5, TimeUnit.SECONDS);
+        assertThat(cache.get(0)).isNull();
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> out = new ArrayList<>();
+        for (int i = from; i < to; i++) out.add(i);
+        return out;
+    }
+}
@@ -0,0 +1,147 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CompactDomainIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void feed_skipsHeaderCommentsAndMalformedLines() throws Exception {
+        String feed = "domain,score\n"
+                + "# reputation feed\n"
+                + "reuters.com,0.1\n"
+                + "blogs.reuters.com\t0.6\n"
+                + "*.clickbait.net,0.9\n"
+                + "clickbait.net,0.8\n"
+                + "not a line\n"
+                + "\n"
+                + "bad-score.org,high\n";
+        CompactDomainIndex.Builder builder = new CompactDomainIndex.Builder().addFeed(new StringReader(feed));
+        CompactDomainIndex index = builder.build();
+
+        assertThat(builder.skippedLines()).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.mostSpecificScore("news.reuters.com")).isCloseTo(0.1, within(1e-6));
+        assertThat(index.mostSpecificScore("x.BLOGS.reuters.com.")).isCloseTo(0.6, within(1e-6));
+        assertThat(index.mostSpecificScore("www.clickbait.net")).isCloseTo(0.8, within(1e-6));
+        assertThat(index.mostSpecificScore("reuters.co")).isNaN();
+        assertThat(index.mostSpecificScore("com")).isNaN();
+    }
+
+    @Test
+    void savedIndex_mapsBackAndAgreesWithDomainTrie() throws Exception {
+        Random rnd = new Random(3);
+        String[] tlds = {"com", "net", "org", "co.uk", "news"};
+        CompactDomainIndex.Builder builder = new CompactDomainIndex.Builder();
+        DomainTrie trie = new DomainTrie();
+        for (int i = 0; i < 20_000; i++) {
+            String domain = (rnd.nextInt(4) == 0 ? "www." : "") + "site" + rnd.nextInt(8_000) + "."
+                    + tlds[rnd.nextInt(tlds.length)];
+            double score = rnd.nextInt(100) / 100.0;
+            builder.add(domain, score);
+            trie.insert(domain, score);
+        }
+        Path file = dir.resolve("domains.idx");
+        builder.save(file);
+
+        CompactDomainIndex index = CompactDomainIndex.open(file);
+
+        assertThat(Files.size(file)).isEqualTo(index.bytes());
+        assertThat(index.size()).isEqualTo(trie.size());
+        for (int i = 0; i < 5_000; i++) {
+            String host = "a.www.site" + rnd.nextInt(9_000) + "." + tlds[rnd.nextInt(tlds.length)];
+            double expected = trie.mostSpecificScore(host);
+            if (Double.isNaN(expected)) {
+                assertThat(index.mostSpecificScore(host)).isNaN();
+            } else {
+                assertThat(index.mostSpecificScore(host)).isCloseTo(expected, within(1e-6));
+            }
+        }
+    }
+
+    @Test
+    void loadOrBuild_rebuildsOnlyWhenTheFeedChanges() throws Exception {
+        Path feed = dir.resolve("feed.tsv");
+        Path idx = dir.resolve("feed.idx");
+        Files.writeString(feed, "fakenewssite.com\t0.95\n");
+
+        assertThat(CompactDomainIndex.loadOrBuild(feed, idx).mostSpecificScore("fakenewssite.com"))
+                .isCloseTo(0.95, within(1e-6));
+
+        Files.writeString(feed, "fakenewssite.com\t0.5\n");
+        Files.setLastModifiedTime(feed, FileTime.fromMillis(Files.getLastModifiedTime(idx).toMillis() + 1_000));
+
+        assertThat(CompactDomainIndex.loadOrBuild(feed, idx).mostSpecificScore("fakenewssite.com"))
+                .isCloseTo(0.5, within(1e-6));
+    }
+
+    @Test
+    void loadOrBuild_rebuildsIndexesInAnOlderFormat() throws Exception {
+        Path feed = dir.resolve("feed.tsv");
+        Path idx = dir.resolve("feed.idx");
+        new CompactDomainIndex.Builder().add("medium.com", 0.3).save(idx);
+        try (FileChannel ch = FileChannel.open(idx, StandardOpenOption.WRITE)) {   // as written before URL prefixes
+            ch.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 1), 4);
+        }
+        Files.writeString(feed, "medium.com\t0.3\nmedium.com/@someone\t0.9\n");
+        Files.setLastModifiedTime(idx, FileTime.fromMillis(Files.getLastModifiedTime(feed).toMillis() + 1_000));
+
+        assertThat(CompactDomainIndex.open(idx).mostSpecificScore("medium.com")).isCloseTo(0.3, within(1e-6));
+        assertThat(CompactDomainIndex.formatVersion(idx)).isEqualTo(1);
+
+        CompactDomainIndex rebuilt = CompactDomainIndex.loadOrBuild(feed, idx);
+        String url = "medium.com/@someone/post";
+        assertThat(rebuilt.mostSpecificUrlScore(url, 0, "medium.com".length(), url.length())).isCloseTo(0.9, within(1e-6));
+        assertThat(CompactDomainIndex.formatVersion(idx)).isEqualTo(2);
+    }
+
+    @Test
+    void urlPrefixes_matchLikeDomainTrie() throws Exception {
+        String feed = "medium.com,0.3\n"
+                + "medium.com/@hoaxer/\t0.95\n"
+                + "https://www.example.org/opinion?x=1,0.7\n"
+                + "www.example.org/opinion/guest,0.9\n";
+        CompactDomainIndex index = new CompactDomainIndex.Builder().addFeed(new StringReader(feed)).build();
+        DomainTrie trie = new DomainTrie();
+        trie.insert("medium.com", 0.3);
+        trie.insert("medium.com/@hoaxer/", 0.95);
+        trie.insert("www.example.org/opinion", 0.7);
+        trie.insert("www.example.org/opinion/guest", 0.9);
+
+        for (String url : new String[] {"www.medium.com/@hoaxer/post", "medium.com/@Hoaxer", "medium.com/@other",
+                "www.example.org:443/opinion/guest/a", "www.example.org/opinion/staff", "www.example.org/opinions",
+                "example.org/opinion", "unlisted.com/opinion"}) {
+            int to = 0;
+            while (to < url.length() && url.charAt(to) != '/' && url.charAt(to) != ':') to++;
+            double expected = trie.mostSpecificUrlScore(url, 0, to, url.length());
+            double actual = index.mostSpecificUrlScore(url, 0, to, url.length());
+            if (Double.isNaN(expected)) {
+                assertThat(actual).isNaN();
+            } else {
+                assertThat(actual).isCloseTo(expected, within(1e-6));
+            }
+        }
+        List<String> entries = new ArrayList<>();
+        index.forEachDomain(entries::add);
+        assertThat(entries).containsExactlyInAnyOrder("medium.com", "medium.com/@hoaxer",
+                "www.example.org/opinion", "www.example.org/opinion/guest");
+    }
+}
@@ -0,0 +1,96 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CredibilityMinHeapTest {
+
+    @Test
+    void topK_matchesFullSortAndLeavesHeapIntact() {
+        CredibilityMinHeap heap = new CredibilityMinHeap();
+        Random rnd = new Random(5);
+        List<Double> scores = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            double s = rnd.nextDouble();
+            scores.add(s);
+            heap.insert("a" + i, s);
+        }
+
+        List<Double> expected = scores.stream()
+                .sorted(Comparator.reverseOrder())
+                .limit(20)
+                .collect(Collectors.toList());
+        List<Double> top = heap.topK(20).stream()
+                .map(CredibilityRanking.Entry::getCredibilityScore)
+                .collect(Collectors.toList());
+
+        assertThat(top).isEqualTo(expected);
+        assertThat(heap.size()).isEqualTo(1_000);
+        assertThat(heap.peekLeastCredible().getCredibilityScore()).isEqualTo(expected.get(0));
+    }
+
+    @Test
+    void insert_existingId_replacesItsScore() {
+        CredibilityMinHeap heap = new CredibilityMinHeap();
+        heap.insert("a", 0.9);
+        heap.insert("b", 0.5);
+        heap.insert("a", 0.1);
+
+        assertThat(heap.size()).isEqualTo(2);
+        assertThat(heap.scoreOf("a")).isEqualTo(0.1);
+        assertThat(heap.peekLeastCredible().getArticleId()).isEqualTo("b");
+    }
+
+    @Test
+    void updateAndRemove_keepHeapOrder() {
+        CredibilityMinHeap heap = new CredibilityMinHeap();
+        for (int i = 0; i < 10; i++) heap.insert("a" + i, i / 10.0);
+
+        assertThat(heap.updateScore("a0", 0.95)).isTrue();
+        assertThat(heap.updateScore("missing", 0.5)).isFalse();
+        assertThat(heap.remove("a9")).isTrue();
+        assertThat(heap.remove("a9")).isFalse();
+
+        List<String> drained = new ArrayList<>();
+        while (!heap.isEmpty()) drained.add(heap.pollLeastCredible().getArticleId());
+
+        assertThat(drained).containsExactly("a0", "a8", "a7", "a6", "a5", "a4", "a3", "a2", "a1");
+        assertThat(heap.scoreOf("a0")).isNaN();
+    }
+
+    @Test
+    void descending_pagesThroughEveryEntryOnce_despiteChangesBetweenPages() {
+        CredibilityMinHeap heap = new CredibilityMinHeap();
+        for (int i = 0; i < 100; i++) heap.insert("a" + i, i / 100.0);
+
+        Iterator<CredibilityRanking.Entry> it = heap.descending();
+        List<String> walked = new ArrayList<>();
+        for (int i = 0; i < 3; i++) walked.add(it.next().getArticleId());
+        heap.insert("a0", 0.999);   // re-ranked above entries already handed out
+        it.forEachRemaining(e -> walked.add(e.getArticleId()));
+
+        assertThat(walked.subList(0, 3)).containsExactly("a99", "a98", "a97");
+        assertThat(walked).doesNotHaveDuplicates().hasSize(99).doesNotContain("a0");
+    }
+
+    @Test
+    void idInterner_roundTripsAndDeduplicates() {
+        IdInterner ids = new IdInterner();
+        int a = ids.intern("article-ü-1");
+        int b = ids.intern("article-2");
+
+        assertThat(ids.intern("article-ü-1")).isEqualTo(a);
+        assertThat(ids.idOf(a)).isEqualTo("article-ü-1");
+        assertThat(ids.idOf(b)).isEqualTo("article-2");
+        assertThat(ids.lookup("unknown")).isEqualTo(-1);
+        assertThat(ids.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,79 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CredibilityRankIndexTest {
+
+    @Test
+    void topK_returnsHighestFakeScoresFirst() {
+        CredibilityRankIndex index = new CredibilityRankIndex();
+        index.insert("a", 0.2);
+        index.insert("b", 0.9);
+        index.insert("c", 0.5);
+        index.insert("d", 0.7);
+
+        List<String> top = index.topK(3).stream()
+                .map(CredibilityRanking.Entry::getArticleId)
+                .collect(Collectors.toList());
+
+        assertThat(top).containsExactly("b", "d", "c");
+        assertThat(index.topK(10)).hasSize(4);
+        assertThat(index.topK(0)).isEmpty();
+    }
+
+    @Test
+    void insert_existingId_replacesItsScore() {
+        CredibilityRankIndex index = new CredibilityRankIndex();
+        index.insert("a", 0.9);
+        index.insert("b", 0.5);
+        index.insert("a", 0.1);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.topK(1).get(0).getArticleId()).isEqualTo("b");
+        assertThat(index.scoreOf("a")).isEqualTo(0.1);
+    }
+
+    @Test
+    void updateAndRemove_onlyTouchRankedArticles() {
+        CredibilityRankIndex index = new CredibilityRankIndex();
+        index.insert("a", 0.3);
+
+        assertThat(index.updateScore("missing", 0.8)).isFalse();
+        assertThat(index.updateScore("a", 0.8)).isTrue();
+        assertThat(index.remove("a")).isTrue();
+        assertThat(index.remove("a")).isFalse();
+        assertThat(index.isEmpty()).isTrue();
+    }
+
+    @Test
+    void concurrentUpserts_keepOneEntryPerArticle() throws Exception {
+        CredibilityRankIndex index = new CredibilityRankIndex();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    index.insert("article-" + rnd.nextInt(500), rnd.nextDouble());
+                    if (i % 50 == 0) assertThat(index.topK(5).size()).isLessThanOrEqualTo(5);
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(index.size()).isEqualTo(500);
+        assertThat(index.topK(1_000)).hasSize(500);
+    }
+}
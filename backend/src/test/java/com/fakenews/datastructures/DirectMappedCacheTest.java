@@ -0,0 +1,31 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirectMappedCacheTest {
+
+    @Test
+    void getRegion_findsTheKeyInsideLongerText() {
+        DirectMappedCache<String, String> cache = new DirectMappedCache<>(64);
+        cache.put("news.bbc.co.uk", "bbc.co.uk");
+        String url = "https://news.bbc.co.uk/world/1";
+
+        assertThat(cache.getRegion(url, 8, 22)).isEqualTo("bbc.co.uk");
+        assertThat(cache.getRegion(url, 8, 21)).isNull();              // a prefix of the key
+        assertThat(cache.getRegion("https://news.bbc.co.ukx", 8, 23)).isNull();
+    }
+
+    @Test
+    void collidingKeys_replaceEachOther() {
+        DirectMappedCache<String, Integer> cache = new DirectMappedCache<>(2);
+        cache.put("a", 1);
+        cache.put("c", 2);   // same slot of two
+
+        assertThat(cache.capacity()).isEqualTo(2);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("c")).isEqualTo(2);
+        assertThat(cache.computeIfAbsent("a", k -> 3)).isEqualTo(3);
+    }
+}
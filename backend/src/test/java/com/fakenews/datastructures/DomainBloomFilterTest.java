@@ -0,0 +1,55 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainBloomFilterTest {
+
+    private final PublicSuffixList psl = PublicSuffixList.parse(List.of("com", "uk", "co.uk", "blogspot.com"));
+
+    @Test
+    void mightContainEnclosing_hasNoFalseNegativesForHostsUnderStoredDomains() {
+        DomainBloomFilter filter = DomainBloomFilter.create(3, 0.01, psl);
+        filter.add("reuters.com");
+        filter.add("news.bbc.co.uk");
+        filter.add("10.0.0.1");
+
+        assertThat(mightContain(filter, "reuters.com")).isTrue();
+        assertThat(mightContain(filter, "WWW.Reuters.com")).isTrue();
+        // keyed on bbc.co.uk: a sibling of the stored subdomain passes, and the index decides
+        assertThat(mightContain(filter, "sport.bbc.co.uk")).isTrue();
+        assertThat(mightContain(filter, "10.0.0.1")).isTrue();
+        assertThat(filter.size()).isEqualTo(3);
+    }
+
+    @Test
+    void mightContainEnclosing_rejectsMostUnlistedHosts() {
+        DomainBloomFilter filter = DomainBloomFilter.create(10_000, 0.01, psl);
+        for (int i = 0; i < 10_000; i++) filter.add("listed" + i + ".com");
+
+        Random rnd = new Random(7);
+        int passed = 0, trials = 20_000;
+        for (int i = 0; i < trials; i++) {
+            if (mightContain(filter, "www.unlisted" + rnd.nextInt(1_000_000) + ".co.uk")) passed++;
+        }
+        assertThat(passed / (double) trials).isLessThan(0.02);
+        assertThat(filter.expectedFpp()).isLessThan(0.02);
+    }
+
+    @Test
+    void mightContainEnclosing_probesAboveTheRegistrableDomainForStoredSuffixes() {
+        DomainBloomFilter filter = DomainBloomFilter.create(2, 0.001, psl);
+        filter.add("blogspot.com");
+
+        assertThat(mightContain(filter, "someone.blogspot.com")).isTrue();
+        assertThat(mightContain(filter, "blogspot.com")).isTrue();
+    }
+
+    private static boolean mightContain(DomainBloomFilter filter, String host) {
+        return filter.mightContainEnclosing(host, 0, host.length());
+    }
+}
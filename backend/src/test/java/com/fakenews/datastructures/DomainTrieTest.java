@@ -0,0 +1,98 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainTrieTest {
+
+    @Test
+    void mostSpecificScore_prefersTheDeepestStoredAncestor() {
+        DomainTrie trie = new DomainTrie();
+        trie.insert("reuters.com", 0.10);
+        trie.insert("blogs.reuters.com", 0.60);
+
+        assertThat(trie.mostSpecificScore("reuters.com")).isEqualTo(0.10);
+        assertThat(trie.mostSpecificScore("news.reuters.com")).isEqualTo(0.10);
+        assertThat(trie.mostSpecificScore("a.blogs.reuters.com")).isEqualTo(0.60);
+        assertThat(trie.mostSpecificScore("reuters.co")).isNaN();
+        assertThat(trie.mostSpecificScore("com")).isNaN();
+    }
+
+    @Test
+    void mostSpecificScore_readsHostInPlaceIgnoringCase() {
+        DomainTrie trie = new DomainTrie();
+        trie.insert("BBC.com", 0.15);
+        String url = "https://WWW.BBC.COM./news/article";
+
+        assertThat(trie.mostSpecificScore(url, 8, 20)).isEqualTo(0.15);
+        assertThat(trie.mostSpecificScore("notbbc.com")).isNaN();
+    }
+
+    @Test
+    void search_isExactWhileFallbackWalksUp() {
+        DomainTrie trie = new DomainTrie();
+        trie.insert("clickbait.net", 0.90);
+        trie.insert("clickbait.net", 0.80);
+
+        assertThat(trie.size()).isEqualTo(1);
+        assertThat(trie.search("clickbait.net")).isEqualTo(0.80);
+        assertThat(trie.search("www.clickbait.net")).isNull();
+        assertThat(trie.search("net")).isNull();
+        assertThat(trie.searchWithFallback("www.clickbait.net")).isEqualTo(0.80);
+        assertThat(trie.searchWithFallback("unknown.org")).isNull();
+    }
+
+    @Test
+    void manySiblings_growTheChildTable() {
+        DomainTrie trie = new DomainTrie();
+        for (int i = 0; i < 5_000; i++) trie.insert("site" + i + ".com", i / 5_000.0);
+
+        assertThat(trie.size()).isEqualTo(5_000);
+        for (int i = 0; i < 5_000; i += 97) {
+            assertThat(trie.mostSpecificScore("www.site" + i + ".com")).isEqualTo(i / 5_000.0);
+        }
+        List<String> matched = trie.getAllWithPrefix("site499").stream()
+                .map(DomainTrie.DomainScore::getDomain)
+                .collect(Collectors.toList());
+        assertThat(matched).containsExactlyInAnyOrder("site499.com", "site4990.com", "site4991.com",
+                "site4992.com", "site4993.com", "site4994.com", "site4995.com", "site4996.com",
+                "site4997.com", "site4998.com", "site4999.com");
+    }
+
+    @Test
+    void mostSpecificUrlScore_pathPrefixOverridesDomainScore() {
+        DomainTrie trie = new DomainTrie();
+        trie.insert("medium.com", 0.30);
+        trie.insert("medium.com/@hoaxer/", 0.95);
+        trie.insert("https://www.example.org/opinion", 0.70);
+        trie.insert("www.example.org/opinion/guest", 0.90);
+
+        assertThat(urlScore(trie, "https://www.medium.com/@hoaxer/post-1?ref=x")).isEqualTo(0.95);
+        assertThat(urlScore(trie, "https://medium.com//@HOAXER")).isEqualTo(0.95);
+        assertThat(urlScore(trie, "https://medium.com/@hoaxer2/post")).isEqualTo(0.30);
+        assertThat(urlScore(trie, "https://medium.com")).isEqualTo(0.30);
+        // whole segments, longest prefix; a port is skipped
+        assertThat(urlScore(trie, "http://www.example.org:8080/opinion/guest/a")).isEqualTo(0.90);
+        assertThat(urlScore(trie, "http://www.example.org/opinion/staff")).isEqualTo(0.70);
+        assertThat(urlScore(trie, "http://www.example.org/opinions")).isNaN();
+        assertThat(urlScore(trie, "http://example.org/opinion")).isNaN();
+
+        assertThat(trie.search("medium.com/@hoaxer")).isEqualTo(0.95);
+        assertThat(trie.getAllWithPrefix("www.example.org/").stream().map(DomainTrie.DomainScore::getDomain)
+                .collect(Collectors.toList()))
+                .containsExactlyInAnyOrder("www.example.org/opinion", "www.example.org/opinion/guest");
+    }
+
+    /** Host span after the scheme, path up to the query, as the detector passes them. */
+    private static double urlScore(DomainTrie trie, String url) {
+        int from = url.indexOf("://") + 3;
+        int to = from;
+        while (to < url.length() && "/:?#".indexOf(url.charAt(to)) < 0) to++;
+        int end = url.indexOf('?') < 0 ? url.length() : url.indexOf('?');
+        return trie.mostSpecificUrlScore(url, from, to, end);
+    }
+}
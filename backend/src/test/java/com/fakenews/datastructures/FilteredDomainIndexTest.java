@@ -0,0 +1,45 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilteredDomainIndexTest {
+
+    @Test
+    void mostSpecificScore_answersLikeTheUnfilteredIndex() {
+        CompactDomainIndex index = new CompactDomainIndex.Builder()
+                .add("reuters.com", 0.10)
+                .add("blogs.reuters.com", 0.60)
+                .add("bbc.co.uk", 0.15)
+                .build();
+        FilteredDomainIndex filtered = FilteredDomainIndex.of(index, 0.01);
+
+        for (String host : List.of("reuters.com", "a.blogs.reuters.com", "news.bbc.co.uk ", "BBC.CO.UK.",
+                "unlisted.com", "bbc.com", "co.uk", "")) {
+            double expected = index.mostSpecificScore(host);
+            if (Double.isNaN(expected)) {
+                assertThat(filtered.mostSpecificScore(host)).isNaN();
+            } else {
+                assertThat(filtered.mostSpecificScore(host)).isEqualTo(expected);
+            }
+        }
+        assertThat(filtered.size()).isEqualTo(3);
+    }
+
+    @Test
+    void forEachDomain_visitsEveryStoredDomain() {
+        CompactDomainIndex index = new CompactDomainIndex.Builder()
+                .add("reuters.com", 0.10)
+                .add("blogs.reuters.com", 0.60)
+                .add("bbc.co.uk", 0.15)
+                .build();
+        List<String> seen = new ArrayList<>();
+        index.forEachDomain(seen::add);
+
+        assertThat(seen).containsExactlyInAnyOrder("reuters.com", "blogs.reuters.com", "bbc.co.uk");
+    }
+}
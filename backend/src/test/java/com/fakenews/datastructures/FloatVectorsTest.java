@@ -0,0 +1,72 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FloatVectorsTest {
+
+    @Test
+    void dot_matchesDoublePrecisionReference_forAnyLength() {
+        Random rnd = new Random(5);
+        for (int len : new int[] {1, 3, 4, 7, 8, 15, 17, 33, 768, 769}) {
+            float[] a = random(rnd, len);
+            float[] b = random(rnd, len);
+            double expected = 0;
+            for (int i = 0; i < len; i++) expected += (double) a[i] * b[i];
+
+            assertThat((double) FloatVectors.dot(a, b)).isCloseTo(expected, within(1e-3));
+        }
+    }
+
+    @Test
+    void dotMany_scoresEveryRowOfTheMatrix() {
+        Random rnd = new Random(9);
+        int dim = 19, rows = 5;
+        float[] query = random(rnd, dim);
+        float[] matrix = new float[rows * dim + 3];   // trailing slack is ignored
+        for (int i = 0; i < matrix.length; i++) matrix[i] = (float) rnd.nextGaussian();
+
+        float[] out = new float[rows];
+        FloatVectors.dotMany(query, matrix, rows, out);
+
+        for (int r = 0; r < rows; r++) {
+            float[] row = new float[dim];
+            System.arraycopy(matrix, r * dim, row, 0, dim);
+            assertThat((double) out[r]).isCloseTo(FloatVectors.dot(query, row), within(1e-5));
+        }
+    }
+
+    @Test
+    void quantizedDot_staysCloseToTheFloatDot() {
+        Random rnd = new Random(13);
+        float[] a = FloatVectors.normalized(random(rnd, 768));
+        float[] b = FloatVectors.normalized(random(rnd, 768));
+        byte[] codes = new byte[768 + 5];
+        float scale = FloatVectors.quantize(b, codes, 5);
+
+        assertThat((double) FloatVectors.dotQuantized(a, codes, 5, scale))
+                .isCloseTo(FloatVectors.dot(a, b), within(0.01));
+        byte[] bCodes = Arrays.copyOfRange(codes, 5, codes.length);
+        assertThat((double) FloatVectors.dotQuantized(bCodes, scale, bCodes, scale)).isCloseTo(1.0, within(0.01));
+    }
+
+    @Test
+    void normalized_hasUnitLength_andZeroStaysZero() {
+        float[] v = FloatVectors.normalized(new double[] {3, 4});
+
+        assertThat((double) v[0]).isCloseTo(0.6, within(1e-6));
+        assertThat((double) FloatVectors.dot(v, v)).isCloseTo(1.0, within(1e-6));
+        assertThat((double) FloatVectors.normalized(new double[] {0, 0})[1]).isEqualTo(0.0);
+    }
+
+    private static float[] random(Random rnd, int len) {
+        float[] v = new float[len];
+        for (int i = 0; i < len; i++) v[i] = (float) rnd.nextGaussian();
+        return v;
+    }
+}
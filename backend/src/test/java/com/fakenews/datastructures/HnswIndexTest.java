@@ -0,0 +1,208 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HnswIndexTest {
+
+    private static final int DIM = 32;
+
+    @Test
+    void search_findsExactMatchFirst() {
+        HnswIndex index = new HnswIndex();
+        Random rnd = new Random(1);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            float[] v = randomUnit(rnd);
+            vectors.add(v);
+            index.insert("v" + i, v);
+        }
+
+        List<HnswIndex.Neighbor> top = index.search(vectors.get(42), 5);
+
+        assertThat(top).isNotEmpty();
+        assertThat(top.get(0).getKey()).isEqualTo("v42");
+        assertThat(top.get(0).getSimilarity()).isCloseTo(1.0, within(1e-5));
+    }
+
+    @Test
+    void search_recallAgainstBruteForce() {
+        HnswIndex index = new HnswIndex();
+        Random rnd = new Random(7);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            float[] v = randomUnit(rnd);
+            vectors.add(v);
+            index.insert("v" + i, v);
+        }
+
+        int k = 10, hits = 0, queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomUnit(rnd);
+            Set<String> exact = bruteForce(vectors, query, k);
+            for (HnswIndex.Neighbor n : index.search(query, k)) {
+                if (exact.contains(n.getKey())) hits++;
+            }
+        }
+        double recall = hits / (double) (k * queries);
+        assertThat(recall).isGreaterThan(0.9);
+    }
+
+    @Test
+    void quantized_keepsRecallWithinAFewPercent() {
+        HnswIndex index = new HnswIndex(HnswIndex.DEFAULT_M, HnswIndex.DEFAULT_EF_CONSTRUCTION,
+                HnswIndex.DEFAULT_EF_SEARCH, true);
+        Random rnd = new Random(7);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            float[] v = randomUnit(rnd);
+            vectors.add(v);
+            index.insert("v" + i, v);
+        }
+
+        List<HnswIndex.Neighbor> self = index.search(vectors.get(42), 1);
+        assertThat(self.get(0).getKey()).isEqualTo("v42");
+        assertThat(self.get(0).getSimilarity()).isCloseTo(1.0, within(0.02));
+
+        int k = 10, hits = 0, queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomUnit(rnd);
+            Set<String> exact = bruteForce(vectors, query, k);
+            for (HnswIndex.Neighbor n : index.search(query, k)) {
+                if (exact.contains(n.getKey())) hits++;
+            }
+        }
+        assertThat(hits / (double) (k * queries)).isGreaterThan(0.85);
+    }
+
+    @Test
+    void quantized_exactSimilarityReadsTheFloatCopy(@TempDir Path dir) {
+        MappedFloatVectors exact = new MappedFloatVectors(dir);
+        HnswIndex index = new HnswIndex(HnswIndex.DEFAULT_M, HnswIndex.DEFAULT_EF_CONSTRUCTION,
+                HnswIndex.DEFAULT_EF_SEARCH, exact);
+        Random rnd = new Random(9);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            float[] v = randomUnit(rnd);
+            vectors.add(v);
+            index.insert("v" + i, v);
+        }
+
+        float[] query = randomUnit(rnd);
+        for (int i = 0; i < vectors.size(); i += 17) {
+            assertThat(index.exactSimilarity(query, "v" + i))
+                    .isCloseTo(FloatVectors.dot(query, vectors.get(i)), within(1e-6));
+        }
+        assertThat(index.exactSimilarity(query, "missing")).isNaN();
+        assertThat(exact.rows()).isEqualTo(200);
+        exact.close();
+    }
+
+    @Test
+    void insert_duplicateKeyIsIgnored() {
+        HnswIndex index = new HnswIndex();
+        float[] v = randomUnit(new Random(3));
+
+        assertThat(index.insert("a", v)).isTrue();
+        assertThat(index.insert("a", v)).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_dropsKeysAndRebuildsOnceHalfAreGone() {
+        HnswIndex index = new HnswIndex(HnswIndex.DEFAULT_M, HnswIndex.DEFAULT_EF_CONSTRUCTION,
+                HnswIndex.DEFAULT_EF_SEARCH, true);
+        Random rnd = new Random(3);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            float[] v = randomUnit(rnd);
+            vectors.add(v);
+            index.insert("v" + i, v);
+        }
+
+        for (int i = 0; i < 199; i++) index.remove("v" + i);
+        assertThat(index.size()).isEqualTo(201);
+        assertThat(index.nodeCount()).isEqualTo(400);            // tombstones only so far
+        assertThat(index.search(vectors.get(5), 10)).noneMatch(n -> n.getKey().equals("v5"));
+
+        assertThat(index.remove("v199")).isTrue();
+        assertThat(index.remove("v199")).isFalse();
+        assertThat(index.nodeCount()).isEqualTo(200);            // rebuilt from the live half
+        for (int i = 200; i < 400; i += 20) {
+            assertThat(index.search(vectors.get(i), 1).get(0).getKey()).isEqualTo("v" + i);
+        }
+        assertThat(index.insert("v0", vectors.get(0))).isTrue();
+        assertThat(index.search(vectors.get(0), 1).get(0).getKey()).isEqualTo("v0");
+    }
+
+    @Test
+    void searchesRunWhileInserting() throws Exception {
+        HnswIndex index = new HnswIndex();
+        Random seed = new Random(11);
+        index.insert("seed", randomUnit(seed));
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            final int writer = w;
+            futures.add(pool.submit(() -> {
+                Random rnd = new Random(100 + writer);
+                for (int i = 0; i < 1_500; i++) index.insert("w" + writer + "_" + i, randomUnit(rnd));
+            }));
+        }
+        for (int r = 0; r < 4; r++) {
+            final int reader = r;
+            futures.add(pool.submit(() -> {
+                Random rnd = new Random(200 + reader);
+                for (int i = 0; i < 1_500; i++) {
+                    assertThat(index.search(randomUnit(rnd), 5)).isNotEmpty();
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(index.size()).isEqualTo(3_001);
+    }
+
+    private static Set<String> bruteForce(List<float[]> vectors, float[] query, int k) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < vectors.size(); i++) ids.add(i);
+        return ids.stream()
+                .sorted(Comparator.comparingDouble((Integer i) -> -dot(vectors.get(i), query)))
+                .limit(k)
+                .map(i -> "v" + i)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static float[] randomUnit(Random rnd) {
+        float[] v = new float[DIM];
+        double n = 0;
+        for (int i = 0; i < DIM; i++) { v[i] = (float) rnd.nextGaussian(); n += v[i] * v[i]; }
+        n = Math.sqrt(n);
+        for (int i = 0; i < DIM; i++) v[i] /= n;
+        return v;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++) s += a[i] * b[i];
+        return s;
+    }
+}
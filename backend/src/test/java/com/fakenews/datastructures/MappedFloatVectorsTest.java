@@ -0,0 +1,59 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class MappedFloatVectorsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rows_roundTripAcrossChunks() {
+        int dim = 1 << 20;   // two rows per 8 MB chunk
+        MappedFloatVectors vectors = new MappedFloatVectors(dir);
+        Random rnd = new Random(5);
+        float[][] rows = new float[5][dim];
+        for (float[] row : rows) {
+            for (int i = 0; i < dim; i += 4096) row[i] = rnd.nextFloat();
+            vectors.add(row);
+        }
+
+        assertThat(vectors.rows()).isEqualTo(5);
+        for (int r = 0; r < rows.length; r++) {
+            assertThat(vectors.get(r)).as("row %d", r).isEqualTo(rows[r]);
+            assertThat((double) vectors.dot(rows[r], r)).isCloseTo(FloatVectors.dot(rows[r], rows[r]), within(1e-3));
+        }
+        vectors.close();
+    }
+
+    @Test
+    void add_rejectsAnotherDimension() {
+        MappedFloatVectors vectors = new MappedFloatVectors(dir);
+        vectors.add(new float[8]);
+
+        assertThatThrownBy(() -> vectors.add(new float[4])).isInstanceOf(IllegalArgumentException.class);
+        vectors.close();
+    }
+
+    @Test
+    void close_removesFile() throws Exception {
+        MappedFloatVectors vectors = new MappedFloatVectors(dir);
+        vectors.add(new float[]{1f, 0f});
+
+        vectors.close();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicSuffixListTest {
+
+    private final PublicSuffixList psl = PublicSuffixList.parse(List.of(
+            "// comment",
+            "com", "uk", "co.uk", "github.io",
+            "*.ck", "!www.ck"));
+
+    @Test
+    void registrableDomain_usesTheLongestMatchingSuffix() {
+        assertThat(psl.registrableDomain("www.reuters.com")).isEqualTo("reuters.com");
+        assertThat(psl.registrableDomain("news.bbc.co.uk")).isEqualTo("bbc.co.uk");
+        assertThat(psl.registrableDomain("bbc.co.uk")).isEqualTo("bbc.co.uk");
+        assertThat(psl.registrableDomain("a.b.someone.github.io")).isEqualTo("someone.github.io");
+        // unlisted TLD: default rule "*"
+        assertThat(psl.registrableDomain("www.example.zz")).isEqualTo("example.zz");
+    }
+
+    @Test
+    void registrableDomain_honoursWildcardsAndExceptions() {
+        assertThat(psl.registrableDomain("www.site.gov.ck")).isEqualTo("site.gov.ck");
+        assertThat(psl.registrableDomain("www.ck")).isEqualTo("www.ck");
+        assertThat(psl.registrableDomain("a.www.ck")).isEqualTo("www.ck");
+    }
+
+    @Test
+    void registrableStart_readsHostInPlace() {
+        String url = "https://News.BBC.CO.UK/politics";
+        assertThat(psl.registrableStart(url, 8, 22)).isEqualTo(13);
+        assertThat(psl.registrableDomain(" WWW.Reuters.COM. ")).isEqualTo("reuters.com");
+    }
+
+    @Test
+    void registrableStart_publicSuffixAndIpHaveNoRegistrablePart() {
+        assertThat(psl.registrableStart("co.uk", 0, 5)).isEqualTo(-1);
+        assertThat(psl.registrableStart("gov.ck", 0, 6)).isEqualTo(-1);
+        assertThat(psl.registrableStart("10.0.0.1", 0, 8)).isZero();
+        assertThat(psl.registrableDomain("co.uk")).isEqualTo("co.uk");
+    }
+
+    @Test
+    void bundled_coversCommonCountrySuffixes() {
+        PublicSuffixList bundled = PublicSuffixList.bundled();
+        assertThat(bundled.registrableDomain("www.theage.com.au")).isEqualTo("theage.com.au");
+        assertThat(bundled.registrableDomain("www3.nhk.or.jp")).isEqualTo("nhk.or.jp");
+        assertThat(bundled.registrableDomain("www.bbc.com")).isEqualTo("bbc.com");
+        assertThat(bundled.registrableDomain("news.vnexpress.com.vn")).isEqualTo("vnexpress.com.vn");
+        assertThat(bundled.registrableDomain("www.thestar.com.my")).isEqualTo("thestar.com.my");
+        assertThat(bundled.registrableDomain("newsinfo.inquirer.com.ph")).isEqualTo("inquirer.com.ph");
+        assertThat(bundled.registrableDomain("www.youm7.com.eg")).isEqualTo("youm7.com.eg");
+        assertThat(bundled.registrableDomain("www.detik.co.id")).isEqualTo("detik.co.id");
+        assertThat(bundled.size()).isGreaterThan(9000);
+    }
+
+    @Test
+    void internationalizedRules_matchPunycodeHosts() {
+        PublicSuffixList idn = PublicSuffixList.parse(List.of("cn", "\u516c\u53f8.cn"));
+        assertThat(idn.registrableDomain("www.example.xn--55qx5d.cn")).isEqualTo("example.xn--55qx5d.cn");
+        assertThat(idn.registrableDomain("xn--55qx5d.cn")).isEqualTo("xn--55qx5d.cn");
+    }
+}
@@ -0,0 +1,140 @@
+package com.fakenews.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowedCredibilityRankingTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(365));
+    private final WindowedCredibilityRanking ranking =
+            new WindowedCredibilityRanking(5 * MINUTE, 24 * HOUR, CredibilityRankIndex::new, now::get);
+
+    @Test
+    void topK_mergesOnlyBucketsInsideTheWindow() {
+        ranking.insert("old", 0.99, now.get() - 3 * HOUR);
+        ranking.insert("a", 0.40, now.get() - 50 * MINUTE);
+        ranking.insert("b", 0.90, now.get() - 20 * MINUTE);
+        ranking.insert("c", 0.70, now.get() - MINUTE);
+
+        assertThat(ids(ranking.topK(10, HOUR))).containsExactly("b", "c", "a");
+        assertThat(ids(ranking.topK(2, HOUR))).containsExactly("b", "c");
+        assertThat(ids(ranking.topK(10, 24 * HOUR))).containsExactly("old", "b", "c", "a");
+    }
+
+    @Test
+    void topK_readsOneEntryPerBucketPlusOnePerResult() {
+        AtomicInteger reads = new AtomicInteger();
+        WindowedCredibilityRanking r = new WindowedCredibilityRanking(5 * MINUTE, 24 * HOUR, () -> new CredibilityRankIndex() {
+            @Override
+            public Iterator<CredibilityRanking.Entry> descending() {
+                Iterator<CredibilityRanking.Entry> it = super.descending();
+                return new Iterator<CredibilityRanking.Entry>() {
+                    @Override public boolean hasNext() { return it.hasNext(); }
+                    @Override public CredibilityRanking.Entry next() {
+                        reads.incrementAndGet();
+                        return it.next();
+                    }
+                };
+            }
+
+            @Override
+            public List<CredibilityRanking.Entry> topK(int k) {
+                throw new AssertionError("buckets must not be materialized");
+            }
+        }, now::get);
+        for (int bucket = 0; bucket < 288; bucket++) {
+            for (int i = 0; i < 50; i++) {
+                r.insert("b" + bucket + "-" + i, (bucket * 50 + i) / 14400.0, now.get() - bucket * 5 * MINUTE);
+            }
+        }
+
+        List<CredibilityRanking.Entry> top = r.topK(10, 24 * HOUR);
+
+        assertThat(ids(top)).containsExactly("b287-49", "b287-48", "b287-47", "b287-46", "b287-45",
+                "b287-44", "b287-43", "b287-42", "b287-41", "b287-40");
+        assertThat(reads.get()).isLessThanOrEqualTo(r.bucketCount() + 10);
+    }
+
+    @Test
+    void insert_movedTimestamp_leavesItsOldBucket() {
+        ranking.insert("a", 0.8, now.get() - 5 * HOUR);
+        ranking.insert("a", 0.6, now.get() - MINUTE);
+
+        List<CredibilityRanking.Entry> top = ranking.topK(10, 24 * HOUR);
+        assertThat(ids(top)).containsExactly("a");
+        assertThat(top.get(0).getCredibilityScore()).isEqualTo(0.6);
+        assertThat(ranking.size()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketsPastRetention_areDroppedAsTimeMoves() {
+        ranking.insert("a", 0.8, now.get());
+        ranking.insert("b", 0.5, now.get() - 2 * HOUR);
+        assertThat(ranking.insert("ancient", 0.9, now.get() - 48 * HOUR)).isFalse();
+
+        now.addAndGet(23 * HOUR);
+        assertThat(ids(ranking.topK(10, 24 * HOUR))).containsExactly("a");
+        assertThat(ranking.bucketCount()).isEqualTo(1);
+        assertThat(ranking.size()).isEqualTo(1);
+    }
+
+    @Test
+    void droppedBuckets_areUnlinkedOffTheRequestPath() {
+        List<Runnable> deferred = new ArrayList<>();
+        WindowedCredibilityRanking r =
+                new WindowedCredibilityRanking(5 * MINUTE, 24 * HOUR, CredibilityRankIndex::new, now::get, deferred::add);
+        r.insert("a", 0.8, now.get() - 2 * HOUR);
+        r.insert("b", 0.5, now.get() - 2 * HOUR);
+
+        now.addAndGet(23 * HOUR);
+        assertThat(r.topK(10, 24 * HOUR)).isEmpty();
+        assertThat(deferred).hasSize(1);   // the query only dropped the bucket
+        assertThat(r.linkedIds()).isEqualTo(2);
+
+        // a stale link reads as absent, and re-ranking the id is unaffected by the late unlink
+        assertThat(r.remove("a")).isFalse();
+        r.insert("b", 0.6, now.get());
+        deferred.forEach(Runnable::run);
+
+        assertThat(ids(r.topK(10, HOUR))).containsExactly("b");
+        assertThat(r.linkedIds()).isEqualTo(1);
+        assertThat(r.size()).isEqualTo(1);
+    }
+
+    @Test
+    void insert_intoABucketDroppedMeanwhile_leavesNoLink() {
+        List<Runnable> deferred = new ArrayList<>();
+        WindowedCredibilityRanking[] self = new WindowedCredibilityRanking[1];
+        // the bucket's first insert lets "another thread" with a later clock expire it
+        self[0] = new WindowedCredibilityRanking(5 * MINUTE, 24 * HOUR, () -> new CredibilityRankIndex() {
+            @Override
+            public void insert(String articleId, double score) {
+                super.insert(articleId, score);
+                now.addAndGet(HOUR);
+                self[0].topK(1, HOUR);
+            }
+        }, now::get, deferred::add);
+
+        assertThat(self[0].insert("late", 0.7, now.get() - 24 * HOUR + MINUTE)).isFalse();
+        deferred.forEach(Runnable::run);
+
+        assertThat(self[0].linkedIds()).isZero();
+        assertThat(self[0].size()).isZero();
+    }
+
+    private static List<String> ids(List<CredibilityRanking.Entry> entries) {
+        return entries.stream().map(CredibilityRanking.Entry::getArticleId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,97 @@
+package com.fakenews.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KnowledgeGraphConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int READERS = 4;
+    private static final int ARTICLES_PER_WRITER = 2_000;
+    private static final int SOURCES = 16;
+
+    @Test
+    void concurrentInsertsAndTraversals_keepGraphConsistent() throws Exception {
+        KnowledgeGraph graph = new KnowledgeGraph();
+        for (int s = 0; s < SOURCES; s++) {
+            graph.addNode("source_" + s, "SOURCE", "s" + s + ".com");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Runnable> tasks = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            final int writer = w;
+            tasks.add(() -> {
+                for (int i = 0; i < ARTICLES_PER_WRITER; i++) {
+                    String articleId = "a_" + writer + "_" + i;
+                    String sourceId = "source_" + (i % SOURCES);
+                    graph.addNode(articleId, "ARTICLE", articleId);
+                    graph.addEdge(articleId, sourceId, "PUBLISHED_BY", 1.0);
+                    graph.addEdge(sourceId, articleId, "HAS_ARTICLE", 1.0);
+                    // every writer races on the same duplicate edge
+                    graph.addEdge(sourceId, "source_" + ((i + 1) % SOURCES), "SIBLING", 1.0);
+                }
+            });
+        }
+        for (int r = 0; r < READERS; r++) {
+            final int reader = r;
+            tasks.add(() -> {
+                while (writing.get()) {
+                    String sourceId = "source_" + (reader % SOURCES);
+                    graph.bfs(sourceId);
+                    graph.dijkstra(sourceId);
+                    graph.findRelatedArticles(sourceId, 2);
+                }
+            });
+        }
+
+        List<java.util.concurrent.Future<?>> futures = new ArrayList<>();
+        for (Runnable task : tasks) {
+            futures.add(pool.submit(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+        start.countDown();
+        for (int w = 0; w < WRITERS; w++) {
+            futures.get(w).get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        pool.shutdown();
+        assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(failures).isEmpty();
+        int totalArticles = WRITERS * ARTICLES_PER_WRITER;
+        assertThat(graph.nodeCount()).isEqualTo(SOURCES + totalArticles);
+
+        int hasArticle = 0;
+        for (int s = 0; s < SOURCES; s++) {
+            List<GraphEdge> edges = graph.getEdges("source_" + s);
+            long siblings = edges.stream().filter(e -> "SIBLING".equals(e.getRelationship())).count();
+            assertThat(siblings).isEqualTo(1);
+            hasArticle += (int) edges.stream().filter(e -> "HAS_ARTICLE".equals(e.getRelationship())).count();
+        }
+        // no insertion was lost to a racing copy-on-write
+        assertThat(hasArticle).isEqualTo(totalArticles);
+        assertThat(graph.findRelatedArticles("a_0_0", 2)).hasSize(totalArticles / SOURCES - 1);
+    }
+}
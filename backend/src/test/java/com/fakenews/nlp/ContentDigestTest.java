@@ -0,0 +1,35 @@
+package com.fakenews.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentDigestTest {
+
+    @Test
+    void normalized_ignoresCaseSpacingAndPunctuation() {
+        assertThat(ContentDigest.normalized("Breaking: Mayor  resigns!"))
+                .isEqualTo(ContentDigest.normalized("breaking mayor resigns"))
+                .isNotEqualTo(ContentDigest.normalized("breaking mayor resign"));
+        assertThat(ContentDigest.normalized("  A-b,C ")).isEqualTo(ContentDigest.normalized("a b c"));
+        // SHA-256 over the UTF-16BE chars of the normalized text
+        assertThat(ContentDigest.normalized("ABC").toString())
+                .isEqualTo("e265e98c934ff1ff7d55359eed484c4581b3c372bac922350c645fb5fd937280");
+    }
+
+    @Test
+    void of_keepsFieldBoundariesAndNulls() {
+        assertThat(ContentDigest.of("ab", "c", null)).isNotEqualTo(ContentDigest.of("a", "bc", null));
+        assertThat(ContentDigest.of("t", "", null)).isNotEqualTo(ContentDigest.of("t", null, ""));
+        assertThat(ContentDigest.of("t", "text", "a.com")).isEqualTo(ContentDigest.of("t", "text", "a.com"));
+    }
+
+    @Test
+    void longInput_spansSeveralBufferFlushes() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) text.append("word").append(i).append(' ');
+
+        assertThat(ContentDigest.normalized(text)).isEqualTo(ContentDigest.normalized(text.toString().toUpperCase()));
+        assertThat(ContentDigest.normalized(text)).isNotEqualTo(ContentDigest.normalized(text.append('x')));
+    }
+}
@@ -0,0 +1,67 @@
+package com.fakenews.nlp;
+
+import ai.djl.inference.Predictor;
+import ai.djl.modality.Classifications;
+import ai.djl.repository.zoo.ZooModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DjlInferenceBackendTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void classify_readsTheFakeLabelProbability() throws Exception {
+        ZooModel<String, Classifications> model = mock(ZooModel.class);
+        Predictor<String, Classifications> predictor = mock(Predictor.class);
+        when(model.newPredictor()).thenReturn(predictor);
+        when(predictor.batchPredict(anyList())).thenReturn(List.of(
+                new Classifications(List.of("REAL", "FAKE"), List.of(0.3, 0.7)),
+                new Classifications(List.of("REAL", "FAKE"), List.of(0.9, 0.1))));
+        DjlInferenceBackend backend = new DjlInferenceBackend(model, null, "FAKE", 2);
+
+        double[] scores = backend.classify(List.of("a", "b"));
+
+        assertThat(scores[0]).isCloseTo(0.7, within(1e-9));
+        assertThat(scores[1]).isCloseTo(0.1, within(1e-9));
+        // no embedding model: heuristic vectors
+        assertThat(backend.embed(List.of("a")).get(0)).isEqualTo(new HeuristicInferenceBackend().embed("a"));
+
+        backend.close();
+        verify(predictor, times(2)).close();
+        verify(model).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void classify_missingLabelIsAnError() throws Exception {
+        ZooModel<String, Classifications> model = mock(ZooModel.class);
+        Predictor<String, Classifications> predictor = mock(Predictor.class);
+        when(model.newPredictor()).thenReturn(predictor);
+        when(predictor.batchPredict(anyList())).thenReturn(List.of(
+                new Classifications(List.of("negative", "positive"), List.of(0.5, 0.5))));
+        DjlInferenceBackend backend = new DjlInferenceBackend(model, null, "FAKE", 1);
+
+        assertThatThrownBy(() -> backend.classify(List.of("a")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("FAKE");
+    }
+
+    @Test
+    void missingModel_failsAtConstruction(@TempDir Path dir) {
+        assertThatThrownBy(() -> new DjlInferenceBackend(dir.resolve("absent"), null, null, "FAKE", 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("absent");
+    }
+}
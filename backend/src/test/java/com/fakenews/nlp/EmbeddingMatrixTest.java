@@ -0,0 +1,42 @@
+package com.fakenews.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EmbeddingMatrixTest {
+
+    @Test
+    void growsAcrossChunks_andScoresEveryRow() {
+        for (boolean quantized : new boolean[]{false, true}) {
+            EmbeddingMatrix matrix = new EmbeddingMatrix(3, 2, quantized, 7);   // 7 rows per chunk
+            Random rnd = new Random(5);
+            List<Embedding> added = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                Embedding e = Embedding.of(new float[]{rnd.nextFloat() - 0.5f, rnd.nextFloat() - 0.5f, rnd.nextFloat() - 0.5f});
+                assertThat(matrix.add(e)).isEqualTo(i);
+                added.add(e);
+            }
+
+            Embedding query = Embedding.of(new float[]{1, 2, 3});
+            float[] all = matrix.similarities(query);
+            float[] picked = matrix.similarities(query, new int[]{999, 0, 6, 7, 500});
+            double tolerance = quantized ? 2e-2 : 1e-6;
+
+            assertThat(matrix.rows()).isEqualTo(1_000);
+            assertThat(all).hasSize(1_000);
+            for (int i = 0; i < 1_000; i++) {
+                assertThat((double) all[i]).as("row %d", i).isCloseTo(query.similarity(added.get(i)), within(tolerance));
+            }
+            int[] rows = {999, 0, 6, 7, 500};
+            for (int i = 0; i < rows.length; i++) assertThat(picked[i]).isEqualTo(all[rows[i]]);
+            // full chunks are never over-allocated: 143 chunks of 7 rows
+            assertThat(matrix.bytes()).isEqualTo(143L * 7 * (quantized ? 3 + Float.BYTES : 3 * Float.BYTES));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.fakenews.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RoBERTaModelTest {
+
+    /** Fixed score, records every batch it is asked to embed. */
+    private static class RecordingBackend implements InferenceBackend {
+        final List<List<String>> embedCalls = new ArrayList<>();
+        private final HeuristicInferenceBackend vectors = new HeuristicInferenceBackend();
+
+        @Override public String name() { return "recording"; }
+
+        @Override
+        public double[] classify(List<String> texts) {
+            double[] out = new double[texts.size()];
+            Arrays.fill(out, 0.9);
+            return out;
+        }
+
+        @Override
+        public List<double[]> embed(List<String> texts) {
+            embedCalls.add(new ArrayList<>(texts));
+            return vectors.embed(texts);
+        }
+    }
+
+    @Test
+    void classification_usesTheBackendScore() {
+        RoBERTaModel model = new RoBERTaModel(new RecordingBackend(), new EmbeddingCache());
+
+        RoBERTaModel.ClassificationResult result = model.classify("Officials said the bridge reopened.");
+
+        assertThat(result.getFakeScore()).isEqualTo(0.9);
+        assertThat(result.getClassScores().get("real")).isCloseTo(0.1, within(1e-9));
+        assertThat(result.getAttentionWeights().length).isEqualTo(result.getTokens().length);
+    }
+
+    @Test
+    void batchedEmbeddings_sendOnlyCacheMissesInOneCall() {
+        RecordingBackend backend = new RecordingBackend();
+        RoBERTaModel model = new RoBERTaModel(backend, new EmbeddingCache());
+        Embedding cached = model.getEmbedding("b");
+
+        List<Embedding> out = model.getEmbeddings(List.of("a", "b", "c"));
+
+        assertThat(backend.embedCalls).hasSize(2);
+        assertThat(backend.embedCalls.get(1)).containsExactly("a", "c");
+        assertThat(out.get(1)).isSameAs(cached);
+        assertThat(model.similarity(out.get(0), model.getEmbedding("a"))).isCloseTo(1.0, within(1e-5));
+    }
+
+    @Test
+    void heuristicShortcut_matchesTheBackendPath() {
+        HeuristicInferenceBackend heuristic = new HeuristicInferenceBackend();
+        // same backend behind a wrapper: the model can no longer take its heuristic shortcut
+        InferenceBackend wrapped = new InferenceBackend() {
+            @Override public String name() { return "wrapped"; }
+            @Override public double[] classify(List<String> texts) { return heuristic.classify(texts); }
+            @Override public List<double[]> embed(List<String> texts) { return heuristic.embed(texts); }
+        };
+        String text = "BREAKING!!! Shocking news nobody reported";
+
+        assertThat(new RoBERTaModel(wrapped, new EmbeddingCache()).classify(text).getFakeScore())
+                .isCloseTo(new RoBERTaModel().classify(text).getFakeScore(), within(1e-12));
+    }
+
+    @Test
+    void analyzeAsync_completesWhenTheBackendAnswers() {
+        CompletableFuture<double[]> pending = new CompletableFuture<>();
+        RecordingBackend backend = new RecordingBackend() {
+            @Override
+            public CompletableFuture<double[]> classifyAsync(List<String> texts) { return pending; }
+        };
+        RoBERTaModel model = new RoBERTaModel(backend, new EmbeddingCache());
+
+        CompletableFuture<AnalysisContext> context = model.analyzeAsync("Officials said the bridge reopened.");
+
+        assertThat(context).isNotDone();
+        pending.complete(new double[]{0.25});
+        assertThat(context.join().getFakeScore()).isEqualTo(0.25);
+    }
+}
@@ -0,0 +1,109 @@
+package com.fakenews.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CallGuardTest {
+
+    @Test
+    void breaker_opensOnFailures_thenRecoversThroughHalfOpen() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 1.0, 1000, 2, now::get);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.record(true, false);
+        }
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001));
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse(); // only two trial calls
+        breaker.record(false, false);
+        breaker.record(false, false);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRate()).isEqualTo(0.0);
+    }
+
+    @Test
+    void bulkhead_queuesThenRejects() {
+        ResilienceSettings s = new ResilienceSettings();
+        s.setMaxConcurrent(1);
+        s.setMaxQueued(1);
+        CallGuard guard = new CallGuard(s);
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<String> first = guard.call(() -> { started.incrementAndGet(); return slow; });
+        CompletableFuture<String> queued = guard.call(() -> { started.incrementAndGet(); return CompletableFuture.completedFuture("second"); });
+        CompletableFuture<String> rejected = guard.call(() -> CompletableFuture.completedFuture("third"));
+
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(CallRejectedException.class);
+        assertThat(started.get()).isEqualTo(1);
+
+        slow.complete("first");
+        assertThat(first.join()).isEqualTo("first");
+        assertThat(queued.join()).isEqualTo("second");
+        assertThat(guard.getBulkhead().available()).isEqualTo(1);
+        guard.shutdown();
+    }
+
+    @Test
+    void timeout_adaptsToObservedP99() {
+        ResilienceSettings s = new ResilienceSettings();
+        s.setMinSamples(5);
+        s.setMinTimeoutMs(50);
+        s.setTimeoutMultiplier(2.0);
+        CallGuard guard = new CallGuard(s);
+        for (int i = 0; i < 5; i++) {
+            guard.call(() -> CompletableFuture.completedFuture("fast")).join();
+        }
+        assertThat(guard.currentTimeoutNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        CompletableFuture<String> hung = guard.call(CompletableFuture::new);
+
+        assertThatThrownBy(hung::join).isInstanceOf(CompletionException.class);
+        assertThat(guard.timeoutCount()).isEqualTo(1);
+        assertThat(guard.getBulkhead().available()).isEqualTo(s.getMaxConcurrent());
+        guard.shutdown();
+    }
+
+    @Test
+    void hedge_secondAttemptWinsWhenFirstStalls() {
+        ResilienceSettings s = new ResilienceSettings();
+        s.setMinSamples(5);
+        s.setHedgingEnabled(true);
+        CallGuard guard = new CallGuard(s);
+        for (int i = 0; i < 5; i++) {
+            guard.call(() -> CompletableFuture.completedFuture("warm-up")).join();
+        }
+
+        List<CompletableFuture<String>> attempts = new ArrayList<>();
+        CompletableFuture<String> result = guard.call(() -> {
+            CompletableFuture<String> a = attempts.isEmpty()
+                    ? new CompletableFuture<>()                      // first attempt stalls
+                    : CompletableFuture.completedFuture("hedged");   // hedge answers at once
+            attempts.add(a);
+            return a;
+        });
+
+        assertThat(result.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo("hedged");
+        assertThat(guard.hedgeCount()).isEqualTo(1);
+        assertThat(attempts.get(0).isCancelled()).isTrue();
+        guard.shutdown();
+    }
+}
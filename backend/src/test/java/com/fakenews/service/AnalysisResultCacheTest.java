@@ -0,0 +1,42 @@
+package com.fakenews.service;
+
+import com.fakenews.dto.FakeNewsResult;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisResultCacheTest {
+
+    @Test
+    void degradedResult_isNotCachedWhenItsTtlIsZero() {
+        AnalysisResultCache cache = new AnalysisResultCache(true, 100, 600, 0);
+
+        cache.store("breaking story", result("a1", null), false);
+
+        assertThat(cache.lookup("breaking story", "a2", "t", "s")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void modelScoredResult_replacesTheDegradedOne() {
+        AnalysisResultCache cache = new AnalysisResultCache(true, 100, 600, 30);
+
+        cache.store("breaking story", result("a1", null), false);
+        assertThat(cache.lookup("Breaking  story!", "a2", "t", "s").getDuplicateOf()).isEqualTo("a1");
+
+        cache.store("breaking story", result("a3", 0.9), true);
+        FakeNewsResult hit = cache.lookup("breaking story", "a4", "t", "s");
+
+        assertThat(hit.getDuplicateOf()).isEqualTo("a3");
+        assertThat(hit.getRobertaConfidence()).isEqualTo(0.9);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(2);
+    }
+
+    private static FakeNewsResult result(String articleId, Double robertaConfidence) {
+        FakeNewsResult r = new FakeNewsResult();
+        r.setArticleId(articleId);
+        r.setRobertaConfidence(robertaConfidence);
+        return r;
+    }
+}
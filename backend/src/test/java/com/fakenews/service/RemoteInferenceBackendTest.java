@@ -0,0 +1,68 @@
+package com.fakenews.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RemoteInferenceBackendTest {
+
+    private final RobertaService service = mock(RobertaService.class);
+    private final RemoteInferenceBackend backend = new RemoteInferenceBackend(() -> service);
+
+    @Test
+    void classifyAsync_completesWhenTheServiceAnswers() {
+        CompletableFuture<RobertaAnalysisResponse> call = new CompletableFuture<>();
+        when(service.analyzeAsync(eq(""), eq("text"), isNull())).thenReturn(call);
+
+        CompletableFuture<double[]> scores = backend.classifyAsync(List.of("text"));
+
+        assertThat(scores).isNotDone();
+        call.complete(response(0.8));
+        assertThat(scores.join()[0]).isCloseTo(0.2, within(1e-9));
+    }
+
+    @Test
+    void failedItem_scoresNeutralWithoutFailingTheBatch() {
+        when(service.analyzeAsync(eq(""), eq("ok"), isNull())).thenReturn(CompletableFuture.completedFuture(response(0.9)));
+        when(service.analyzeAsync(eq(""), eq("bad"), isNull()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")));
+
+        double[] scores = backend.classify(List.of("ok", "bad"));
+
+        assertThat(scores[0]).isCloseTo(0.1, within(1e-9));
+        assertThat(scores[1]).isEqualTo(0.5);
+    }
+
+    @Test
+    void controllerRequest_sharesTheBackendsCacheEntry() {
+        RobertaResponseCache cache = new RobertaResponseCache(true, 100, 60);
+        AtomicInteger sent = new AtomicInteger();
+        when(service.analyzeAsync(any(), any(), any())).thenAnswer(inv -> cache.getOrLoad(
+                inv.getArgument(0), inv.getArgument(1), inv.getArgument(2), () -> {
+                    sent.incrementAndGet();
+                    return CompletableFuture.completedFuture(response(0.7));
+                }));
+
+        RobertaAnalysisResponse controllerSide = RemoteInferenceBackend.request(service, "same article").join();
+        double detectorSide = backend.classify(List.of("same article"))[0];
+
+        assertThat(sent.get()).isEqualTo(1);
+        assertThat(detectorSide).isCloseTo(1.0 - controllerSide.getCredibilityScore(), within(1e-9));
+    }
+
+    private static RobertaAnalysisResponse response(double credibility) {
+        RobertaAnalysisResponse r = new RobertaAnalysisResponse();
+        r.setCredibilityScore(credibility);
+        return r;
+    }
+}
@@ -0,0 +1,136 @@
+package com.fakenews.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs the batcher against a local stub of the Python service's /predict and /batch_predict. */
+class RobertaBatcherTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final List<String> singleCalls = new CopyOnWriteArrayList<>();
+    private HttpServer stub;
+    private WebClient client;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(Executors.newFixedThreadPool(4));
+        stub.createContext("/batch_predict", this::batchPredict);
+        stub.createContext("/predict", this::predict);
+        stub.start();
+        client = WebClient.builder().baseUrl("http://127.0.0.1:" + stub.getAddress().getPort()).build();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void concurrentCalls_areCoalescedAndRoutedBackByPosition() {
+        RobertaBatcher batcher = batcher(10, 50);
+
+        List<CompletableFuture<RobertaAnalysisResponse>> calls = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            calls.add(batcher.submit(Map.of("title", "t" + i, "text", "article text number " + i)));
+        }
+
+        for (int i = 0; i < 25; i++) {
+            assertThat(calls.get(i).orTimeout(5, TimeUnit.SECONDS).join().getPrediction()).isEqualTo("t" + i);
+        }
+        assertThat(batchSizes).allSatisfy(n -> assertThat(n).isBetween(2, RobertaBatcher.SERVICE_MAX_BATCH));
+        assertThat(batcher.batchCount()).isLessThan(25);
+        assertThat(batcher.itemCount()).isEqualTo(25);
+        batcher.close();
+    }
+
+    @Test
+    void rejectedBatch_isRetriedItemByItem() {
+        RobertaBatcher batcher = batcher(3, 50);
+
+        CompletableFuture<RobertaAnalysisResponse> ok1 = batcher.submit(Map.of("title", "a", "text", "long enough text"));
+        CompletableFuture<RobertaAnalysisResponse> bad = batcher.submit(Map.of("title", "b", "text", "short"));
+        CompletableFuture<RobertaAnalysisResponse> ok2 = batcher.submit(Map.of("title", "c", "text", "long enough text"));
+
+        assertThat(ok1.orTimeout(5, TimeUnit.SECONDS).join().getPrediction()).isEqualTo("a");
+        assertThat(ok2.orTimeout(5, TimeUnit.SECONDS).join().getPrediction()).isEqualTo("c");
+        assertThat(bad.orTimeout(5, TimeUnit.SECONDS)).isCompletedExceptionally();
+        assertThat(singleCalls).containsExactlyInAnyOrder("a", "b", "c");
+        batcher.close();
+    }
+
+    private RobertaBatcher batcher(int maxBatch, long windowMs) {
+        return new RobertaBatcher(client, this::single, Duration.ofSeconds(5), maxBatch, windowMs, windowMs, 0);
+    }
+
+    private Mono<RobertaAnalysisResponse> single(Map<String, String> request) {
+        return client.post().uri("/predict").bodyValue(request)
+                .retrieve().bodyToMono(RobertaAnalysisResponse.class);
+    }
+
+    // ---- stub endpoints: echo the title as the prediction; text shorter than 10 chars is a 422 ----
+
+    private void batchPredict(HttpExchange ex) throws IOException {
+        JsonNode items = json.readTree(ex.getRequestBody());
+        batchSizes.add(items.size());
+        ArrayNode results = json.createArrayNode();
+        for (JsonNode item : items) {
+            if (item.path("text").asText().length() < 10) {
+                respond(ex, 422, json.createObjectNode().put("detail", "text too short"));
+                return;
+            }
+            results.add(prediction(item));
+        }
+        ObjectNode body = json.createObjectNode();
+        body.set("results", results);
+        body.put("count", results.size());
+        respond(ex, 200, body);
+    }
+
+    private void predict(HttpExchange ex) throws IOException {
+        JsonNode item = json.readTree(ex.getRequestBody());
+        singleCalls.add(item.path("title").asText());
+        if (item.path("text").asText().length() < 10) {
+            respond(ex, 422, json.createObjectNode().put("detail", "text too short"));
+            return;
+        }
+        respond(ex, 200, prediction(item));
+    }
+
+    private ObjectNode prediction(JsonNode item) {
+        return json.createObjectNode()
+                .put("prediction", item.path("title").asText())
+                .put("confidence", 0.9);
+    }
+
+    private void respond(HttpExchange ex, int status, JsonNode body) throws IOException {
+        byte[] bytes = json.writeValueAsBytes(body);
+        ex.getResponseHeaders().add("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        ex.getResponseBody().write(bytes);
+        ex.close();
+    }
+}
@@ -0,0 +1,60 @@
+package com.fakenews.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RobertaResponseCacheTest {
+
+    private final RobertaResponseCache cache = new RobertaResponseCache(true, 100, 60);
+
+    @Test
+    void concurrentMisses_shareOneCall_thenHit() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<RobertaAnalysisResponse> call = new CompletableFuture<>();
+
+        CompletableFuture<RobertaAnalysisResponse> first = cache.getOrLoad("t", "same text", "s", () -> {
+            calls.incrementAndGet();
+            return call;
+        });
+        CompletableFuture<RobertaAnalysisResponse> second = cache.getOrLoad("t", "same text", "s", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        RobertaAnalysisResponse response = new RobertaAnalysisResponse();
+        call.complete(response);
+
+        assertThat(first.join()).isSameAs(response);
+        assertThat(second.join()).isSameAs(response);
+        assertThat(cache.getOrLoad("t", "same text", "s", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        }).join()).isSameAs(response);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(cache.coalescedCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedCall_isNotCached() {
+        CompletableFuture<RobertaAnalysisResponse> failed =
+                cache.getOrLoad("t", "text", "s", () -> CompletableFuture.failedFuture(new RobertaServiceException("down", null)));
+        assertThat(failed).isCompletedExceptionally();
+
+        RobertaAnalysisResponse response = new RobertaAnalysisResponse();
+        assertThat(cache.getOrLoad("t", "text", "s", () -> CompletableFuture.completedFuture(response)).join())
+                .isSameAs(response);
+    }
+
+    @Test
+    void differentSource_isADifferentEntry() {
+        assertThat(RobertaResponseCache.key("t", "text", "a.com"))
+                .isNotEqualTo(RobertaResponseCache.key("t", "text", "b.com"));
+        assertThat(RobertaResponseCache.key("ab", "c", null))
+                .isNotEqualTo(RobertaResponseCache.key("a", "bc", null));
+    }
+}
@@ -0,0 +1,97 @@
+package com.fakenews.store;
+
+import com.fakenews.model.Article;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TieredArticleStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void get_fallsThroughToDiskOnceHotTierIsFull() {
+        TieredArticleStore store = new TieredArticleStore(64 * 1024, dir);
+        for (int i = 0; i < 500; i++) {
+            store.put(article(i));
+        }
+
+        assertThat(store.hotBytes()).isLessThanOrEqualTo(64 * 1024);
+        assertThat(store.coldSize()).isPositive();
+        assertThat(store.hotSize() + store.coldSize()).isEqualTo(500);
+
+        for (int i = 0; i < 500; i++) {
+            Article a = store.get("a" + i);
+            assertThat(a).as("a%d", i).isNotNull();
+            assertThat(a.getContent()).isEqualTo(article(i).getContent());
+        }
+        assertThat(store.coldReadCount()).isPositive();
+        store.close();
+    }
+
+    @Test
+    void spilledArticle_roundTripsAllFields() {
+        TieredArticleStore store = new TieredArticleStore(1, dir); // every put evicts the previous one
+        Article original = article(7);
+        original.setPublishDate(new Date(1_700_000_000_000L));
+        store.put(original);
+        store.put(article(8));
+
+        Article restored = store.get("a7");
+
+        assertThat(restored).isNotSameAs(original);
+        assertThat(restored.getTitle()).isEqualTo(original.getTitle());
+        assertThat(restored.getSource()).isEqualTo(original.getSource());
+        assertThat(restored.getPublishDate()).isEqualTo(original.getPublishDate());
+        assertThat(restored.getCredibilityScore()).isCloseTo(original.getCredibilityScore(), within(1e-12));
+        assertThat(restored.getFeatureScores()).isEqualTo(original.getFeatureScores());
+        assertThat(restored.getClaims()).isEqualTo(original.getClaims());
+        store.close();
+    }
+
+    @Test
+    void respilledArticles_compactTheSpillFile() {
+        TieredArticleStore store = new TieredArticleStore(1, dir);
+        for (int i = 0; i < 2000; i++) {
+            store.put(article(i % 4));   // each re-spill of an id supersedes its previous record
+        }
+
+        assertThat(store.coldSize()).isLessThanOrEqualTo(4);
+        assertThat(store.coldBytes()).isLessThan(store.spillCount() * 100);
+        assertThat(store.garbageBytes()).isLessThan(Math.max(store.coldBytes() / 2 + 1, 64 * 1024));
+        for (int i = 0; i < 4; i++) {
+            assertThat(store.get("a" + i).getContent()).isEqualTo(article(i).getContent());
+        }
+        store.close();
+    }
+
+    @Test
+    void close_removesSpillFile() throws Exception {
+        TieredArticleStore store = new TieredArticleStore(1, dir);
+        store.put(article(1));
+        store.put(article(2));
+
+        store.close();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+        assertThat(store.get("a1")).isNull();
+    }
+
+    private static Article article(int i) {
+        Article a = new Article("a" + i, "Title " + i, "Body of article " + i + " \u00e9 ".repeat(40), "https://example.com/" + i);
+        a.addFeatureScore("content_analysis", (i % 10) / 10.0);
+        a.addClaim("claim " + i);
+        a.setCredibilityScore((i % 7) / 7.0);
+        return a;
+    }
+}